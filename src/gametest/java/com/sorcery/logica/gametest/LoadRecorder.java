@@ -0,0 +1,262 @@
+package com.sorcery.logica.gametest;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.sorcery.logica.Logica;
+import com.sorcery.logica.util.PathRequestQueue;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.server.ServerStoppedEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.loading.FMLPaths;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 负载测试记录器 - 按阶段记录服务器tick耗时、寻路请求数和分配量
+ *
+ * <h2>记录内容（每个阶段）</h2>
+ * <ul>
+ *   <li>服务器tick耗时（ServerTickEvent START → END），输出平均值、p99和最大值</li>
+ *   <li>寻路请求：提交数和实际执行数（{@link PathRequestQueue}），换算为每游戏秒</li>
+ *   <li>服务器线程分配的字节数（不包括异步路线解析等工作线程）</li>
+ * </ul>
+ *
+ * <p>同一时间只有一个记录器生效（负载测试各自使用独立批次，不会并行）。
+ * 结果写入日志和 {@code <游戏目录>/logica-loadtests/<场景>.json}
+ */
+@Mod.EventBusSubscriber(modid = Logica.MOD_ID, bus = Mod.EventBusSubscriber.Bus.FORGE)
+public class LoadRecorder {
+
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+
+    private static final com.sun.management.ThreadMXBean THREAD_BEAN = getThreadBean();
+
+    private static LoadRecorder active;
+
+    /**
+     * 单个阶段的记录
+     */
+    private static final class Phase {
+        final String name;
+        final int transitioned;
+        final LongArrayList tickNanos = new LongArrayList();
+        final LongArrayList allocatedBytes = new LongArrayList();
+        long submittedAtStart;
+        long processedAtStart;
+        long submitted;
+        long processed;
+
+        Phase(String name, int transitioned) {
+            this.name = name;
+            this.transitioned = transitioned;
+        }
+    }
+
+    private final ServerLevel level;
+    private final String scenario;
+    private final int mobCount;
+    private final List<Phase> phases = new ArrayList<>();
+
+    private Phase current;
+    private long tickStartNanos;
+    private long tickStartAllocated;
+
+    private LoadRecorder(ServerLevel level, String scenario, int mobCount) {
+        this.level = level;
+        this.scenario = scenario;
+        this.mobCount = mobCount;
+    }
+
+    /**
+     * 开始记录一个场景（替换上一个未结束的记录器，例如超时失败的测试）
+     */
+    public static LoadRecorder start(ServerLevel level, String scenario, int mobCount) {
+        active = new LoadRecorder(level, scenario, mobCount);
+        return active;
+    }
+
+    // ==================== 阶段 ====================
+
+    /**
+     * 结束当前阶段并开始新阶段
+     *
+     * @param transitioned 进入该阶段时成功切换状态的怪物数
+     */
+    public void beginPhase(String name, int transitioned) {
+        endPhase();
+        Phase phase = new Phase(name, transitioned);
+        PathRequestQueue queue = PathRequestQueue.get(level);
+        phase.submittedAtStart = queue.getSubmittedCount();
+        phase.processedAtStart = queue.getProcessedCount();
+        phases.add(phase);
+        current = phase;
+    }
+
+    private void endPhase() {
+        if (current == null) {
+            return;
+        }
+        PathRequestQueue queue = PathRequestQueue.get(level);
+        current.submitted = queue.getSubmittedCount() - current.submittedAtStart;
+        current.processed = queue.getProcessedCount() - current.processedAtStart;
+        current = null;
+    }
+
+    /**
+     * 停止记录，输出日志并写入结果文件
+     *
+     * @return 全部阶段合并后的汇总
+     */
+    public Summary finish() {
+        endPhase();
+        if (active == this) {
+            active = null;
+        }
+
+        JsonObject report = new JsonObject();
+        report.addProperty("scenario", scenario);
+        report.addProperty("mobs", mobCount);
+
+        Logica.LOGGER.info("Load scenario {} ({} mobs):", scenario, mobCount);
+        JsonArray phaseArray = new JsonArray();
+        LongArrayList allNanos = new LongArrayList();
+        LongArrayList allAllocated = new LongArrayList();
+        long allSubmitted = 0;
+        long allProcessed = 0;
+        for (Phase phase : phases) {
+            Summary summary = Summary.of(phase.tickNanos, phase.allocatedBytes, phase.submitted, phase.processed);
+            JsonObject json = summary.toJson();
+            json.addProperty("phase", phase.name);
+            json.addProperty("transitioned", phase.transitioned);
+            phaseArray.add(json);
+            Logica.LOGGER.info("  {} (transitioned {}): {}", phase.name, phase.transitioned, summary);
+
+            allNanos.addAll(phase.tickNanos);
+            allAllocated.addAll(phase.allocatedBytes);
+            allSubmitted += phase.submitted;
+            allProcessed += phase.processed;
+        }
+
+        Summary total = Summary.of(allNanos, allAllocated, allSubmitted, allProcessed);
+        Logica.LOGGER.info("  total: {}", total);
+        report.add("phases", phaseArray);
+        report.add("total", total.toJson());
+
+        Path output = FMLPaths.GAMEDIR.get().resolve("logica-loadtests").resolve(scenario + ".json");
+        try {
+            Files.createDirectories(output.getParent());
+            try (Writer writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+                GSON.toJson(report, writer);
+            }
+        } catch (IOException e) {
+            Logica.LOGGER.warn("Failed to write load scenario report {}", output, e);
+        }
+        return total;
+    }
+
+    // ==================== tick计时 ====================
+
+    @SubscribeEvent
+    public static void onServerTick(TickEvent.ServerTickEvent event) {
+        LoadRecorder recorder = active;
+        if (recorder == null || recorder.current == null) {
+            return;
+        }
+
+        if (event.phase == TickEvent.Phase.START) {
+            recorder.tickStartNanos = System.nanoTime();
+            recorder.tickStartAllocated = allocatedBytes();
+        } else if (recorder.tickStartNanos != 0) {
+            recorder.current.tickNanos.add(System.nanoTime() - recorder.tickStartNanos);
+            recorder.current.allocatedBytes.add(allocatedBytes() - recorder.tickStartAllocated);
+        }
+    }
+
+    @SubscribeEvent
+    public static void onServerStopped(ServerStoppedEvent event) {
+        active = null;
+    }
+
+    private static long allocatedBytes() {
+        return THREAD_BEAN != null ? THREAD_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId()) : 0;
+    }
+
+    private static com.sun.management.ThreadMXBean getThreadBean() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                && bean.isThreadAllocatedMemorySupported()) {
+            bean.setThreadAllocatedMemoryEnabled(true);
+            return bean;
+        }
+        Logica.LOGGER.warn("Thread allocation accounting is not supported, load reports will show 0 bytes");
+        return null;
+    }
+
+    // ==================== 汇总 ====================
+
+    /**
+     * 一组tick的统计结果
+     */
+    public record Summary(int ticks, double meanTickMs, double p99TickMs, double maxTickMs,
+                          double pathRequestsPerSecond, double pathsComputedPerSecond, long allocatedBytesPerTick) {
+
+        static Summary of(LongArrayList tickNanos, LongArrayList allocatedBytes, long submitted, long processed) {
+            int ticks = tickNanos.size();
+            if (ticks == 0) {
+                return new Summary(0, 0, 0, 0, 0, 0, 0);
+            }
+
+            long[] sorted = tickNanos.toLongArray();
+            Arrays.sort(sorted);
+            long totalNanos = 0;
+            for (long nanos : sorted) {
+                totalNanos += nanos;
+            }
+            long totalAllocated = 0;
+            for (int i = 0; i < allocatedBytes.size(); i++) {
+                totalAllocated += allocatedBytes.getLong(i);
+            }
+
+            // 最近秩法：第 ceil(0.99 * n) 个
+            int p99Index = Math.max(0, (int) Math.ceil(ticks * 0.99) - 1);
+            double seconds = ticks / 20.0;
+            return new Summary(ticks,
+                    totalNanos / 1_000_000.0 / ticks,
+                    sorted[p99Index] / 1_000_000.0,
+                    sorted[ticks - 1] / 1_000_000.0,
+                    submitted / seconds,
+                    processed / seconds,
+                    totalAllocated / ticks);
+        }
+
+        JsonObject toJson() {
+            JsonObject json = new JsonObject();
+            json.addProperty("ticks", ticks);
+            json.addProperty("meanTickMs", meanTickMs);
+            json.addProperty("p99TickMs", p99TickMs);
+            json.addProperty("maxTickMs", maxTickMs);
+            json.addProperty("pathRequestsPerSecond", pathRequestsPerSecond);
+            json.addProperty("pathsComputedPerSecond", pathsComputedPerSecond);
+            json.addProperty("allocatedBytesPerTick", allocatedBytesPerTick);
+            return json;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d ticks, mean %.3f ms, p99 %.3f ms, max %.3f ms, %.1f path requests/s (%.1f computed/s), %d B/tick",
+                    ticks, meanTickMs, p99TickMs, maxTickMs, pathRequestsPerSecond, pathsComputedPerSecond, allocatedBytesPerTick);
+        }
+    }
+}
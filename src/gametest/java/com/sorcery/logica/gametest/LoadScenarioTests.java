@@ -0,0 +1,331 @@
+package com.sorcery.logica.gametest;
+
+import com.sorcery.logica.Logica;
+import com.sorcery.logica.ai.AIState;
+import com.sorcery.logica.ai.AIStrategy;
+import com.sorcery.logica.blocks.ModBlocks;
+import com.sorcery.logica.blocks.entity.BaseStrategyBlockEntity;
+import com.sorcery.logica.capability.AICapabilityProvider;
+import com.sorcery.logica.capability.IAICapability;
+import net.minecraft.core.BlockPos;
+import net.minecraft.gametest.framework.GameTest;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.entity.Mob;
+import net.minecraft.world.entity.npc.Villager;
+import net.minecraft.world.level.block.Block;
+import net.minecraftforge.gametest.GameTestHolder;
+import net.minecraftforge.gametest.PrefixGameTestTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 负载场景测试 - 在标记方块网格上生成策略怪物，依次驱动 IDLE → ALERT → COMBAT → TRACKING → SEARCHING
+ *
+ * <h2>运行方式</h2>
+ * <pre>
+ * ./gradlew runGameTestServer
+ * </pre>
+ * 无头专用服务器，不监听网络。每个场景使用独立批次，按顺序单独运行，
+ * 结果由 {@link LoadRecorder} 写入 {@code run/gametest/logica-loadtests/}
+ *
+ * <h2>门限</h2>
+ * 设置系统属性 {@code logica.loadtest.maxMeanTickMs} / {@code logica.loadtest.maxP99TickMs}
+ * （或Gradle属性 -Plogica.loadtest.maxMeanTickMs=...）后，超过门限的场景判定为失败
+ *
+ * <p>注意：无头服务器上没有玩家，启用AI LOD时IDLE阶段的怪物处于模拟层级；
+ * 需要测量全速IDLE时在测试服务器的配置中关闭 enableAiLod
+ */
+@GameTestHolder(Logica.MOD_ID)
+@PrefixGameTestTemplate(false)
+public class LoadScenarioTests {
+
+    private static final String ARENA = "load_arena";
+
+    /** 场地边长（与 load_arena 结构一致） */
+    private static final int ARENA_SIZE = 48;
+
+    /** 标记方块网格间距 */
+    private static final int MARKER_SPACING = 8;
+
+    /** 策略应用后、开始记录前的预热时间（等待路线解析） */
+    private static final int WARMUP_TICKS = 40;
+
+    /** 每个阶段的记录时长 */
+    private static final int PHASE_TICKS = 100;
+
+    private static final int TIMEOUT_TICKS = WARMUP_TICKS + PHASE_TICKS * 5 + 200;
+
+    private static final BlockPos CENTER = new BlockPos(ARENA_SIZE / 2, 1, ARENA_SIZE / 2);
+
+    /**
+     * 策略组合
+     */
+    private enum Mix {
+        MIXED, GUARD, SENTRIES, PATROL;
+
+        AIStrategy strategyAt(int gridX, int gridZ) {
+            return switch (this) {
+                case MIXED -> switch ((gridX + gridZ) % 3) {
+                    case 0 -> AIStrategy.GUARD;
+                    case 1 -> AIStrategy.SENTRIES;
+                    default -> AIStrategy.PATROL;
+                };
+                case GUARD -> AIStrategy.GUARD;
+                case SENTRIES -> AIStrategy.SENTRIES;
+                case PATROL -> AIStrategy.PATROL;
+            };
+        }
+    }
+
+    // ==================== 场景 ====================
+
+    @GameTest(template = ARENA, batch = "logica_load_mixed_50", timeoutTicks = TIMEOUT_TICKS)
+    public static void mixed50(GameTestHelper helper) {
+        runScenario(helper, "mixed_50", Mix.MIXED, 50);
+    }
+
+    @GameTest(template = ARENA, batch = "logica_load_mixed_200", timeoutTicks = TIMEOUT_TICKS)
+    public static void mixed200(GameTestHelper helper) {
+        runScenario(helper, "mixed_200", Mix.MIXED, 200);
+    }
+
+    @GameTest(template = ARENA, batch = "logica_load_mixed_1000", timeoutTicks = TIMEOUT_TICKS)
+    public static void mixed1000(GameTestHelper helper) {
+        runScenario(helper, "mixed_1000", Mix.MIXED, 1000);
+    }
+
+    @GameTest(template = ARENA, batch = "logica_load_guard_200", timeoutTicks = TIMEOUT_TICKS)
+    public static void guard200(GameTestHelper helper) {
+        runScenario(helper, "guard_200", Mix.GUARD, 200);
+    }
+
+    @GameTest(template = ARENA, batch = "logica_load_sentries_200", timeoutTicks = TIMEOUT_TICKS)
+    public static void sentries200(GameTestHelper helper) {
+        runScenario(helper, "sentries_200", Mix.SENTRIES, 200);
+    }
+
+    @GameTest(template = ARENA, batch = "logica_load_patrol_200", timeoutTicks = TIMEOUT_TICKS)
+    public static void patrol200(GameTestHelper helper) {
+        runScenario(helper, "patrol_200", Mix.PATROL, 200);
+    }
+
+    private static void runScenario(GameTestHelper helper, String scenario, Mix mix, int mobCount) {
+        List<BlockPos> markers = placeMarkers(helper, mix);
+        List<Mob> mobs = spawnMobs(helper, markers, mobCount);
+        LoadRecorder recorder = LoadRecorder.start(helper.getLevel(), scenario, mobs.size());
+        Villager[] target = new Villager[1];
+
+        helper.startSequence()
+                .thenIdle(WARMUP_TICKS)
+                .thenExecute(() -> recorder.beginPhase("IDLE", mobs.size()))
+                .thenIdle(PHASE_TICKS)
+                .thenExecute(() -> recorder.beginPhase("ALERT", alert(helper, mobs)))
+                .thenIdle(PHASE_TICKS)
+                .thenExecute(() -> {
+                    target[0] = spawnTarget(helper);
+                    recorder.beginPhase("COMBAT", engage(mobs, target[0]));
+                })
+                .thenIdle(PHASE_TICKS)
+                .thenExecute(() -> recorder.beginPhase("TRACKING", loseTarget(mobs, target[0])))
+                .thenIdle(PHASE_TICKS)
+                .thenExecute(() -> recorder.beginPhase("SEARCHING", setState(mobs, AIState.SEARCHING)))
+                .thenIdle(PHASE_TICKS)
+                .thenExecute(() -> {
+                    LoadRecorder.Summary summary = recorder.finish();
+                    helper.killAllEntities();
+                    checkBudget(helper, scenario, summary);
+                })
+                .thenSucceed();
+    }
+
+    // ==================== 场地 ====================
+
+    /**
+     * 按网格放置标记方块和对应的路径点，返回标记方块的相对位置
+     *
+     * <ul>
+     *   <li>哨兵：标记旁一格连到环绕标记的5x5路径点环（哨兵路径点搜索半径为1，必须相邻）</li>
+     *   <li>巡逻：标记四角各一个路径点</li>
+     *   <li>每个哨兵/巡逻标记使用不同编号，相邻网络互不连通</li>
+     * </ul>
+     */
+    private static List<BlockPos> placeMarkers(GameTestHelper helper, Mix mix) {
+        List<BlockPos> markers = new ArrayList<>();
+        int cells = ARENA_SIZE / MARKER_SPACING;
+        for (int gridX = 0; gridX < cells; gridX++) {
+            for (int gridZ = 0; gridZ < cells; gridZ++) {
+                BlockPos marker = new BlockPos(gridX * MARKER_SPACING + MARKER_SPACING / 2, 1,
+                        gridZ * MARKER_SPACING + MARKER_SPACING / 2);
+                int team = markers.size() % 16;
+
+                switch (mix.strategyAt(gridX, gridZ)) {
+                    case GUARD -> helper.setBlock(marker, ModBlocks.GUARD_MARKER.get());
+                    case SENTRIES -> {
+                        helper.setBlock(marker, ModBlocks.SENTRIES_MARKERS.get(team).get());
+                        Block waypoint = ModBlocks.SENTRIES_WAYPOINTS.get(team).get();
+                        helper.setBlock(marker.east(), waypoint);
+                        for (int dx = -2; dx <= 2; dx++) {
+                            for (int dz = -2; dz <= 2; dz++) {
+                                if (Math.abs(dx) == 2 || Math.abs(dz) == 2) {
+                                    helper.setBlock(marker.offset(dx, 0, dz), waypoint);
+                                }
+                            }
+                        }
+                    }
+                    case PATROL -> {
+                        helper.setBlock(marker, ModBlocks.PATROL_MARKERS.get(team).get());
+                        Block waypoint = ModBlocks.PATROL_WAYPOINTS.get(team).get();
+                        helper.setBlock(marker.offset(3, 0, 3), waypoint);
+                        helper.setBlock(marker.offset(3, 0, -3), waypoint);
+                        helper.setBlock(marker.offset(-3, 0, -3), waypoint);
+                        helper.setBlock(marker.offset(-3, 0, 3), waypoint);
+                    }
+                    default -> {
+                        continue;
+                    }
+                }
+                markers.add(marker);
+            }
+        }
+        return markers;
+    }
+
+    /**
+     * 轮流为每个标记方块生成怪物并直接应用策略（不等待生成检查）
+     *
+     * <p>同一标记的怪物分散在标记所在的网格单元内，避免挤在同一格受到实体挤压伤害
+     */
+    private static List<Mob> spawnMobs(GameTestHelper helper, List<BlockPos> markers, int mobCount) {
+        int cellSide = MARKER_SPACING - 1;
+        List<Mob> mobs = new ArrayList<>(mobCount);
+        for (int i = 0; i < mobCount; i++) {
+            BlockPos marker = markers.get(i % markers.size());
+            int slot = (i / markers.size()) % (cellSide * cellSide);
+            BlockPos spawnPos = marker.offset(slot % cellSide - cellSide / 2, 0, slot / cellSide - cellSide / 2);
+
+            // 尸壳不会在白天燃烧，测试期间不会自行死亡
+            Mob mob = helper.spawn(EntityType.HUSK, spawnPos);
+            if (helper.getLevel().getBlockEntity(helper.absolutePos(marker)) instanceof BaseStrategyBlockEntity entity) {
+                entity.applyStrategy(mob);
+            }
+            mobs.add(mob);
+        }
+        return mobs;
+    }
+
+    /**
+     * 战斗目标：场地中央无敌、无AI的村民
+     */
+    private static Villager spawnTarget(GameTestHelper helper) {
+        Villager villager = helper.spawn(EntityType.VILLAGER, CENTER);
+        villager.setInvulnerable(true);
+        villager.setNoAi(true);
+        return villager;
+    }
+
+    // ==================== 状态驱动 ====================
+
+    /**
+     * ALERT：所有怪物前往场地中央调查
+     */
+    private static int alert(GameTestHelper helper, List<Mob> mobs) {
+        BlockPos center = helper.absolutePos(CENTER);
+        int transitioned = 0;
+        for (Mob mob : mobs) {
+            IAICapability aiCap = getCapability(mob);
+            if (aiCap != null) {
+                aiCap.setLastKnownTargetPos(center);
+                if (aiCap.setState(AIState.ALERT)) {
+                    transitioned++;
+                }
+            }
+        }
+        return transitioned;
+    }
+
+    /**
+     * COMBAT：所有怪物以村民为攻击目标
+     */
+    private static int engage(List<Mob> mobs, Villager target) {
+        int transitioned = 0;
+        for (Mob mob : mobs) {
+            IAICapability aiCap = getCapability(mob);
+            if (aiCap != null) {
+                mob.setTarget(target);
+                aiCap.setLastKnownTargetPos(target.blockPosition());
+                if (aiCap.setState(AIState.COMBAT)) {
+                    transitioned++;
+                }
+            }
+        }
+        return transitioned;
+    }
+
+    /**
+     * TRACKING：目标消失，所有怪物追踪最后已知位置
+     */
+    private static int loseTarget(List<Mob> mobs, Villager target) {
+        BlockPos lastSeen = target.blockPosition();
+        int transitioned = 0;
+        for (Mob mob : mobs) {
+            IAICapability aiCap = getCapability(mob);
+            if (aiCap != null) {
+                // 先切换状态再清除目标，避免战斗监控先一步切换到SEARCHING
+                aiCap.setLastKnownTargetPos(lastSeen);
+                aiCap.setTrackingTicks(0);
+                if (aiCap.setState(AIState.TRACKING)) {
+                    transitioned++;
+                }
+                mob.setTarget(null);
+            }
+        }
+        target.discard();
+        return transitioned;
+    }
+
+    private static int setState(List<Mob> mobs, AIState state) {
+        int transitioned = 0;
+        for (Mob mob : mobs) {
+            IAICapability aiCap = getCapability(mob);
+            if (aiCap != null && aiCap.setState(state)) {
+                transitioned++;
+            }
+        }
+        return transitioned;
+    }
+
+    private static IAICapability getCapability(Mob mob) {
+        if (mob.isRemoved()) {
+            return null;
+        }
+        return mob.getCapability(AICapabilityProvider.AI_CAPABILITY).orElse(null);
+    }
+
+    // ==================== 门限 ====================
+
+    private static void checkBudget(GameTestHelper helper, String scenario, LoadRecorder.Summary summary) {
+        Double maxMean = readLimit("logica.loadtest.maxMeanTickMs");
+        if (maxMean != null && summary.meanTickMs() > maxMean) {
+            helper.fail(String.format("%s: mean tick %.3f ms exceeds %.3f ms", scenario, summary.meanTickMs(), maxMean));
+        }
+        Double maxP99 = readLimit("logica.loadtest.maxP99TickMs");
+        if (maxP99 != null && summary.p99TickMs() > maxP99) {
+            helper.fail(String.format("%s: p99 tick %.3f ms exceeds %.3f ms", scenario, summary.p99TickMs(), maxP99));
+        }
+    }
+
+    private static Double readLimit(String property) {
+        String value = System.getProperty(property);
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            Logica.LOGGER.warn("Ignoring invalid load test limit {}={}", property, value);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package com.sorcery.logica.bench;
+
+import com.mojang.serialization.Lifecycle;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.MappedRegistry;
+import net.minecraft.core.Registry;
+import net.minecraft.core.RegistryAccess;
+import net.minecraft.core.SectionPos;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.util.Mth;
+import net.minecraft.util.SimpleBitStorage;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.biome.Biome;
+import net.minecraft.world.level.biome.BiomeGenerationSettings;
+import net.minecraft.world.level.biome.BiomeSpecialEffects;
+import net.minecraft.world.level.biome.Biomes;
+import net.minecraft.world.level.biome.MobSpawnSettings;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.ChunkAccess;
+import net.minecraft.world.level.chunk.ChunkStatus;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.chunk.PalettedContainer;
+import net.minecraft.world.level.chunk.UpgradeData;
+import net.minecraft.world.level.levelgen.Heightmap;
+import net.minecraft.world.level.storage.DimensionDataStorage;
+import net.minecraft.world.ticks.LevelChunkTicks;
+import sun.misc.Unsafe;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntBinaryOperator;
+
+/**
+ * 内存中的世界替身 - 只实现路径点搜索和地面吸附用到的部分
+ *
+ * <ul>
+ *   <li>地形由 (x, z) → 地表高度 的函数给出：地表及以下是石头，以上是空气</li>
+ *   <li>区块在首次访问时生成（与同步加载区块一样触发路径点索引的扫描）；
+ *       整区块地表高度相同时共享区段对象</li>
+ *   <li>存档数据（路径点索引）保存在临时目录的 {@link DimensionDataStorage} 中，不会写盘</li>
+ * </ul>
+ *
+ * <p>ServerLevel 的构造需要完整的服务器，这里绕过构造函数分配实例，
+ * 只覆盖会被调用的方法；调用其他方法的结果未定义。需要先调用 {@link BenchmarkSupport#bootstrap()}
+ */
+public final class BenchmarkLevel extends ServerLevel {
+
+    private static final Unsafe UNSAFE;
+
+    static {
+        try {
+            Field field = Unsafe.class.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            UNSAFE = (Unsafe) field.get(null);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static final BlockState STONE = Blocks.STONE.defaultBlockState();
+
+    // 以下字段在 create 中赋值（不经过构造函数，不能使用字段初始化器）
+    private int minY;
+    private int height;
+    private IntBinaryOperator surface;
+    private Registry<Biome> biomes;
+    private RegistryAccess registryAccess;
+    private DimensionDataStorage dataStorage;
+    private Long2ObjectOpenHashMap<LevelChunk> chunks;
+
+    // 共享区段：全空气、全石头、按地表高度缓存的部分石头区段
+    private LevelChunkSection airSection;
+    private LevelChunkSection stoneSection;
+    private Int2ObjectOpenHashMap<LevelChunkSection> partialSections;
+
+    @SuppressWarnings("DataFlowIssue")
+    private BenchmarkLevel() {
+        // 不会被调用（实例由 create 绕过构造函数分配）
+        super(null, null, null, null, null, null, null, false, 0L, null, false, null);
+    }
+
+    /**
+     * 创建世界
+     *
+     * @param minY 最低建筑高度（16的倍数）
+     * @param height 建筑高度（16的倍数）
+     * @param surface (x, z) → 地表（最高的石头）高度
+     */
+    public static BenchmarkLevel create(int minY, int height, IntBinaryOperator surface) {
+        BenchmarkLevel level;
+        try {
+            level = (BenchmarkLevel) UNSAFE.allocateInstance(BenchmarkLevel.class);
+            level.dataStorage = new DimensionDataStorage(Files.createTempDirectory("logica-jmh").toFile(), null);
+        } catch (InstantiationException | IOException e) {
+            throw new IllegalStateException("Failed to create benchmark level", e);
+        }
+
+        level.minY = minY;
+        level.height = height;
+        level.surface = surface;
+        level.chunks = new Long2ObjectOpenHashMap<>();
+        level.partialSections = new Int2ObjectOpenHashMap<>();
+
+        MappedRegistry<Biome> biomes = new MappedRegistry<>(Registries.BIOME, Lifecycle.stable());
+        Registry.register(biomes, Biomes.PLAINS, createPlains());
+        level.biomes = biomes;
+        level.registryAccess = new RegistryAccess.ImmutableRegistryAccess(List.of(biomes));
+
+        level.airSection = new LevelChunkSection(biomes);
+        level.stoneSection = new LevelChunkSection(
+                new PalettedContainer<>(Block.BLOCK_STATE_REGISTRY, STONE, PalettedContainer.Strategy.SECTION_STATES),
+                new PalettedContainer<>(biomes.asHolderIdMap(), biomes.getHolderOrThrow(Biomes.PLAINS),
+                        PalettedContainer.Strategy.SECTION_BIOMES));
+        return level;
+    }
+
+    private static Biome createPlains() {
+        return new Biome.BiomeBuilder()
+                .hasPrecipitation(false)
+                .temperature(0.8F)
+                .downfall(0.4F)
+                .specialEffects(new BiomeSpecialEffects.Builder()
+                        .fogColor(0xC0D8FF)
+                        .waterColor(0x3F76E4)
+                        .waterFogColor(0x050533)
+                        .skyColor(0x78A7FF)
+                        .build())
+                .mobSpawnSettings(MobSpawnSettings.EMPTY)
+                .generationSettings(BiomeGenerationSettings.EMPTY)
+                .build();
+    }
+
+    /**
+     * 已生成的区块数
+     */
+    public int getGeneratedChunks() {
+        return chunks.size();
+    }
+
+    // ==================== 覆盖的世界方法 ====================
+
+    @Override
+    public LevelChunk getChunk(int chunkX, int chunkZ) {
+        long key = ChunkPos.asLong(chunkX, chunkZ);
+        LevelChunk chunk = chunks.get(key);
+        if (chunk == null) {
+            chunk = generateChunk(chunkX, chunkZ);
+            chunks.put(key, chunk);
+        }
+        return chunk;
+    }
+
+    @Override
+    public ChunkAccess getChunk(int chunkX, int chunkZ, ChunkStatus status, boolean nonnull) {
+        return getChunk(chunkX, chunkZ);
+    }
+
+    @Override
+    public LevelChunk getChunkAt(BlockPos pos) {
+        return getChunk(SectionPos.blockToSectionCoord(pos.getX()), SectionPos.blockToSectionCoord(pos.getZ()));
+    }
+
+    @Override
+    public DimensionDataStorage getDataStorage() {
+        return dataStorage;
+    }
+
+    @Override
+    public RegistryAccess registryAccess() {
+        return registryAccess;
+    }
+
+    @Override
+    public ResourceKey<Level> dimension() {
+        return Level.OVERWORLD;
+    }
+
+    @Override
+    public int getMinBuildHeight() {
+        return minY;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    // ==================== 地形生成 ====================
+
+    private LevelChunk generateChunk(int chunkX, int chunkZ) {
+        int baseX = SectionPos.sectionToBlockCoord(chunkX);
+        int baseZ = SectionPos.sectionToBlockCoord(chunkZ);
+
+        int[] surfaceY = new int[256];
+        boolean uniform = true;
+        for (int z = 0; z < 16; z++) {
+            for (int x = 0; x < 16; x++) {
+                surfaceY[z << 4 | x] = surface.applyAsInt(baseX + x, baseZ + z);
+                uniform &= surfaceY[z << 4 | x] == surfaceY[0];
+            }
+        }
+
+        LevelChunkSection[] sections = new LevelChunkSection[height >> 4];
+        for (int i = 0; i < sections.length; i++) {
+            int bottomY = minY + (i << 4);
+            sections[i] = uniform ? sharedSection(bottomY, surfaceY[0]) : buildSection(bottomY, surfaceY);
+        }
+
+        LevelChunk chunk = new LevelChunk(this, new ChunkPos(chunkX, chunkZ), UpgradeData.EMPTY,
+                new LevelChunkTicks<>(), new LevelChunkTicks<>(), 0L, sections, null, null);
+
+        // 直接写入高度图（第一个可用高度 = 地表 + 1，存储为相对最低建筑高度的值）
+        SimpleBitStorage heights = new SimpleBitStorage(Mth.ceillog2(height + 1), 256);
+        for (int i = 0; i < 256; i++) {
+            heights.set(i, Mth.clamp(surfaceY[i] + 1 - minY, 0, height));
+        }
+        chunk.setHeightmap(Heightmap.Types.WORLD_SURFACE, heights.getRaw());
+        chunk.setHeightmap(Heightmap.Types.MOTION_BLOCKING, heights.getRaw());
+        return chunk;
+    }
+
+    /**
+     * 整区块地表高度相同时的区段（共享，只读）
+     */
+    private LevelChunkSection sharedSection(int bottomY, int surfaceY) {
+        if (surfaceY < bottomY) {
+            return airSection;
+        }
+        if (surfaceY >= bottomY + 15) {
+            return stoneSection;
+        }
+        LevelChunkSection section = partialSections.get(surfaceY);
+        if (section == null) {
+            int[] flat = new int[256];
+            Arrays.fill(flat, surfaceY);
+            section = buildSection(bottomY, flat);
+            partialSections.put(surfaceY, section);
+        }
+        return section;
+    }
+
+    private LevelChunkSection buildSection(int bottomY, int[] surfaceY) {
+        LevelChunkSection section = new LevelChunkSection(biomes);
+        for (int y = 0; y < 16; y++) {
+            for (int z = 0; z < 16; z++) {
+                for (int x = 0; x < 16; x++) {
+                    if (bottomY + y <= surfaceY[z << 4 | x]) {
+                        section.setBlockState(x, y, z, STONE, false);
+                    }
+                }
+            }
+        }
+        return section;
+    }
+}
@@ -0,0 +1,47 @@
+package com.sorcery.logica.bench;
+
+import com.electronwill.nightconfig.core.CommentedConfig;
+import com.sorcery.logica.config.LogicaConfig;
+import net.minecraft.SharedConstants;
+import net.minecraft.server.Bootstrap;
+import net.minecraft.world.level.block.Blocks;
+
+/**
+ * 基准测试公共支持
+ *
+ * <p>基准测试不启动FML：配置加载到内存中的默认值；需要世界的基准在原版注册表引导后
+ * 使用 {@link BenchmarkLevel}
+ */
+public final class BenchmarkSupport {
+
+    private static boolean configLoaded;
+    private static boolean bootstrapped;
+
+    private BenchmarkSupport() {
+    }
+
+    /**
+     * 加载默认配置（只加载一次，关闭所有调试日志）
+     */
+    public static synchronized void loadDefaultConfig() {
+        if (configLoaded) {
+            return;
+        }
+        LogicaConfig.SPEC.acceptConfig(CommentedConfig.inMemory());
+        LogicaConfig.ENABLE_DEBUG_LOGS.set(false);
+        configLoaded = true;
+    }
+
+    /**
+     * 引导原版注册表（方块、方块状态缓存），只执行一次
+     */
+    public static synchronized void bootstrap() {
+        if (bootstrapped) {
+            return;
+        }
+        SharedConstants.tryDetectVersion();
+        Bootstrap.bootStrap();
+        Blocks.rebuildCache();
+        bootstrapped = true;
+    }
+}
@@ -0,0 +1,132 @@
+package com.sorcery.logica.capability;
+
+import com.sorcery.logica.ai.AIState;
+import com.sorcery.logica.ai.AIStrategy;
+import com.sorcery.logica.bench.BenchmarkSupport;
+import com.sorcery.logica.util.Route;
+import com.sorcery.logica.util.RouteKey;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.LongArrayTag;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.resources.ResourceLocation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AI能力存档基准
+ *
+ * <p>怪物为null（存取档不访问怪物）。legacyWaypoints为0时是有路线键的正常怪物，
+ * 否则带有对应数量的旧存档遗留路径点
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AICapabilitySerializationBenchmark {
+
+    @Param({"0", "64"})
+    public int legacyWaypoints;
+
+    private AICapabilityProvider source;
+    private AICapabilityProvider target;
+    private CompoundTag saved;
+    private CompoundTag legacy;
+
+    @Setup
+    public void setup() {
+        BenchmarkSupport.loadDefaultConfig();
+
+        source = new AICapabilityProvider(null);
+        AICapability cap = (AICapability) source.getCapability(AICapabilityProvider.AI_CAPABILITY, null)
+                .resolve().orElseThrow();
+
+        BlockPos markerPos = new BlockPos(120, 64, -340);
+        cap.restoreState(AIState.ALERT);
+        cap.setStrategy(AIStrategy.PATROL);
+        cap.setAreaTeam(3);
+        cap.setSpawnPosition(markerPos);
+        cap.setStrategyMarkerPos(markerPos);
+        cap.setLastKnownTargetPos(markerPos.offset(12, 0, 7));
+        cap.setInterruptedPatrolPosition(markerPos.offset(4, 1, -9));
+        cap.setCurrentWaypointIndex(5);
+        cap.setTrackingTicks(40);
+        cap.setHasBasicGoals(true);
+
+        if (legacyWaypoints > 0) {
+            long[] positions = new long[legacyWaypoints];
+            for (int i = 0; i < positions.length; i++) {
+                positions[i] = markerPos.offset(i * 8, 0, (i % 4) * 8).asLong();
+            }
+            cap.setPendingRoute(new LongArrayTag(positions), () -> new Route(null, positions, Route.DETACHED_VERSION));
+        } else {
+            cap.setRouteKey(new RouteKey(ResourceKey.create(Registries.DIMENSION, new ResourceLocation("overworld")),
+                    markerPos, AIStrategy.PATROL, 3));
+        }
+
+        saved = source.serializeNBT();
+        legacy = buildLegacyTag(markerPos);
+        target = new AICapabilityProvider(null);
+    }
+
+    /**
+     * 旧格式（v1）存档：字符串枚举、逐个CompoundTag的路径点
+     */
+    private CompoundTag buildLegacyTag(BlockPos markerPos) {
+        CompoundTag nbt = new CompoundTag();
+        nbt.putString("state", AIState.ALERT.name());
+        nbt.putString("strategy", AIStrategy.PATROL.name());
+        nbt.putInt("areaTeam", 3);
+        nbt.putLong("spawnPos", markerPos.asLong());
+        nbt.putLong("markerPos", markerPos.asLong());
+        nbt.putLong("lastTargetPos", markerPos.offset(12, 0, 7).asLong());
+        nbt.putLong("interruptedPos", markerPos.offset(4, 1, -9).asLong());
+        if (legacyWaypoints > 0) {
+            ListTag waypoints = new ListTag();
+            for (int i = 0; i < legacyWaypoints; i++) {
+                CompoundTag waypoint = new CompoundTag();
+                waypoint.putLong("pos", markerPos.offset(i * 8, 0, (i % 4) * 8).asLong());
+                waypoints.add(waypoint);
+            }
+            nbt.put("waypoints", waypoints);
+        } else {
+            nbt.putString("routeDim", "minecraft:overworld");
+        }
+        nbt.putInt("waypointIndex", 5);
+        nbt.putInt("trackingTicks", 40);
+        nbt.putBoolean("hasBasicGoals", true);
+        return nbt;
+    }
+
+    @Benchmark
+    public CompoundTag serialize() {
+        return source.serializeNBT();
+    }
+
+    @Benchmark
+    public AICapabilityProvider deserialize() {
+        target.deserializeNBT(saved);
+        return target;
+    }
+
+    @Benchmark
+    public AICapabilityProvider deserializeLegacy() {
+        target.deserializeNBT(legacy);
+        return target;
+    }
+}
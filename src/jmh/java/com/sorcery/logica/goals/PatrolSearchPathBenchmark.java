@@ -0,0 +1,51 @@
+package com.sorcery.logica.goals;
+
+import net.minecraft.world.phys.Vec3;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 巡逻搜索路径生成基准（PatrolGoal.generateSearchPath的几何部分，不含寻路）
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PatrolSearchPathBenchmark {
+
+    private static final double SEARCH_RADIUS = 8.0;
+
+    private final List<Vec3> searchPath = new ArrayList<>();
+    private Random random;
+    private Vec3 startPos;
+    private Vec3 endPos;
+
+    @Setup
+    public void setup() {
+        random = new Random(42L);
+        startPos = new Vec3(10.5, 64.0, -3.5);
+        endPos = new Vec3(42.5, 66.0, 27.5);
+    }
+
+    @Benchmark
+    public List<Vec3> generateSearchPath() {
+        searchPath.clear();
+        PatrolGoal.buildSearchPath(startPos, endPos, SEARCH_RADIUS, random, searchPath);
+        return searchPath;
+    }
+}
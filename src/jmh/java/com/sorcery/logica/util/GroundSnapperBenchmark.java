@@ -0,0 +1,82 @@
+package com.sorcery.logica.util;
+
+import com.sorcery.logica.bench.BenchmarkLevel;
+import com.sorcery.logica.bench.BenchmarkSupport;
+import net.minecraft.core.BlockPos;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 地面吸附基准
+ *
+ * <p>内存世界的地形在 [40, 104) 之间起伏；查询位置在 4x4 区块内随机分布（区块在准备阶段生成）。
+ * startOffset 是起始位置相对地表的高度：路径点通常放在地表附近，调查目标来自实体位置
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GroundSnapperBenchmark {
+
+    private static final int QUERIES = 1024;
+
+    /** 与 PerceptionEventHandler 的调查目标一致 */
+    private static final int SURFACE_DEPTH = 10;
+
+    @Param({"1", "8", "64"})
+    public int startOffset;
+
+    private BenchmarkLevel level;
+    private BlockPos[] queries;
+
+    @Setup
+    public void setup() {
+        BenchmarkSupport.loadDefaultConfig();
+        BenchmarkSupport.bootstrap();
+
+        level = BenchmarkLevel.create(-64, 384, GroundSnapperBenchmark::surfaceY);
+
+        Random random = new Random(42L);
+        queries = new BlockPos[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            int x = random.nextInt(64);
+            int z = random.nextInt(64);
+            queries[i] = new BlockPos(x, surfaceY(x, z) + startOffset, z);
+            level.getChunkAt(queries[i]);
+        }
+    }
+
+    private static int surfaceY(int x, int z) {
+        // 起伏地形：相邻列高度不同，区块内的区段不共享
+        return 40 + Math.floorMod(x * 7 + z * 13 + (x * z >> 3), 64);
+    }
+
+    @Benchmark
+    public void snapToFullBlock(Blackhole blackhole) {
+        for (BlockPos pos : queries) {
+            blackhole.consume(GroundSnapper.snapToFullBlock(level, pos));
+        }
+    }
+
+    @Benchmark
+    public void snapToSurface(Blackhole blackhole) {
+        for (BlockPos pos : queries) {
+            blackhole.consume(GroundSnapper.snapToSurface(level, pos, SURFACE_DEPTH));
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.sorcery.logica.util;
+
+import com.sorcery.logica.ai.AIStrategy;
+import com.sorcery.logica.bench.BenchmarkLevel;
+import com.sorcery.logica.bench.BenchmarkSupport;
+import com.sorcery.logica.config.LogicaConfig;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 路径点搜索基准
+ *
+ * <p>合成网络：平坦的内存世界上，路径点按搜索半径为间距排成正方形网格，标记方块在第一个路径点旁边。
+ * 半径1使用SENTRIES策略，其余使用PATROL策略（与配置范围一致）。
+ * 测量完整的公开入口（包括高度调整和排序）；搜索范围内的区块在预热时生成并扫描
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4G")
+public class WaypointFinderBenchmark {
+
+    private static final int TEAM = 0;
+    private static final int BASE_Y = 64;
+
+    @Param({"10", "100", "1000", "10000"})
+    public int waypoints;
+
+    @Param({"1", "8", "16", "64"})
+    public int radius;
+
+    private AIStrategy strategy;
+    private BenchmarkLevel level;
+    private BlockPos markerPos;
+
+    @Setup
+    public void setup() {
+        BenchmarkSupport.loadDefaultConfig();
+        BenchmarkSupport.bootstrap();
+
+        if (radius == 1) {
+            strategy = AIStrategy.SENTRIES;
+            LogicaConfig.SENTRIES_WAYPOINT_SEARCH_RADIUS.set((double) radius);
+        } else {
+            strategy = AIStrategy.PATROL;
+            LogicaConfig.PATROL_WAYPOINT_SEARCH_RADIUS.set((double) radius);
+        }
+
+        // 路径点站在平地上（地表是下面一格）
+        level = BenchmarkLevel.create(-64, 384, (x, z) -> BASE_Y - 1);
+        WaypointIndex index = WaypointIndex.get(level);
+        byte waypointEntry = WaypointFinder.getWaypointEntry(strategy, TEAM);
+        byte markerEntry = WaypointIndex.entry(strategy == AIStrategy.SENTRIES
+                ? WaypointIndex.Kind.SENTRIES_MARKER
+                : WaypointIndex.Kind.PATROL_MARKER, TEAM);
+
+        int side = (int) Math.ceil(Math.sqrt(waypoints));
+        int added = 0;
+        for (int i = 0; i < side && added < waypoints; i++) {
+            for (int j = 0; j < side && added < waypoints; j++) {
+                addIndexed(index, new BlockPos(i * radius, BASE_Y, j * radius), waypointEntry);
+                added++;
+            }
+        }
+
+        markerPos = new BlockPos(-1, BASE_Y, 0);
+        addIndexed(index, markerPos, markerEntry);
+
+        // 预热：生成并扫描搜索范围内的区块，建立邻接表（路线刷新时通常已经建立）
+        findWaypoints();
+    }
+
+    /**
+     * 世界里没有真正的标记方块：先扫描区块（之后不会再被扫描覆盖），再直接写入索引
+     */
+    private void addIndexed(WaypointIndex index, BlockPos pos, byte entry) {
+        int chunkX = SectionPos.blockToSectionCoord(pos.getX());
+        int chunkZ = SectionPos.blockToSectionCoord(pos.getZ());
+        if (!index.isChunkIndexed(chunkX, chunkZ)) {
+            index.indexChunk(level.getChunk(chunkX, chunkZ));
+        }
+        index.add(pos.asLong(), entry);
+    }
+
+    /**
+     * 服务器线程上的同步搜索
+     */
+    @Benchmark
+    public List<BlockPos> findWaypoints() {
+        return WaypointFinder.findWaypoints(level, markerPos, strategy, TEAM);
+    }
+
+    /**
+     * 异步解析：复制快照、在快照上搜索、回到服务器线程完成
+     */
+    @Benchmark
+    public List<BlockPos> searchSnapshot() {
+        WaypointFinder.PendingSearch search = WaypointFinder.prepareSearch(level, markerPos, strategy, TEAM);
+        return search.finish(level, search.search());
+    }
+}
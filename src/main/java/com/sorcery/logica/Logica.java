@@ -6,6 +6,7 @@ import com.sorcery.logica.blocks.ModBlocks;
 import com.sorcery.logica.capability.CapabilityHandler;
 import com.sorcery.logica.config.LogicaConfig;
 import com.sorcery.logica.events.EntitySpawnHandler;
+import com.sorcery.logica.network.LogicaNetwork;
 import net.minecraft.core.registries.Registries;
 import net.minecraft.network.chat.Component;
 import net.minecraft.world.item.CreativeModeTab;
@@ -104,5 +105,8 @@ public class Logica {
 
     private void commonSetup(final FMLCommonSetupEvent event) {
         LOGGER.info("Logica common setup");
+
+        // 注册网络数据包
+        event.enqueueWork(LogicaNetwork::register);
     }
 }
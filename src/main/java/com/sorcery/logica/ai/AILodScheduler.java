@@ -0,0 +1,86 @@
+package com.sorcery.logica.ai;
+
+import com.sorcery.logica.capability.IAICapability;
+import com.sorcery.logica.config.LogicaConfig;
+import net.minecraft.world.entity.Mob;
+import net.minecraft.world.entity.player.Player;
+
+/**
+ * AI细节层级调度器
+ *
+ * <h2>工作原理</h2>
+ * <ul>
+ *   <li>按与最近玩家的距离决定层级，每秒重新评估一次（缓存在调度器实例中，每个Goal持有一个，不持久化）</li>
+ *   <li>非IDLE状态或有攻击目标时始终为全速</li>
+ *   <li>降频/模拟层级按怪物ID错开执行tick，避免同一tick集中更新</li>
+ * </ul>
+ *
+ * @see AILodTier
+ */
+public class AILodScheduler {
+
+    /**
+     * 层级重新评估间隔（tick）
+     */
+    private static final int REEVALUATE_INTERVAL = 20;
+
+    // 评估结果缓存
+    private AILodTier tier = AILodTier.FULL;
+    private int nextCheckTick = 0;
+
+    /**
+     * 获取怪物当前的细节层级
+     */
+    public AILodTier getTier(Mob mob, IAICapability aiCap) {
+        if (!LogicaConfig.ENABLE_AI_LOD.get()) {
+            return AILodTier.FULL;
+        }
+
+        if (aiCap.getState() != AIState.IDLE || mob.getTarget() != null) {
+            return AILodTier.FULL;
+        }
+
+        if (mob.tickCount >= nextCheckTick || mob.tickCount + REEVALUATE_INTERVAL < nextCheckTick) {
+            tier = evaluateTier(mob);
+            nextCheckTick = mob.tickCount + REEVALUATE_INTERVAL;
+        }
+        return tier;
+    }
+
+    /**
+     * 本tick需要推进的tick数
+     *
+     * @return 0表示本tick跳过；全速为1；降频/模拟为更新间隔
+     */
+    public static int getTickStep(Mob mob, AILodTier tier) {
+        if (tier == AILodTier.FULL) {
+            return 1;
+        }
+        int interval = LogicaConfig.LOD_REDUCED_INTERVAL.get();
+        return (mob.tickCount + mob.getId()) % interval == 0 ? interval : 0;
+    }
+
+    /**
+     * 按最近玩家距离计算层级
+     */
+    private static AILodTier evaluateTier(Mob mob) {
+        double nearestSqr = Double.MAX_VALUE;
+        for (Player player : mob.level().players()) {
+            if (player.isSpectator()) {
+                continue;
+            }
+            nearestSqr = Math.min(nearestSqr, player.distanceToSqr(mob));
+        }
+
+        double fullRadius = LogicaConfig.LOD_FULL_RADIUS.get();
+        if (nearestSqr <= fullRadius * fullRadius) {
+            return AILodTier.FULL;
+        }
+
+        double reducedRadius = LogicaConfig.LOD_REDUCED_RADIUS.get();
+        if (nearestSqr <= reducedRadius * reducedRadius) {
+            return AILodTier.REDUCED;
+        }
+        return AILodTier.SIMULATED;
+    }
+}
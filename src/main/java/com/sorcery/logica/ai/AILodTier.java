@@ -0,0 +1,21 @@
+package com.sorcery.logica.ai;
+
+/**
+ * AI细节层级（按与最近玩家的距离划分）
+ */
+public enum AILodTier {
+    /**
+     * 全速 - 每tick更新
+     */
+    FULL,
+
+    /**
+     * 降频 - 每N tick更新一次，计时器按步长推进
+     */
+    REDUCED,
+
+    /**
+     * 模拟 - 只推进路线进度，不寻路、不移动
+     */
+    SIMULATED
+}
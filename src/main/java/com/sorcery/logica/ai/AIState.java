@@ -5,6 +5,16 @@ package com.sorcery.logica.ai;
  *
  * 状态转换：
  * IDLE → ALERT → COMBAT ↔ TRACKING → SEARCHING → IDLE
+ *
+ * <h2>转换表</h2>
+ * <pre>
+ * IDLE      → ALERT, COMBAT
+ * ALERT     → IDLE, COMBAT
+ * COMBAT    → TRACKING, SEARCHING
+ * TRACKING  → COMBAT, SEARCHING
+ * SEARCHING → IDLE, ALERT, COMBAT
+ * </pre>
+ * ALERT和TRACKING需要已知的目标位置，由 {@link com.sorcery.logica.capability.IAICapability#setState} 统一校验
  */
 public enum AIState {
     /**
@@ -30,5 +40,28 @@ public enum AIState {
     /**
      * 搜索 - 前往最后已知位置，环顾四周
      */
-    SEARCHING
+    SEARCHING;
+
+    /**
+     * 是否允许从当前状态转换到目标状态（相同状态视为允许）
+     */
+    public boolean canTransitionTo(AIState next) {
+        if (next == this) {
+            return true;
+        }
+        return switch (this) {
+            case IDLE -> next == ALERT || next == COMBAT;
+            case ALERT -> next == IDLE || next == COMBAT;
+            case COMBAT -> next == TRACKING || next == SEARCHING;
+            case TRACKING -> next == COMBAT || next == SEARCHING;
+            case SEARCHING -> next == IDLE || next == ALERT || next == COMBAT;
+        };
+    }
+
+    /**
+     * 进入该状态是否需要已知的目标位置（调查/追踪的目的地）
+     */
+    public boolean requiresTargetPos() {
+        return this == ALERT || this == TRACKING;
+    }
 }
@@ -0,0 +1,17 @@
+package com.sorcery.logica.ai;
+
+import com.sorcery.logica.capability.IAICapability;
+
+/**
+ * AI状态监听器
+ *
+ * 由Goal实现，通过 {@link IAICapability#addStateListener} 注册到所属怪物的Capability，
+ * 只在状态真正转换时被调用（不再每tick轮询状态）
+ */
+public interface AIStateListener {
+
+    /**
+     * 所属怪物的AI状态发生转换（新状态已生效）
+     */
+    void onStateChanged(IAICapability aiCap, AIState oldState, AIState newState);
+}
@@ -0,0 +1,221 @@
+package com.sorcery.logica.ai;
+
+import com.sorcery.logica.Logica;
+import com.sorcery.logica.capability.AICapabilityProvider;
+import com.sorcery.logica.capability.IAICapability;
+import com.sorcery.logica.config.LogicaConfig;
+import com.sorcery.logica.jfr.AlertBroadcastEvent;
+import com.sorcery.logica.jfr.LogicaJfr;
+import com.sorcery.logica.util.AISpatialIndex;
+import com.sorcery.logica.util.LogicaProfiler;
+import com.sorcery.logica.util.TickScheduler;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.Mob;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.phys.AABB;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 警报波 - 哨兵发现玩家后，警报按跳数逐级传播，而不是在同一tick唤醒半径内的所有怪物
+ *
+ * <h2>工作原理</h2>
+ * <ul>
+ *   <li>合并：同一tick内发现同一玩家的所有哨兵合并为一次传播（tick结束时处理）</li>
+ *   <li>候选：任一来源警报半径内的策略怪物（空间索引查询）</li>
+ *   <li>传播：从来源出发逐跳广度优先，下一跳为距离上一跳 alertHopDistance 以内的候选及上一跳的小队成员；
+ *       传播不到的候选在最后一跳唤醒（听到了钟声）</li>
+ *   <li>唤醒：第N跳延迟 N×alertHopDelayTicks，通过 {@link TickScheduler} 执行；
+ *       每tick唤醒数量超过 maxAlertWakeupsPerTick 时顺延到之后的tick，分散被唤醒怪物的寻路</li>
+ *   <li>已安排唤醒的怪物不会被另一波重复安排</li>
+ * </ul>
+ */
+public class AlertWave {
+
+    // 本tick待传播的警报：目标 -> 发现目标的哨兵
+    private static final Reference2ObjectLinkedOpenHashMap<Player, List<Mob>> PENDING = new Reference2ObjectLinkedOpenHashMap<>();
+
+    // 已安排唤醒的怪物：实体ID -> 目标
+    private static final Int2ObjectOpenHashMap<Player> SCHEDULED = new Int2ObjectOpenHashMap<>();
+
+    // 服务器tick -> 已安排的唤醒数
+    private static final Long2IntOpenHashMap WAKEUPS_PER_TICK = new Long2IntOpenHashMap();
+
+    /**
+     * 发出警报（在本tick结束时与其他警报合并传播）
+     *
+     * @param alerter 发现目标的哨兵（自身已进入战斗）
+     */
+    public static void raise(Mob alerter, Player target) {
+        List<Mob> sources = PENDING.computeIfAbsent(target, key -> new ArrayList<>());
+        if (!sources.contains(alerter)) {
+            sources.add(alerter);
+        }
+    }
+
+    /**
+     * 传播本tick发出的警报（服务端tick结束时调用）
+     */
+    public static void flush(MinecraftServer server) {
+        if (PENDING.isEmpty()) {
+            return;
+        }
+
+        long now = server.getTickCount();
+        WAKEUPS_PER_TICK.keySet().removeIf((long tick) -> tick < now);
+
+        PENDING.forEach((target, sources) -> propagate(target, sources, now));
+        PENDING.clear();
+    }
+
+    /**
+     * 实体离开世界时丢弃其唤醒记录
+     */
+    public static void forget(Entity entity) {
+        SCHEDULED.remove(entity.getId());
+    }
+
+    /**
+     * 清空所有状态（服务器关闭时）
+     */
+    public static void clear() {
+        PENDING.clear();
+        SCHEDULED.clear();
+        WAKEUPS_PER_TICK.clear();
+    }
+
+    // ==================== 传播 ====================
+
+    private static void propagate(Player target, List<Mob> sources, long now) {
+        Mob origin = sources.get(0);
+        if (!(origin.level() instanceof ServerLevel level)) {
+            return;
+        }
+
+        long start = LogicaProfiler.begin();
+        AlertBroadcastEvent event = LogicaJfr.isEnabled() ? new AlertBroadcastEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
+        double radius = LogicaConfig.SENTRIES_ALERT_RADIUS.get();
+        boolean alertAllTypes = LogicaConfig.SENTRIES_ALERT_ALL_TYPES.get();
+        double hopDistance = LogicaConfig.ALERT_HOP_DISTANCE.get();
+        int hopDelay = LogicaConfig.ALERT_HOP_DELAY_TICKS.get();
+        int maxPerTick = LogicaConfig.MAX_ALERT_WAKEUPS_PER_TICK.get();
+        AISpatialIndex index = AISpatialIndex.get(level);
+
+        // 候选：任一来源警报半径内的策略怪物
+        ReferenceOpenHashSet<Mob> candidates = new ReferenceOpenHashSet<>();
+        for (Mob source : sources) {
+            if (source.level() != level) {
+                continue;
+            }
+            candidates.addAll(index.getMobs(new AABB(source.blockPosition()).inflate(radius), mob ->
+                    (alertAllTypes || mob.getType() == source.getType()) // 只警报同类
+                            && mob.distanceToSqr(source) <= radius * radius));
+        }
+        sources.forEach(candidates::remove);
+
+        // 逐跳广度优先
+        List<Mob> frontier = sources;
+        int hop = 0;
+        int scheduled = 0;
+        while (!candidates.isEmpty()) {
+            hop++;
+            List<Mob> next = new ArrayList<>();
+            for (Mob from : frontier) {
+                // 同一小队的成员
+                Squad squad = SquadRegistry.getSquad(from);
+                if (squad != null) {
+                    for (Mob member : squad.getMembers()) {
+                        if (candidates.remove(member)) {
+                            next.add(member);
+                        }
+                    }
+                }
+
+                // 附近的候选
+                for (Mob mob : index.getMobs(from.getBoundingBox().inflate(hopDistance), candidates::contains)) {
+                    if (mob.distanceToSqr(from) <= hopDistance * hopDistance && candidates.remove(mob)) {
+                        next.add(mob);
+                    }
+                }
+            }
+
+            // 传播中断：剩余候选在这一跳唤醒
+            if (next.isEmpty()) {
+                next.addAll(candidates);
+                candidates.clear();
+            }
+
+            for (Mob mob : next) {
+                if (scheduleWake(level, mob, target, now, hop * hopDelay, maxPerTick)) {
+                    scheduled++;
+                }
+            }
+            frontier = next;
+        }
+
+        LogicaProfiler.end(start, LogicaProfiler.Section.BROADCAST_ALERT, AlertWave.class, origin);
+        if (event != null) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.record(origin, radius, scheduled, sources.size());
+            }
+        }
+
+        Logica.LOGGER.debug("Alert wave from {} sentries scheduled {} mobs over {} hops",
+                sources.size(), scheduled, hop);
+    }
+
+    /**
+     * 安排唤醒（所在tick已满时顺延）
+     *
+     * @return 是否安排了唤醒（已在另一波中安排同一目标时返回false）
+     */
+    private static boolean scheduleWake(ServerLevel level, Mob mob, Player target, long now, int delay, int maxPerTick) {
+        if (SCHEDULED.get(mob.getId()) == target) {
+            return false;
+        }
+
+        long due = now + delay;
+        while (WAKEUPS_PER_TICK.get(due) >= maxPerTick) {
+            due++;
+        }
+        WAKEUPS_PER_TICK.addTo(due, 1);
+        SCHEDULED.put(mob.getId(), target);
+
+        TickScheduler.schedule(level, mob, (int) (due - now), (lvl, entity) -> wake((Mob) entity, target));
+        return true;
+    }
+
+    /**
+     * 唤醒：传递目标并进入战斗
+     */
+    private static void wake(Mob mob, Player target) {
+        if (SCHEDULED.get(mob.getId()) == target) {
+            SCHEDULED.remove(mob.getId());
+        }
+
+        // 目标已离开（死亡、下线、换维度）
+        if (!target.isAlive() || target.isRemoved() || target.level() != mob.level()) {
+            return;
+        }
+
+        IAICapability cap = mob.getCapability(AICapabilityProvider.AI_CAPABILITY).orElse(null);
+        if (cap == null || (cap.getState() == AIState.COMBAT && mob.getTarget() == target)) {
+            return;
+        }
+
+        mob.setTarget(target);
+        cap.setLastKnownTargetPos(target.blockPosition());
+        cap.setState(AIState.COMBAT);
+    }
+}
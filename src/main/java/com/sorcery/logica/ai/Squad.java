@@ -0,0 +1,207 @@
+package com.sorcery.logica.ai;
+
+import com.sorcery.logica.capability.AICapabilityProvider;
+import com.sorcery.logica.capability.IAICapability;
+import com.sorcery.logica.config.LogicaConfig;
+import com.sorcery.logica.util.RouteKey;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import net.minecraft.util.Mth;
+import net.minecraft.world.entity.Mob;
+import net.minecraft.world.phys.Vec3;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 小队 - 共享同一路线键（标记方块、策略、编号）且正在执行策略Goal的怪物
+ *
+ * <h2>巡逻编组</h2>
+ * <ul>
+ *   <li>成员按加入顺序每 squadGroupSize 个编为一组，组内第一个为队长（默认1：每个成员单独一组，各自错开起点）</li>
+ *   <li>只有队长寻路和决定停留，跟随者在队长身后按队形槽位本地转向</li>
+ *   <li>新编组的队长从第一组队长的路径点向后错开 组号×路线长度/组数 个路径点，各组均匀分布在环路上</li>
+ *   <li>成员变化时重新编组（加入只追加新组，已有分组不变）</li>
+ * </ul>
+ *
+ * <h2>哨兵</h2>
+ * 成员各自巡逻，选择下一个路径点时避开其他成员正在前往的路径点
+ *
+ * <p>只在服务器线程访问，由 {@link SquadRegistry} 管理
+ */
+public class Squad {
+
+    /** 队形前后间距（格） */
+    private static final double FORMATION_SPACING = 2.5;
+
+    /** 队形左右间距（格） */
+    private static final double FORMATION_WIDTH = 1.5;
+
+    private final RouteKey key;
+
+    // 成员（加入顺序）
+    private final List<Mob> members = new ArrayList<>();
+    private boolean dirty;
+
+    // 编组结果
+    private final Reference2ObjectOpenHashMap<Mob, Mob> leaderOf = new Reference2ObjectOpenHashMap<>();
+    private final Reference2IntOpenHashMap<Mob> slotOf = new Reference2IntOpenHashMap<>();
+    private final Reference2IntOpenHashMap<Mob> groupOf = new Reference2IntOpenHashMap<>();
+    private int groupCount;
+
+    // 已确定路线位置的成员（不再错开）
+    private final ReferenceOpenHashSet<Mob> placed = new ReferenceOpenHashSet<>();
+
+    // 哨兵：路径点下标 -> 正在前往的成员
+    private final Int2ObjectOpenHashMap<Mob> claims = new Int2ObjectOpenHashMap<>();
+
+    Squad(RouteKey key) {
+        this.key = key;
+        this.groupOf.defaultReturnValue(-1);
+    }
+
+    public RouteKey getKey() {
+        return key;
+    }
+
+    // ==================== 成员 ====================
+
+    void add(Mob mob) {
+        if (!members.contains(mob)) {
+            members.add(mob);
+            dirty = true;
+        }
+    }
+
+    void remove(Mob mob) {
+        if (members.remove(mob)) {
+            placed.remove(mob);
+            claims.values().remove(mob);
+            dirty = true;
+        }
+    }
+
+    boolean isEmpty() {
+        return members.isEmpty();
+    }
+
+    public int size() {
+        return members.size();
+    }
+
+    /**
+     * 获取成员（加入顺序，只读）
+     */
+    public List<Mob> getMembers() {
+        return Collections.unmodifiableList(members);
+    }
+
+    // ==================== 巡逻编组 ====================
+
+    /**
+     * 获取成员的队长
+     *
+     * @return 成员是跟随者时返回其队长；是队长或不在小队中时返回null
+     */
+    public Mob getLeader(Mob mob) {
+        ensureGroups();
+        return leaderOf.get(mob);
+    }
+
+    /**
+     * 跟随者在队形中的槽位（从1开始）
+     */
+    public int getFollowerSlot(Mob mob) {
+        ensureGroups();
+        return slotOf.getInt(mob);
+    }
+
+    /**
+     * 队长首次开始巡逻时的错开起点
+     *
+     * @param routeSize 巡逻顺序的路径点数量
+     * @return 应当前往的路径点下标；不需要错开（第一组、跟随者、已错开过）时返回-1
+     */
+    public int takeStartIndex(Mob leader, int routeSize) {
+        ensureGroups();
+        int group = groupOf.getInt(leader);
+        if (group < 0 || !placed.add(leader) || group == 0 || routeSize <= 1) {
+            return -1;
+        }
+
+        // 以第一组队长的进度为基准
+        IAICapability baseCap = members.get(0).getCapability(AICapabilityProvider.AI_CAPABILITY).orElse(null);
+        int base = baseCap != null ? Math.max(0, baseCap.getCurrentWaypointIndex()) : 0;
+        return (base + group * routeSize / groupCount) % routeSize;
+    }
+
+    private void ensureGroups() {
+        if (members.removeIf(mob -> mob.isRemoved() || !mob.isAlive())) {
+            placed.removeIf(mob -> !members.contains(mob));
+            claims.values().removeIf(mob -> !members.contains(mob));
+            dirty = true;
+        }
+        if (!dirty) {
+            return;
+        }
+        dirty = false;
+
+        leaderOf.clear();
+        slotOf.clear();
+        groupOf.clear();
+
+        int groupSize = LogicaConfig.SQUAD_GROUP_SIZE.get();
+        groupCount = (members.size() + groupSize - 1) / groupSize;
+        for (int i = 0; i < members.size(); i++) {
+            Mob mob = members.get(i);
+            int slot = i % groupSize;
+            if (slot == 0) {
+                groupOf.put(mob, i / groupSize);
+            } else {
+                leaderOf.put(mob, members.get(i - slot));
+                slotOf.put(mob, slot);
+                // 跟随过队长的成员被提升时沿用队长的进度
+                placed.add(mob);
+            }
+        }
+    }
+
+    /**
+     * 队形槽位的位置：队长身后交错排列
+     */
+    public static Vec3 getFormationPosition(Mob leader, int slot) {
+        float yaw = leader.getYRot() * Mth.DEG_TO_RAD;
+        double forwardX = -Mth.sin(yaw);
+        double forwardZ = Mth.cos(yaw);
+
+        int row = (slot + 1) / 2;
+        double side = (slot % 2 == 1 ? -1 : 1) * FORMATION_WIDTH;
+        double back = row * FORMATION_SPACING;
+        return new Vec3(
+                leader.getX() - forwardX * back - forwardZ * side,
+                leader.getY(),
+                leader.getZ() - forwardZ * back + forwardX * side
+        );
+    }
+
+    // ==================== 哨兵路径点 ====================
+
+    /**
+     * 路径点是否有其他成员正在前往
+     */
+    public boolean isClaimedByOther(int waypointIndex, Mob mob) {
+        Mob claimant = claims.get(waypointIndex);
+        return claimant != null && claimant != mob;
+    }
+
+    /**
+     * 登记成员正在前往的路径点（替换之前的登记）
+     */
+    public void claim(int waypointIndex, Mob mob) {
+        claims.values().remove(mob);
+        claims.put(waypointIndex, mob);
+    }
+}
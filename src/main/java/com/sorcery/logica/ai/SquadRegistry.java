@@ -0,0 +1,69 @@
+package com.sorcery.logica.ai;
+
+import com.sorcery.logica.util.RouteKey;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import net.minecraft.world.entity.Mob;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 小队注册表 - 按路线键管理 {@link Squad}
+ *
+ * <ul>
+ *   <li>巡逻/哨兵Goal开始时加入，停止时离开</li>
+ *   <li>怪物离开世界（死亡、卸载、换维度）时离开</li>
+ *   <li>没有成员的小队随即移除</li>
+ * </ul>
+ */
+public class SquadRegistry {
+
+    private static final Map<RouteKey, Squad> SQUADS = new HashMap<>();
+    private static final Reference2ObjectOpenHashMap<Mob, Squad> MEMBERSHIP = new Reference2ObjectOpenHashMap<>();
+
+    /**
+     * 加入路线键对应的小队（已在其他小队中时先离开）
+     */
+    public static Squad join(Mob mob, RouteKey key) {
+        Squad current = MEMBERSHIP.get(mob);
+        if (current != null) {
+            if (current.getKey().equals(key)) {
+                return current;
+            }
+            leave(mob);
+        }
+
+        Squad squad = SQUADS.computeIfAbsent(key, Squad::new);
+        squad.add(mob);
+        MEMBERSHIP.put(mob, squad);
+        return squad;
+    }
+
+    /**
+     * 离开所在的小队
+     */
+    public static void leave(Mob mob) {
+        Squad squad = MEMBERSHIP.remove(mob);
+        if (squad != null) {
+            squad.remove(mob);
+            if (squad.isEmpty()) {
+                SQUADS.remove(squad.getKey());
+            }
+        }
+    }
+
+    /**
+     * 获取怪物所在的小队（不在小队中时返回null）
+     */
+    public static Squad getSquad(Mob mob) {
+        return MEMBERSHIP.get(mob);
+    }
+
+    /**
+     * 清空所有小队（服务器关闭时）
+     */
+    public static void clearAll() {
+        SQUADS.clear();
+        MEMBERSHIP.clear();
+    }
+}
@@ -0,0 +1,17 @@
+package com.sorcery.logica.ai;
+
+import io.github.Sorcery_Dynasties.aperioculos.api.event.VibrationPerceivedEvent;
+
+/**
+ * 听觉监听器
+ *
+ * 由Goal实现，通过 {@link com.sorcery.logica.events.PerceptionDispatcher} 按监听实体注册，
+ * 只会收到自己所属怪物听到的振动
+ */
+public interface VibrationListener {
+
+    /**
+     * 所属怪物听到振动
+     */
+    void onVibrationPerceived(VibrationPerceivedEvent event);
+}
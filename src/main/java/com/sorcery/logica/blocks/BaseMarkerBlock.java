@@ -1,9 +1,12 @@
 package com.sorcery.logica.blocks;
 
+import com.sorcery.logica.util.WaypointIndex;
 import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.level.BlockGetter;
+import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.RenderShape;
 import net.minecraft.world.level.block.state.BlockState;
@@ -101,4 +104,27 @@ public abstract class BaseMarkerBlock extends Block {
         return List.of();
     }
 
+    /**
+     * 放置时写入路径点索引
+     */
+    @Override
+    @SuppressWarnings("deprecation")
+    public void onPlace(BlockState state, Level level, BlockPos pos, BlockState oldState, boolean movedByPiston) {
+        super.onPlace(state, level, pos, oldState, movedByPiston);
+        if (level instanceof ServerLevel serverLevel && !state.is(oldState.getBlock())) {
+            WaypointIndex.get(serverLevel).add(pos, state);
+        }
+    }
+
+    /**
+     * 移除时从路径点索引中删除
+     */
+    @Override
+    @SuppressWarnings("deprecation")
+    public void onRemove(BlockState state, Level level, BlockPos pos, BlockState newState, boolean movedByPiston) {
+        if (level instanceof ServerLevel serverLevel && !state.is(newState.getBlock())) {
+            WaypointIndex.get(serverLevel).remove(pos);
+        }
+        super.onRemove(state, level, pos, newState, movedByPiston);
+    }
 }
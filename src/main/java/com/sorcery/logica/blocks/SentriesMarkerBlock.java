@@ -2,11 +2,8 @@ package com.sorcery.logica.blocks;
 
 import com.sorcery.logica.blocks.entity.SentriesMarkerBlockEntity;
 import net.minecraft.core.BlockPos;
-import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.EntityBlock;
 import net.minecraft.world.level.block.entity.BlockEntity;
-import net.minecraft.world.level.block.entity.BlockEntityTicker;
-import net.minecraft.world.level.block.entity.BlockEntityType;
 import net.minecraft.world.level.block.state.BlockState;
 import org.jetbrains.annotations.Nullable;
 
@@ -19,7 +16,7 @@ import org.jetbrains.annotations.Nullable;
  * - 发现玩家时发出钟声警报
  * - 支持区域编号（0-15）区分不同巡逻区域
  * - 使用结构空位贴图（黄色变种）
- * - 通过BlockEntity自主tick，像信标一样工作
+ * - 怪物在此方块上生成时由EntitySpawnHandler应用策略（方块本身不tick）
  */
 public class SentriesMarkerBlock extends BaseMarkerBlock implements EntityBlock {
     private final int teamId;
@@ -45,15 +42,4 @@ public class SentriesMarkerBlock extends BaseMarkerBlock implements EntityBlock
     public BlockEntity newBlockEntity(BlockPos pos, BlockState state) {
         return new SentriesMarkerBlockEntity(pos, state);
     }
-
-    @Nullable
-    @Override
-    public <T extends BlockEntity> BlockEntityTicker<T> getTicker(Level level, BlockState state, BlockEntityType<T> type) {
-        // 只在服务器端tick
-        return level.isClientSide() ? null : (lvl, pos, st, be) -> {
-            if (be instanceof SentriesMarkerBlockEntity entity) {
-                entity.tick();
-            }
-        };
-    }
 }
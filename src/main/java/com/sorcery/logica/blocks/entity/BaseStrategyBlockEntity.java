@@ -4,28 +4,27 @@ import com.sorcery.logica.Logica;
 import com.sorcery.logica.ai.AIStrategy;
 import com.sorcery.logica.capability.AICapabilityProvider;
 import com.sorcery.logica.events.EntitySpawnHandler;
-import com.sorcery.logica.goals.*;
-import com.sorcery.logica.util.WaypointFinder;
+import com.sorcery.logica.jfr.LogicaJfr;
+import com.sorcery.logica.jfr.StrategyApplicationEvent;
+import com.sorcery.logica.util.AISpatialIndex;
+import com.sorcery.logica.util.LogicaProfiler;
+import com.sorcery.logica.util.RouteKey;
+import com.sorcery.logica.util.RouteRegistry;
 import net.minecraft.core.BlockPos;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.entity.Mob;
-import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraft.world.level.block.entity.BlockEntityType;
 import net.minecraft.world.level.block.state.BlockState;
-import net.minecraft.world.phys.AABB;
-
-import java.util.List;
 
 /**
  * 策略方块BlockEntity基类
  *
  * <h2>工作原理</h2>
  * <ul>
- *   <li>每秒tick一次（类似信标机制）</li>
- *   <li>检测标记方块所在位置新生成的怪物</li>
- *   <li>对符合条件的怪物应用对应策略</li>
- *   <li>无需全局管理器，方块自主工作</li>
+ *   <li>不tick：怪物加入世界时由 {@link EntitySpawnHandler} 通过路径点索引查找脚下的标记方块</li>
+ *   <li>找到后调用 {@link #applyStrategy(Mob)} 对该怪物应用对应策略</li>
+ *   <li>没有怪物生成时没有任何开销</li>
  * </ul>
  *
  * <h2>影响范围设计</h2>
@@ -46,75 +45,46 @@ import java.util.List;
  */
 public abstract class BaseStrategyBlockEntity extends BlockEntity {
 
-    /**
-     * Tick检查间隔（20 tick = 1秒）
-     */
-    private static final int CHECK_INTERVAL = 20;
-
-    /**
-     * Tick计数器
-     */
-    private int tickCounter = 0;
-
     public BaseStrategyBlockEntity(BlockEntityType<?> type, BlockPos pos, BlockState state) {
         super(type, pos, state);
     }
 
     /**
-     * 每tick执行
+     * 对站在标记方块位置的怪物应用策略
+     *
+     * <p>调用者负责检查应用条件（生成时间、是否已处理、位置是否一致）
      */
-    public void tick() {
-        if (this.level == null || this.level.isClientSide()) return;
-
-        // 控制频率：每秒执行一次
-        if (++tickCounter < CHECK_INTERVAL) return;
-        tickCounter = 0;
-
-        ServerLevel serverLevel = (ServerLevel) this.level;
-        applyBeaconEffect(serverLevel);
-    }
-
-    /**
-     * 对标记方块位置的怪物应用策略
-     */
-    private void applyBeaconEffect(ServerLevel level) {
-        // 只检查标记方块所在位置的怪物
-        AABB markerBox = new AABB(this.worldPosition);
-        List<Mob> nearbyMobs = level.getEntitiesOfClass(Mob.class, markerBox);
-
-        // 只在有新怪物需要处理时记录日志
-        if (nearbyMobs.isEmpty()) {
-            return; // 提前返回，不记录日志
+    public void applyStrategy(Mob mob) {
+        if (!(this.level instanceof ServerLevel serverLevel)) {
+            return;
         }
 
-        for (Mob mob : nearbyMobs) {
-            // 关键检查：只对刚生成的怪物施加策略
-            // 如果怪物存在时间超过2秒（40 ticks），说明是走进来的，不应用策略
-            if (mob.tickCount > 40) {
-                continue; // 不记录日志
-            }
-
-            // 检查怪物是否已经被标记处理
-            if (mob.getPersistentData().getBoolean("logica_marker_applied")) {
-                continue; // 不记录日志
-            }
-
-            // 检查怪物是否在标记方块位置（精确匹配）
-            if (!mob.blockPosition().equals(this.worldPosition)) {
-                Logica.LOGGER.debug("  - {} skipped: not at marker position (at {} vs marker at {})",
-                        mob.getName().getString(), mob.blockPosition(), this.worldPosition);
-                continue;
+        // 应用策略
+        long start = LogicaProfiler.begin();
+        StrategyApplicationEvent event = LogicaJfr.isEnabled() ? new StrategyApplicationEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
+        applyStrategyToMob(mob, serverLevel);
+        LogicaProfiler.end(start, LogicaProfiler.Section.MARKER_APPLY, getClass(), getStrategy(), serverLevel.dimension());
+        if (event != null) {
+            event.end();
+            if (event.shouldCommit()) {
+                // 异步解析中的路线此时还没有路径点
+                int waypoints = mob.getCapability(AICapabilityProvider.AI_CAPABILITY)
+                        .map(cap -> cap.getWaypoints().size()).orElse(0);
+                event.record(mob, this.worldPosition, getStrategy(), getAreaTeam(), waypoints);
             }
+        }
 
-            // 应用策略
-            applyStrategyToMob(mob, level);
+        // 标记为已处理
+        mob.getPersistentData().putBoolean("logica_marker_applied", true);
 
-            // 标记为已处理
-            mob.getPersistentData().putBoolean("logica_marker_applied", true);
+        // 加入空间索引（用于警报广播）
+        AISpatialIndex.get(serverLevel).addMob(mob);
 
-            Logica.LOGGER.info("Applied {} strategy to {} (spawned {} ticks ago) at marker position",
-                    getStrategy(), mob.getName().getString(), mob.tickCount);
-        }
+        Logica.LOGGER.info("Applied {} strategy to {} (spawned {} ticks ago) at marker position",
+                getStrategy(), mob.getName().getString(), mob.tickCount);
     }
 
     /**
@@ -134,59 +104,21 @@ public abstract class BaseStrategyBlockEntity extends BlockEntity {
 
         // 查找路径点
         if (strategy == AIStrategy.PATROL || strategy == AIStrategy.SENTRIES) {
-            List<BlockPos> waypoints = WaypointFinder.findWaypoints(level, this.worldPosition, strategy, areaTeam);
-
             mob.getCapability(AICapabilityProvider.AI_CAPABILITY).ifPresent(cap -> {
-                cap.setWaypoints(waypoints);
-            });
-
-            if (!waypoints.isEmpty()) {
-                Logica.LOGGER.debug("Found {} waypoints for {} (team {})",
-                        waypoints.size(), mob.getName().getString(), areaTeam);
-            }
-        }
-
-        // 注册Goals
-        registerStrategyGoals(mob, strategy);
-    }
+                cap.setRouteKey(new RouteKey(level.dimension(), this.worldPosition, strategy, areaTeam));
+                RouteRegistry.refreshIfChanged(level, cap);
 
-    /**
-     * 为策略怪物注册完整的Goals（包括基础Goals和策略Goals）
-     */
-    private void registerStrategyGoals(Mob mob, AIStrategy strategy) {
-        // 防止重复注册策略Goals
-        if (mob.getPersistentData().getBoolean("logica_strategy_goals_registered")) {
-            return;
+                if (!cap.getWaypoints().isEmpty()) {
+                    Logica.LOGGER.debug("Found {} waypoints for {} (team {})",
+                            cap.getWaypoints().size(), mob.getName().getString(), areaTeam);
+                }
+            });
         }
 
-        // 移除冲突的Goals
-        EntitySpawnHandler.removeConflictingGoals(mob);
-
-        // 注册完整的Goals（包括基础调查Goals和策略Goals）
-        mob.goalSelector.addGoal(-1, new CombatMonitorGoal(mob));
-        mob.goalSelector.addGoal(2, new TrackingGoal(mob));
-        mob.goalSelector.addGoal(3, new InvestigateGoal(mob));  // 基础Goal (ALERT状态)
-        mob.goalSelector.addGoal(6, new SearchingGoal(mob));    // 基础Goal (SEARCHING状态, 低优先级不干扰移动)
-
-        // 注册策略Goal
-        switch (strategy) {
-            case GUARD:
-                mob.goalSelector.addGoal(3, new GuardGoal(mob));
-                break;
-            case SENTRIES:
-                mob.goalSelector.addGoal(3, new SentriesGoal(mob));
-                break;
-            case PATROL:
-                mob.goalSelector.addGoal(3, new PatrolGoal(mob));
-                break;
+        // 注册Goals（防止重复注册策略Goals）
+        if (!mob.getPersistentData().getBoolean("logica_strategy_goals_registered")) {
+            EntitySpawnHandler.registerStrategyGoals(mob, strategy);
         }
-
-        // 标记已注册策略Goals（也包含了基础Goals）
-        mob.getPersistentData().putBoolean("logica_strategy_goals_registered", true);
-        mob.getPersistentData().putBoolean("logica_basic_goals_registered", true);
-
-        Logica.LOGGER.info("Registered complete strategy goals ({}) for {}",
-                strategy, mob.getName().getString());
     }
 
     /**
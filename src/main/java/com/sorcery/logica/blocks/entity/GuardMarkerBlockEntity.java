@@ -9,7 +9,7 @@ import net.minecraft.world.level.block.state.BlockState;
  * 守卫标记BlockEntity
  *
  * 功能：
- * - 每秒tick一次
+ * - 不tick，由EntitySpawnHandler在怪物生成时调用
  * - 对周围3x3x3新生成的怪物应用守卫策略
  */
 public class GuardMarkerBlockEntity extends BaseStrategyBlockEntity {
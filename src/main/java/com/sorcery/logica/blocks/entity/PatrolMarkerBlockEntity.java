@@ -10,7 +10,7 @@ import net.minecraft.world.level.block.state.BlockState;
  * 巡逻标记BlockEntity
  *
  * 功能：
- * - 每秒tick一次
+ * - 不tick，由EntitySpawnHandler在怪物生成时调用
  * - 对周围3x3x3新生成的怪物应用巡逻策略
  * - 支持区域编号（从方块读取）
  */
@@ -1,18 +1,31 @@
 package com.sorcery.logica.capability;
 
-import com.sorcery.logica.Logica;
 import com.sorcery.logica.ai.AIState;
+import com.sorcery.logica.ai.AIStateListener;
 import com.sorcery.logica.ai.AIStrategy;
+import com.sorcery.logica.jfr.AIStateTransitionEvent;
+import com.sorcery.logica.jfr.LogicaJfr;
+import com.sorcery.logica.util.LogHelper;
+import com.sorcery.logica.util.Route;
+import com.sorcery.logica.util.RouteKey;
 import net.minecraft.core.BlockPos;
+import net.minecraft.nbt.Tag;
+import net.minecraft.world.entity.Mob;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
 
 /**
  * AI能力实现类
+ *
+ * 状态按 {@link AIState} 的转换表校验，转换成功后同步通知注册的 {@link AIStateListener}
  */
 public class AICapability implements IAICapability {
 
+    private final Mob owner;
+    private final List<AIStateListener> stateListeners = new ArrayList<>(4);
+
     private AIState state = AIState.IDLE;
     private AIStrategy strategy = AIStrategy.NONE;
     private int areaTeam = 0; // 区域编号（0-15）
@@ -22,29 +35,93 @@ public class AICapability implements IAICapability {
     private BlockPos lastKnownTargetPos = null;
     private BlockPos interruptedPatrolPosition = null;
 
-    private List<BlockPos> waypoints = new ArrayList<>();
+    private RouteKey routeKey = null;
+    private Route route = null; // 不持久化，首次使用时解析
+    private Supplier<Route> pendingRoute = null; // 旧存档路径点，首次读取时解码
+    private Tag pendingRouteData = null; // 尚未解码的旧存档路径点原始数据（存档时原样写回）
     private int currentWaypointIndex = 0;
+    private BlockPos currentWaypointPos = null;
 
     private int trackingTicks = 0;
     private boolean hasBasicGoals = false;
 
+    public AICapability(Mob owner) {
+        this.owner = owner;
+    }
+
     @Override
     public AIState getState() {
         return state;
     }
 
     @Override
-    public void setState(AIState state) {
-        if (this.state != state) {
-            AIState oldState = this.state;
-            this.state = state;
+    public boolean setState(AIState newState) {
+        AIState oldState = this.state;
+        if (oldState == newState) {
+            return true;
+        }
+        if (!LogicaJfr.isEnabled()) {
+            return applyState(oldState, newState);
+        }
+
+        AIStateTransitionEvent event = new AIStateTransitionEvent();
+        event.begin();
+        boolean accepted = applyState(oldState, newState);
+        event.end();
+        if (event.shouldCommit()) {
+            event.record(owner, oldState, newState, strategy, accepted, stateListeners.size());
+        }
+        return accepted;
+    }
+
+    /**
+     * 校验并执行状态转换，通知监听器
+     */
+    private boolean applyState(AIState oldState, AIState newState) {
+        if (!oldState.canTransitionTo(newState)) {
+            LogHelper.logStateTransitionFailed(owner.getName().getString(), newState.name(),
+                    "illegal transition from " + oldState);
+            return false;
+        }
+
+        if (newState.requiresTargetPos() && lastKnownTargetPos == null) {
+            LogHelper.logStateTransitionFailed(owner.getName().getString(), newState.name(),
+                    "no target position");
+            return false;
+        }
+
+        this.state = newState;
+        LogHelper.logStateTransition(owner.getName().getString(), oldState.name(), newState.name(), strategy.name());
+
+        // 监听器可能注册新的监听器，按索引遍历
+        for (int i = 0; i < stateListeners.size(); i++) {
+            stateListeners.get(i).onStateChanged(this, oldState, newState);
+        }
+        return true;
+    }
 
-            // DEBUG: 记录状态变化
-            Logica.LOGGER.debug("AICapability state changed: {} -> {} (strategy: {})",
-                    oldState, state, strategy);
+    /**
+     * 从存档恢复状态（不校验转换）
+     *
+     * 状态变化时仍通知监听器：Goal在注册时按当时的状态初始化标记，
+     * 之后读取存档（如区块重新加载、/data修改）不通知的话标记会与实际状态不一致
+     */
+    void restoreState(AIState state) {
+        AIState oldState = this.state;
+        this.state = state;
+        if (oldState == state) {
+            return;
+        }
+        for (int i = 0; i < stateListeners.size(); i++) {
+            stateListeners.get(i).onStateChanged(this, oldState, state);
         }
     }
 
+    @Override
+    public void addStateListener(AIStateListener listener) {
+        stateListeners.add(listener);
+    }
+
     @Override
     public AIStrategy getStrategy() {
         return strategy;
@@ -87,12 +164,66 @@ public class AICapability implements IAICapability {
 
     @Override
     public List<BlockPos> getWaypoints() {
-        return waypoints;
+        Route current = getRoute();
+        return current != null ? current.getWaypoints() : List.of();
     }
 
     @Override
-    public void setWaypoints(List<BlockPos> waypoints) {
-        this.waypoints = waypoints != null ? waypoints : new ArrayList<>();
+    public Route getRoute() {
+        if (route == null && pendingRoute != null) {
+            route = pendingRoute.get();
+            pendingRoute = null;
+            pendingRouteData = null;
+        }
+        return route;
+    }
+
+    @Override
+    public void setRoute(Route route) {
+        this.route = route;
+        this.pendingRoute = null;
+        this.pendingRouteData = null;
+    }
+
+    /**
+     * 设置延迟解码的旧存档路线
+     *
+     * @param data 原始数据（尚未解码时存档原样写回）
+     * @param decoder 首次读取路线时调用的解码器
+     */
+    void setPendingRoute(Tag data, Supplier<Route> decoder) {
+        this.route = null;
+        this.pendingRoute = decoder;
+        this.pendingRouteData = data;
+    }
+
+    /**
+     * 获取尚未解码的旧存档路线的原始数据
+     *
+     * @return 原始数据，已解码或没有遗留路线时返回null
+     */
+    Tag getPendingRouteData() {
+        return pendingRouteData;
+    }
+
+    /**
+     * 获取已解码的、没有路线键的遗留路线的路径点（用于存档，不触发延迟解码）
+     *
+     * @return 路径点，没有遗留路线或尚未解码时返回null
+     */
+    long[] getDetachedWaypoints() {
+        Route current = route;
+        return current != null && current.getKey() == null ? current.toLongArray() : null;
+    }
+
+    @Override
+    public RouteKey getRouteKey() {
+        return routeKey;
+    }
+
+    @Override
+    public void setRouteKey(RouteKey key) {
+        this.routeKey = key;
     }
 
     @Override
@@ -103,6 +234,18 @@ public class AICapability implements IAICapability {
     @Override
     public void setCurrentWaypointIndex(int index) {
         this.currentWaypointIndex = index;
+        this.currentWaypointPos = null;
+    }
+
+    @Override
+    public BlockPos getCurrentWaypointPos() {
+        return currentWaypointPos;
+    }
+
+    @Override
+    public void setCurrentWaypoint(int index, BlockPos pos) {
+        this.currentWaypointIndex = index;
+        this.currentWaypointPos = pos;
     }
 
     @Override
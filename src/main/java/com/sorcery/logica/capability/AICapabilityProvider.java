@@ -2,11 +2,17 @@ package com.sorcery.logica.capability;
 
 import com.sorcery.logica.ai.AIState;
 import com.sorcery.logica.ai.AIStrategy;
+import com.sorcery.logica.util.Route;
+import com.sorcery.logica.util.RouteKey;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
+import net.minecraft.core.registries.Registries;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.nbt.ListTag;
 import net.minecraft.nbt.Tag;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.entity.Mob;
 import net.minecraftforge.common.capabilities.Capability;
 import net.minecraftforge.common.capabilities.CapabilityManager;
 import net.minecraftforge.common.capabilities.CapabilityToken;
@@ -16,19 +22,48 @@ import net.minecraftforge.common.util.LazyOptional;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 
 /**
  * AI能力提供者
+ *
+ * <h2>存档格式（v2）</h2>
+ * <ul>
+ *   <li>枚举按序号存为byte，默认值字段不写入</li>
+ *   <li>可选位置合并为一个LongArray，另用一个byte标记哪些位置存在</li>
+ *   <li>没有路线键的旧路线（旧存档遗留）的路径点存为一个LongArray，首次读取时才解码</li>
+ *   <li>没有"v"字段的旧格式仍按原键名读取</li>
+ * </ul>
  */
 public class AICapabilityProvider implements ICapabilityProvider, INBTSerializable<CompoundTag> {
 
     public static final Capability<IAICapability> AI_CAPABILITY =
             CapabilityManager.get(new CapabilityToken<>() {});
 
-    private final IAICapability capability = new AICapability();
-    private final LazyOptional<IAICapability> optional = LazyOptional.of(() -> capability);
+    /** 当前存档格式版本 */
+    private static final byte FORMAT_VERSION = 2;
+
+    // 位置字段存在标记
+    private static final int HAS_SPAWN_POS = 1;
+    private static final int HAS_MARKER_POS = 1 << 1;
+    private static final int HAS_LAST_TARGET_POS = 1 << 2;
+    private static final int HAS_INTERRUPTED_POS = 1 << 3;
+    private static final int HAS_WAYPOINT_POS = 1 << 4;
+
+    /** 位置数组中各位置对应的存在标记（LongArray按此顺序保存存在的位置） */
+    private static final int[] POSITION_FLAGS = {
+            HAS_SPAWN_POS, HAS_MARKER_POS, HAS_LAST_TARGET_POS, HAS_INTERRUPTED_POS, HAS_WAYPOINT_POS
+    };
+
+    private static final AIState[] STATES = AIState.values();
+    private static final AIStrategy[] STRATEGIES = AIStrategy.values();
+
+    private final AICapability capability;
+    private final LazyOptional<IAICapability> optional = LazyOptional.of(() -> this.capability);
+
+    public AICapabilityProvider(Mob owner) {
+        this.capability = new AICapability(owner);
+    }
 
     @Override
     public @NotNull <T> LazyOptional<T> getCapability(@NotNull Capability<T> cap, @Nullable Direction side) {
@@ -38,71 +73,152 @@ public class AICapabilityProvider implements ICapabilityProvider, INBTSerializab
         return LazyOptional.empty();
     }
 
+    /**
+     * 使Capability失效（实体移除时由Forge回调），通知缓存的持有者
+     */
+    void invalidate() {
+        optional.invalidate();
+    }
+
     @Override
     public CompoundTag serializeNBT() {
         CompoundTag nbt = new CompoundTag();
+        nbt.putByte("v", FORMAT_VERSION);
 
-        // 保存 AI 状态
-        nbt.putString("state", capability.getState().name());
-
-        // 保存 AI 策略
-        nbt.putString("strategy", capability.getStrategy().name());
+        // 保存 AI 状态和策略（序号）
+        if (capability.getState() != AIState.IDLE) {
+            nbt.putByte("s", (byte) capability.getState().ordinal());
+        }
+        if (capability.getStrategy() != AIStrategy.NONE) {
+            nbt.putByte("st", (byte) capability.getStrategy().ordinal());
+        }
 
         // 保存区域编号
-        nbt.putInt("areaTeam", capability.getAreaTeam());
-
-        // 保存生成位置
-        if (capability.getSpawnPosition() != null) {
-            nbt.putLong("spawnPos", capability.getSpawnPosition().asLong());
+        if (capability.getAreaTeam() != 0) {
+            nbt.putByte("t", (byte) capability.getAreaTeam());
         }
 
-        // 保存策略标记位置
-        if (capability.getStrategyMarkerPos() != null) {
-            nbt.putLong("markerPos", capability.getStrategyMarkerPos().asLong());
+        // 保存位置（生成位置、策略标记位置、最后已知目标位置、中断巡逻位置、目标路径点位置）
+        BlockPos[] positions = {
+                capability.getSpawnPosition(),
+                capability.getStrategyMarkerPos(),
+                capability.getLastKnownTargetPos(),
+                capability.getInterruptedPatrolPosition(),
+                capability.getCurrentWaypointPos()
+        };
+        long[] packed = new long[positions.length];
+        int count = 0;
+        int mask = 0;
+        for (int i = 0; i < positions.length; i++) {
+            if (positions[i] != null) {
+                packed[count++] = positions[i].asLong();
+                mask |= POSITION_FLAGS[i];
+            }
         }
-
-        // 保存最后已知目标位置
-        if (capability.getLastKnownTargetPos() != null) {
-            nbt.putLong("lastTargetPos", capability.getLastKnownTargetPos().asLong());
+        if (mask != 0) {
+            nbt.putByte("m", (byte) mask);
+            nbt.putLongArray("p", count == packed.length ? packed : Arrays.copyOf(packed, count));
         }
 
-        // 保存中断巡逻位置
-        if (capability.getInterruptedPatrolPosition() != null) {
-            nbt.putLong("interruptedPos", capability.getInterruptedPatrolPosition().asLong());
+        // 保存路线键（路径点本身不保存，重新加载后由路线注册表解析）
+        // 标记位置、策略、区域编号已单独保存，这里只需要补充维度
+        RouteKey routeKey = capability.getRouteKey();
+        if (routeKey != null) {
+            nbt.putString("rd", routeKey.dimension().location().toString());
         }
 
-        // 保存路径点列表
-        List<BlockPos> waypoints = capability.getWaypoints();
-        if (waypoints != null && !waypoints.isEmpty()) {
-            ListTag waypointsList = new ListTag();
-            for (BlockPos pos : waypoints) {
-                CompoundTag posTag = new CompoundTag();
-                posTag.putLong("pos", pos.asLong());
-                waypointsList.add(posTag);
+        // 旧存档遗留的路线（没有路线键）：原样保存路径点，避免丢失；尚未解码时直接写回读取到的数据
+        Tag pendingWaypoints = capability.getPendingRouteData();
+        if (pendingWaypoints != null) {
+            nbt.put("w", pendingWaypoints);
+        } else {
+            long[] legacyWaypoints = capability.getDetachedWaypoints();
+            if (legacyWaypoints != null && legacyWaypoints.length > 0) {
+                nbt.putLongArray("w", legacyWaypoints);
             }
-            nbt.put("waypoints", waypointsList);
         }
 
         // 保存当前路径点索引
-        nbt.putInt("waypointIndex", capability.getCurrentWaypointIndex());
+        if (capability.getCurrentWaypointIndex() != 0) {
+            nbt.putInt("wi", capability.getCurrentWaypointIndex());
+        }
 
         // 保存追踪计时器
-        nbt.putInt("trackingTicks", capability.getTrackingTicks());
+        if (capability.getTrackingTicks() != 0) {
+            nbt.putInt("tt", capability.getTrackingTicks());
+        }
 
         // 保存基础Goals标记
-        nbt.putBoolean("hasBasicGoals", capability.hasBasicGoals());
+        if (capability.hasBasicGoals()) {
+            nbt.putBoolean("bg", true);
+        }
 
         return nbt;
     }
 
     @Override
     public void deserializeNBT(CompoundTag nbt) {
+        if (!nbt.contains("v", Tag.TAG_BYTE)) {
+            deserializeLegacy(nbt);
+            return;
+        }
+
+        // 读取 AI 状态和策略
+        int state = nbt.getByte("s");
+        capability.restoreState(state >= 0 && state < STATES.length ? STATES[state] : AIState.IDLE);
+        int strategy = nbt.getByte("st");
+        capability.setStrategy(strategy >= 0 && strategy < STRATEGIES.length ? STRATEGIES[strategy] : AIStrategy.NONE);
+
+        // 读取区域编号
+        capability.setAreaTeam(nbt.getByte("t") & 15);
+
+        // 读取位置
+        BlockPos waypointPos = null;
+        int mask = nbt.getByte("m");
+        if (mask != 0) {
+            long[] packed = nbt.getLongArray("p");
+            int next = 0;
+            BlockPos[] positions = new BlockPos[POSITION_FLAGS.length];
+            for (int i = 0; i < positions.length; i++) {
+                if ((mask & POSITION_FLAGS[i]) != 0 && next < packed.length) {
+                    positions[i] = BlockPos.of(packed[next++]);
+                }
+            }
+            capability.setSpawnPosition(positions[0]);
+            capability.setStrategyMarkerPos(positions[1]);
+            capability.setLastKnownTargetPos(positions[2]);
+            capability.setInterruptedPatrolPosition(positions[3]);
+            waypointPos = positions[4];
+        }
+
+        // 读取路线键
+        readRouteKey(nbt.getString("rd"));
+
+        // 读取遗留路线（延迟到首次读取路线时解码；从旧格式转存、尚未解码的仍是CompoundTag列表）
+        if (nbt.contains("w", Tag.TAG_LONG_ARRAY)) {
+            long[] legacyWaypoints = nbt.getLongArray("w");
+            capability.setPendingRoute(nbt.get("w"), () -> new Route(null, legacyWaypoints, Route.DETACHED_VERSION));
+        } else if (nbt.contains("w", Tag.TAG_LIST)) {
+            ListTag waypointsList = nbt.getList("w", Tag.TAG_COMPOUND);
+            capability.setPendingRoute(waypointsList, () -> decodeWaypointList(waypointsList));
+        }
+
+        // 读取当前路径点（索引和目标位置）、追踪计时器、基础Goals标记
+        capability.setCurrentWaypoint(nbt.getInt("wi"), waypointPos);
+        capability.setTrackingTicks(nbt.getInt("tt"));
+        capability.setHasBasicGoals(nbt.getBoolean("bg"));
+    }
+
+    /**
+     * 读取旧格式（v1，字符串枚举和逐个CompoundTag的路径点列表）
+     */
+    private void deserializeLegacy(CompoundTag nbt) {
         // 读取 AI 状态
         if (nbt.contains("state")) {
             try {
-                capability.setState(AIState.valueOf(nbt.getString("state")));
+                capability.restoreState(AIState.valueOf(nbt.getString("state")));
             } catch (IllegalArgumentException e) {
-                capability.setState(AIState.IDLE);
+                capability.restoreState(AIState.IDLE);
             }
         }
 
@@ -140,15 +256,10 @@ public class AICapabilityProvider implements ICapabilityProvider, INBTSerializab
             capability.setInterruptedPatrolPosition(BlockPos.of(nbt.getLong("interruptedPos")));
         }
 
-        // 读取路径点列表
+        // 读取路径点列表（延迟到首次读取路线时解码，通常会被路线注册表直接替换）
         if (nbt.contains("waypoints")) {
             ListTag waypointsList = nbt.getList("waypoints", Tag.TAG_COMPOUND);
-            List<BlockPos> waypoints = new ArrayList<>();
-            for (int i = 0; i < waypointsList.size(); i++) {
-                CompoundTag posTag = waypointsList.getCompound(i);
-                waypoints.add(BlockPos.of(posTag.getLong("pos")));
-            }
-            capability.setWaypoints(waypoints);
+            capability.setPendingRoute(waypointsList, () -> decodeWaypointList(waypointsList));
         }
 
         // 读取当前路径点索引
@@ -166,4 +277,29 @@ public class AICapabilityProvider implements ICapabilityProvider, INBTSerializab
             capability.setHasBasicGoals(nbt.getBoolean("hasBasicGoals"));
         }
     }
+
+    /**
+     * 解码旧格式的路径点列表（每个路径点一个CompoundTag）
+     */
+    private static Route decodeWaypointList(ListTag waypointsList) {
+        long[] waypoints = new long[waypointsList.size()];
+        for (int i = 0; i < waypoints.length; i++) {
+            waypoints[i] = waypointsList.getCompound(i).getLong("pos");
+        }
+        return new Route(null, waypoints, Route.DETACHED_VERSION);
+    }
+
+    /**
+     * 由维度名和已读取的策略信息组装路线键
+     */
+    private void readRouteKey(String dimensionName) {
+        if (dimensionName.isEmpty() || capability.getStrategyMarkerPos() == null) {
+            return;
+        }
+        ResourceLocation dimension = ResourceLocation.tryParse(dimensionName);
+        if (dimension != null) {
+            capability.setRouteKey(new RouteKey(ResourceKey.create(Registries.DIMENSION, dimension),
+                    capability.getStrategyMarkerPos(), capability.getStrategy(), capability.getAreaTeam()));
+        }
+    }
 }
@@ -0,0 +1,42 @@
+package com.sorcery.logica.capability;
+
+import net.minecraft.world.entity.Mob;
+import net.minecraftforge.common.util.LazyOptional;
+
+/**
+ * 缓存的AI能力句柄
+ *
+ * <h2>工作原理</h2>
+ * <ul>
+ *   <li>首次访问时解析一次Capability，之后直接返回同一引用（无查表、无lambda分配）</li>
+ *   <li>在LazyOptional上注册失效监听，Capability失效（实体移除）后清空缓存</li>
+ *   <li>每个Goal持有一个实例，仅在服务端主线程访问</li>
+ * </ul>
+ */
+public final class CachedAICapability {
+
+    private final Mob mob;
+    private IAICapability cached;
+
+    public CachedAICapability(Mob mob) {
+        this.mob = mob;
+    }
+
+    /**
+     * 获取AI能力
+     *
+     * @return AI能力，实体没有或已失效时返回null
+     */
+    public IAICapability get() {
+        IAICapability capability = cached;
+        if (capability == null) {
+            LazyOptional<IAICapability> optional = mob.getCapability(AICapabilityProvider.AI_CAPABILITY);
+            capability = optional.orElse(null);
+            if (capability != null) {
+                optional.addListener(invalidated -> cached = null);
+                cached = capability;
+            }
+        }
+        return capability;
+    }
+}
@@ -28,12 +28,13 @@ public class CapabilityHandler {
      */
     @SubscribeEvent
     public static void onAttachCapabilities(AttachCapabilitiesEvent<Entity> event) {
-        if (event.getObject() instanceof Mob) {
-            AICapabilityProvider provider = new AICapabilityProvider();
+        if (event.getObject() instanceof Mob mob) {
+            AICapabilityProvider provider = new AICapabilityProvider(mob);
             event.addCapability(
                     new ResourceLocation(Logica.MOD_ID, "ai_capability"),
                     provider
             );
+            event.addListener(provider::invalidate);
         }
     }
 }
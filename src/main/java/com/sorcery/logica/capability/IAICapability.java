@@ -1,7 +1,10 @@
 package com.sorcery.logica.capability;
 
 import com.sorcery.logica.ai.AIState;
+import com.sorcery.logica.ai.AIStateListener;
 import com.sorcery.logica.ai.AIStrategy;
+import com.sorcery.logica.util.Route;
+import com.sorcery.logica.util.RouteKey;
 import net.minecraft.core.BlockPos;
 
 import java.util.List;
@@ -16,7 +19,21 @@ public interface IAICapability {
     // ==================== AI状态 ====================
 
     AIState getState();
-    void setState(AIState state);
+
+    /**
+     * 转换AI状态
+     *
+     * 按 {@link AIState#canTransitionTo} 的转换表校验，非法转换（或缺少目标位置）会被拒绝并记录日志；
+     * 转换成功后通知所有状态监听器
+     *
+     * @return 是否处于目标状态（状态未变化也返回true）
+     */
+    boolean setState(AIState state);
+
+    /**
+     * 注册状态监听器（不持久化，随实体一起销毁）
+     */
+    void addStateListener(AIStateListener listener);
 
     // ==================== AI策略 ====================
 
@@ -46,17 +63,36 @@ public interface IAICapability {
     // ==================== 路径点 ====================
 
     /**
-     * 获取路径点列表（用于Patrol/Sentries策略）
+     * 获取路径点列表（用于Patrol/Sentries策略，只读，由同一路线的怪物共享）
      */
     List<BlockPos> getWaypoints();
-    void setWaypoints(List<BlockPos> waypoints);
 
     /**
-     * 获取当前路径点索引
+     * 获取共享路线（尚未解析时为null）
+     */
+    Route getRoute();
+    void setRoute(Route route);
+
+    /**
+     * 获取路线键（持久化保存，用于重新解析路线）
+     */
+    RouteKey getRouteKey();
+    void setRouteKey(RouteKey key);
+
+    /**
+     * 获取当前路径点索引（设置索引会清除目标路径点位置）
      */
     int getCurrentWaypointIndex();
     void setCurrentWaypointIndex(int index);
 
+    /**
+     * 获取当前目标路径点位置（用于Patrol策略：路线重新解析或巡逻顺序变化后按位置恢复索引）
+     *
+     * @return 目标路径点位置，只设置过索引时为null
+     */
+    BlockPos getCurrentWaypointPos();
+    void setCurrentWaypoint(int index, BlockPos pos);
+
     // ==================== 追踪信息 ====================
 
     /**
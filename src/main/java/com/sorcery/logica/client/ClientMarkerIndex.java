@@ -0,0 +1,253 @@
+package com.sorcery.logica.client;
+
+import com.sorcery.logica.Logica;
+import com.sorcery.logica.blocks.BaseMarkerBlock;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.LevelAccessor;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.chunk.ChunkAccess;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.event.level.BlockEvent;
+import net.minecraftforge.event.level.ChunkEvent;
+import net.minecraftforge.event.level.LevelEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.util.Iterator;
+import java.util.function.LongConsumer;
+
+/**
+ * 客户端标记方块索引 - 按区段记录已加载区块中的标记方块和路径点（供 {@link MarkerBlockRenderer} 使用）
+ *
+ * <h2>数据来源</h2>
+ * <ul>
+ *   <li>区块数据包（ChunkEvent.Load）：扫描可能含有标记方块的区段（调色板预检查，其余区段直接跳过）</li>
+ *   <li>方块更新包（NeighborNotifyEvent，客户端应用服务器方块变化时触发）：增量更新单个位置</li>
+ *   <li>区块卸载、世界卸载时丢弃对应记录</li>
+ * </ul>
+ *
+ * <p>每个区段带有修改戳，区段内容每次变化都会得到一个新的（全局递增的）戳，
+ * 渲染器据此判断缓存的区段边框是否需要重建
+ *
+ * <p>客户端同时只有一个世界，索引是全局的，切换世界时清空
+ */
+@Mod.EventBusSubscriber(modid = Logica.MOD_ID, bus = Mod.EventBusSubscriber.Bus.FORGE, value = Dist.CLIENT)
+public class ClientMarkerIndex {
+
+    // 区段 -> 方块 -> 位置
+    private static final Long2ObjectOpenHashMap<Reference2ObjectOpenHashMap<Block, LongOpenHashSet>> SECTIONS =
+            new Long2ObjectOpenHashMap<>();
+
+    // 区段 -> 修改戳（不含标记方块的区段没有记录）
+    private static final Long2LongOpenHashMap STAMPS = new Long2LongOpenHashMap();
+    private static long stampCounter;
+
+    // 当前索引对应的世界
+    private static LevelAccessor indexedLevel;
+
+    // ==================== 查询 ====================
+
+    /**
+     * 遍历以center为中心、边长 2*radius+1 的立方体内指定方块的所有位置
+     */
+    public static void forEachInRange(Block block, BlockPos center, int radius, LongConsumer consumer) {
+        int minX = center.getX() - radius;
+        int minY = center.getY() - radius;
+        int minZ = center.getZ() - radius;
+        int maxX = center.getX() + radius;
+        int maxY = center.getY() + radius;
+        int maxZ = center.getZ() + radius;
+
+        for (int sx = SectionPos.blockToSectionCoord(minX); sx <= SectionPos.blockToSectionCoord(maxX); sx++) {
+            for (int sy = SectionPos.blockToSectionCoord(minY); sy <= SectionPos.blockToSectionCoord(maxY); sy++) {
+                for (int sz = SectionPos.blockToSectionCoord(minZ); sz <= SectionPos.blockToSectionCoord(maxZ); sz++) {
+                    Reference2ObjectOpenHashMap<Block, LongOpenHashSet> blocks = SECTIONS.get(SectionPos.asLong(sx, sy, sz));
+                    if (blocks == null) {
+                        continue;
+                    }
+                    LongOpenHashSet positions = blocks.get(block);
+                    if (positions == null) {
+                        continue;
+                    }
+
+                    LongIterator it = positions.iterator();
+                    while (it.hasNext()) {
+                        long packed = it.nextLong();
+                        int x = BlockPos.getX(packed);
+                        int y = BlockPos.getY(packed);
+                        int z = BlockPos.getZ(packed);
+                        if (x >= minX && x <= maxX && y >= minY && y <= maxY && z >= minZ && z <= maxZ) {
+                            consumer.accept(packed);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 区段的修改戳
+     *
+     * @return 区段内容变化后戳随之变化；区段内没有标记方块时返回0
+     */
+    public static long getSectionStamp(long sectionKey) {
+        return STAMPS.get(sectionKey);
+    }
+
+    /**
+     * 区段内指定方块的数量
+     */
+    public static int countInSection(Block block, long sectionKey) {
+        LongOpenHashSet positions = getPositions(block, sectionKey);
+        return positions != null ? positions.size() : 0;
+    }
+
+    /**
+     * 遍历区段内指定方块的所有位置
+     */
+    public static void forEachInSection(Block block, long sectionKey, LongConsumer consumer) {
+        LongOpenHashSet positions = getPositions(block, sectionKey);
+        if (positions != null) {
+            positions.forEach(consumer);
+        }
+    }
+
+    private static LongOpenHashSet getPositions(Block block, long sectionKey) {
+        Reference2ObjectOpenHashMap<Block, LongOpenHashSet> blocks = SECTIONS.get(sectionKey);
+        return blocks != null ? blocks.get(block) : null;
+    }
+
+    // ==================== 维护 ====================
+
+    @SubscribeEvent
+    public static void onChunkLoad(ChunkEvent.Load event) {
+        if (event.getLevel().isClientSide()) {
+            switchLevel(event.getLevel());
+            indexChunk(event.getChunk());
+        }
+    }
+
+    @SubscribeEvent
+    public static void onChunkUnload(ChunkEvent.Unload event) {
+        if (event.getLevel().isClientSide() && event.getLevel() == indexedLevel) {
+            removeChunk(event.getChunk().getPos());
+        }
+    }
+
+    @SubscribeEvent
+    public static void onNeighborNotify(BlockEvent.NeighborNotifyEvent event) {
+        if (event.getLevel().isClientSide()) {
+            switchLevel(event.getLevel());
+            update(event.getPos(), event.getState().getBlock());
+        }
+    }
+
+    @SubscribeEvent
+    public static void onLevelUnload(LevelEvent.Unload event) {
+        if (event.getLevel() == indexedLevel) {
+            SECTIONS.clear();
+            STAMPS.clear();
+            indexedLevel = null;
+        }
+    }
+
+    /**
+     * 切换到事件所在的世界（世界变化时清空旧记录）
+     */
+    private static void switchLevel(LevelAccessor level) {
+        if (level != indexedLevel) {
+            SECTIONS.clear();
+            STAMPS.clear();
+            indexedLevel = level;
+        }
+    }
+
+    /**
+     * 重新扫描整个区块
+     */
+    private static void indexChunk(ChunkAccess chunk) {
+        ChunkPos chunkPos = chunk.getPos();
+        removeChunk(chunkPos);
+
+        LevelChunkSection[] sections = chunk.getSections();
+        for (int i = 0; i < sections.length; i++) {
+            LevelChunkSection section = sections[i];
+            if (section == null || section.hasOnlyAir()
+                    || !section.maybeHas(state -> state.getBlock() instanceof BaseMarkerBlock)) {
+                continue;
+            }
+
+            int sectionY = chunk.getSectionYFromSectionIndex(i);
+            int baseX = chunkPos.getMinBlockX();
+            int baseY = SectionPos.sectionToBlockCoord(sectionY);
+            int baseZ = chunkPos.getMinBlockZ();
+            for (int y = 0; y < 16; y++) {
+                for (int z = 0; z < 16; z++) {
+                    for (int x = 0; x < 16; x++) {
+                        Block block = section.getBlockState(x, y, z).getBlock();
+                        if (block instanceof BaseMarkerBlock) {
+                            add(SectionPos.asLong(chunkPos.x, sectionY, chunkPos.z), block,
+                                    BlockPos.asLong(baseX + x, baseY + y, baseZ + z));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static void removeChunk(ChunkPos chunkPos) {
+        SECTIONS.keySet().removeIf((long sectionKey) ->
+                SectionPos.x(sectionKey) == chunkPos.x && SectionPos.z(sectionKey) == chunkPos.z);
+        STAMPS.keySet().removeIf((long sectionKey) ->
+                SectionPos.x(sectionKey) == chunkPos.x && SectionPos.z(sectionKey) == chunkPos.z);
+    }
+
+    /**
+     * 单个位置的方块变化
+     */
+    private static void update(BlockPos pos, Block block) {
+        long sectionKey = SectionPos.asLong(pos);
+        long packed = pos.asLong();
+
+        // 移除该位置原有的记录（位置只可能属于一种方块）
+        Reference2ObjectOpenHashMap<Block, LongOpenHashSet> blocks = SECTIONS.get(sectionKey);
+        if (blocks != null) {
+            boolean removed = false;
+            Iterator<LongOpenHashSet> it = blocks.values().iterator();
+            while (it.hasNext()) {
+                LongOpenHashSet positions = it.next();
+                if (positions.remove(packed)) {
+                    removed = true;
+                    if (positions.isEmpty()) {
+                        it.remove();
+                    }
+                }
+            }
+            if (blocks.isEmpty()) {
+                SECTIONS.remove(sectionKey);
+                STAMPS.remove(sectionKey);
+            } else if (removed) {
+                STAMPS.put(sectionKey, ++stampCounter);
+            }
+        }
+
+        if (block instanceof BaseMarkerBlock) {
+            add(sectionKey, block, packed);
+        }
+    }
+
+    private static void add(long sectionKey, Block block, long packed) {
+        SECTIONS.computeIfAbsent(sectionKey, key -> new Reference2ObjectOpenHashMap<>())
+                .computeIfAbsent(block, key -> new LongOpenHashSet())
+                .add(packed);
+        STAMPS.put(sectionKey, ++stampCounter);
+    }
+}
@@ -0,0 +1,32 @@
+package com.sorcery.logica.client;
+
+import com.mojang.blaze3d.platform.InputConstants;
+import com.sorcery.logica.Logica;
+import net.minecraft.client.KeyMapping;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.client.event.RegisterKeyMappingsEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import org.lwjgl.glfw.GLFW;
+
+/**
+ * 按键绑定
+ */
+@Mod.EventBusSubscriber(modid = Logica.MOD_ID, bus = Mod.EventBusSubscriber.Bus.MOD, value = Dist.CLIENT)
+public class LogicaKeyMappings {
+
+    private static final String CATEGORY = "key.categories.logica";
+
+    // 切换路线可视化（默认未绑定）
+    public static final KeyMapping TOGGLE_ROUTE_OVERLAY = new KeyMapping(
+            "key.logica.route_overlay",
+            InputConstants.Type.KEYSYM,
+            GLFW.GLFW_KEY_UNKNOWN,
+            CATEGORY
+    );
+
+    @SubscribeEvent
+    public static void onRegisterKeyMappings(RegisterKeyMappingsEvent event) {
+        event.register(TOGGLE_ROUTE_OVERLAY);
+    }
+}
@@ -1,28 +1,31 @@
 package com.sorcery.logica.client;
 
+import com.mojang.blaze3d.vertex.BufferBuilder;
+import com.mojang.blaze3d.vertex.DefaultVertexFormat;
 import com.mojang.blaze3d.vertex.PoseStack;
-import com.mojang.blaze3d.vertex.VertexConsumer;
+import com.mojang.blaze3d.vertex.VertexBuffer;
+import com.mojang.blaze3d.vertex.VertexFormat;
 import com.sorcery.logica.Logica;
-import com.sorcery.logica.blocks.ModBlocks;
+import com.sorcery.logica.blocks.BaseMarkerBlock;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.GameRenderer;
 import net.minecraft.client.renderer.LevelRenderer;
 import net.minecraft.client.renderer.RenderType;
+import net.minecraft.client.renderer.ShaderInstance;
 import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
 import net.minecraft.world.entity.player.Player;
-import net.minecraft.world.item.Item;
+import net.minecraft.world.item.BlockItem;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.Block;
-import net.minecraft.world.phys.AABB;
 import net.minecraft.world.phys.Vec3;
-import net.minecraft.world.phys.shapes.VoxelShape;
 import net.minecraftforge.api.distmarker.Dist;
 import net.minecraftforge.client.event.RenderLevelStageEvent;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.common.Mod;
-
-import java.util.HashMap;
-import java.util.Map;
+import org.joml.Matrix4f;
 
 /**
  * 客户端渲染处理器
@@ -30,6 +33,9 @@ import java.util.Map;
  * 功能：
  * - 当玩家手持marker物品时，渲染附近的对应marker方块边框
  * - 类似原版structure_void的行为
+ *
+ * 每个区段的边框烘焙到一个VertexBuffer中，只在区段内标记变化或手持类型切换时重建，
+ * 每帧每个区段一次绘制调用
  */
 @Mod.EventBusSubscriber(modid = Logica.MOD_ID, bus = Mod.EventBusSubscriber.Bus.FORGE, value = Dist.CLIENT)
 public class MarkerBlockRenderer {
@@ -37,50 +43,13 @@ public class MarkerBlockRenderer {
     // 渲染范围（格）
     private static final int RENDER_RADIUS = 16;
 
-    // 方块到物品的映射（延迟初始化，避免在类加载时访问未注册的对象）
-    private static Map<Block, Item> blockToItemMap = null;
-
-    /**
-     * 初始化方块到物品的映射（延迟初始化）
-     */
-    private static void initializeMapping() {
-        if (blockToItemMap == null) {
-            blockToItemMap = new HashMap<>();
-
-            // 守卫标记（单个）
-            blockToItemMap.put(ModBlocks.GUARD_MARKER.get(), ModBlocks.GUARD_MARKER_ITEM.get());
-
-            // 哨兵标记（0-15编号）
-            for (int i = 0; i < 16; i++) {
-                blockToItemMap.put(ModBlocks.SENTRIES_MARKERS.get(i).get(),
-                                 ModBlocks.SENTRIES_MARKER_ITEMS.get(i).get());
-            }
-
-            // 哨兵路径点（0-15编号）
-            for (int i = 0; i < 16; i++) {
-                blockToItemMap.put(ModBlocks.SENTRIES_WAYPOINTS.get(i).get(),
-                                 ModBlocks.SENTRIES_WAYPOINT_ITEMS.get(i).get());
-            }
-
-            // 巡逻标记（0-15编号）
-            for (int i = 0; i < 16; i++) {
-                blockToItemMap.put(ModBlocks.PATROL_MARKERS.get(i).get(),
-                                 ModBlocks.PATROL_MARKER_ITEMS.get(i).get());
-            }
-
-            // 巡逻路径点（0-15编号）
-            for (int i = 0; i < 16; i++) {
-                blockToItemMap.put(ModBlocks.PATROL_WAYPOINTS.get(i).get(),
-                                 ModBlocks.PATROL_WAYPOINT_ITEMS.get(i).get());
-            }
+    // 区段 -> 边框缓冲区（只包含手持类型的标记）
+    private static final Long2ObjectOpenHashMap<SectionOutline> OUTLINES = new Long2ObjectOpenHashMap<>();
+    private static final BufferBuilder BUILDER = new BufferBuilder(RenderType.lines().bufferSize());
 
-            // 向后兼容：旧版无编号方块
-            blockToItemMap.put(ModBlocks.SENTRIES_MARKER.get(), ModBlocks.SENTRIES_MARKER_ITEM.get());
-            blockToItemMap.put(ModBlocks.PATROL_MARKER.get(), ModBlocks.PATROL_MARKER_ITEM.get());
-            blockToItemMap.put(ModBlocks.PATROL_WAYPOINT.get(), ModBlocks.PATROL_WAYPOINT_ITEM.get());
-            blockToItemMap.put(ModBlocks.SENTRIES_WAYPOINT.get(), ModBlocks.SENTRIES_WAYPOINT_ITEM.get());
-        }
-    }
+    // 缓冲区对应的标记类型
+    private static Block outlineBlock;
+    private static int frame;
 
     /**
      * 渲染方块边框
@@ -92,12 +61,10 @@ public class MarkerBlockRenderer {
             return;
         }
 
-        // 初始化映射（延迟初始化）
-        initializeMapping();
-
         Minecraft mc = Minecraft.getInstance();
         Player player = mc.player;
         if (player == null) {
+            releaseOutlines();
             return;
         }
 
@@ -113,79 +80,163 @@ public class MarkerBlockRenderer {
         }
 
         if (heldItem.isEmpty()) {
+            releaseOutlines();
             return; // 没有手持任何物品
         }
 
-        // 查找对应的方块
-        Block targetBlock = null;
-        for (Map.Entry<Block, Item> entry : blockToItemMap.entrySet()) {
-            if (heldItem.is(entry.getValue())) {
-                targetBlock = entry.getKey();
-                break;
-            }
-        }
+        // 查找对应的方块（标记方块和路径点的物品都是对应方块的BlockItem）
+        Block targetBlock = heldItem.getItem() instanceof BlockItem blockItem
+                && blockItem.getBlock() instanceof BaseMarkerBlock ? blockItem.getBlock() : null;
 
         if (targetBlock == null) {
+            releaseOutlines();
             return; // 不是marker物品
         }
 
         // 渲染附近的对应方块
-        renderNearbyMarkers(event, player, level, targetBlock);
+        renderNearbyMarkers(event, player, targetBlock);
     }
 
     /**
-     * 渲染玩家附近的marker方块
+     * 渲染玩家附近的marker方块（绘制与渲染范围相交的整个区段）
      */
-    private static void renderNearbyMarkers(RenderLevelStageEvent event, Player player, Level level, Block targetBlock) {
+    private static void renderNearbyMarkers(RenderLevelStageEvent event, Player player, Block targetBlock) {
+        // 手持的标记类型变化时所有区段都要重建
+        if (targetBlock != outlineBlock) {
+            releaseOutlines();
+            outlineBlock = targetBlock;
+        }
+        frame++;
+
         Vec3 cameraPos = event.getCamera().getPosition();
         BlockPos playerPos = player.blockPosition();
-
         PoseStack poseStack = event.getPoseStack();
-
-        // 从Minecraft实例获取渲染缓冲区
-        Minecraft mc = Minecraft.getInstance();
-        VertexConsumer consumer = mc.renderBuffers().bufferSource().getBuffer(RenderType.lines());
-
-        // 扫描附近的方块
-        for (int x = -RENDER_RADIUS; x <= RENDER_RADIUS; x++) {
-            for (int y = -RENDER_RADIUS; y <= RENDER_RADIUS; y++) {
-                for (int z = -RENDER_RADIUS; z <= RENDER_RADIUS; z++) {
-                    BlockPos pos = playerPos.offset(x, y, z);
-
-                    // 检查是否是目标方块
-                    if (level.getBlockState(pos).getBlock() == targetBlock) {
-                        // 渲染边框
-                        renderBlockOutline(poseStack, consumer, pos, cameraPos);
+        Matrix4f projection = event.getProjectionMatrix();
+
+        RenderType renderType = RenderType.lines();
+        renderType.setupRenderState();
+        ShaderInstance shader = GameRenderer.getRendertypeLinesShader();
+
+        int minX = SectionPos.blockToSectionCoord(playerPos.getX() - RENDER_RADIUS);
+        int minY = SectionPos.blockToSectionCoord(playerPos.getY() - RENDER_RADIUS);
+        int minZ = SectionPos.blockToSectionCoord(playerPos.getZ() - RENDER_RADIUS);
+        int maxX = SectionPos.blockToSectionCoord(playerPos.getX() + RENDER_RADIUS);
+        int maxY = SectionPos.blockToSectionCoord(playerPos.getY() + RENDER_RADIUS);
+        int maxZ = SectionPos.blockToSectionCoord(playerPos.getZ() + RENDER_RADIUS);
+        for (int sx = minX; sx <= maxX; sx++) {
+            for (int sy = minY; sy <= maxY; sy++) {
+                for (int sz = minZ; sz <= maxZ; sz++) {
+                    SectionOutline outline = getOutline(SectionPos.asLong(sx, sy, sz), targetBlock);
+                    if (outline == null || outline.buffer == null) {
+                        continue;
                     }
+
+                    // 缓冲区中的坐标相对于区段原点
+                    poseStack.pushPose();
+                    poseStack.translate(
+                            SectionPos.sectionToBlockCoord(sx) - cameraPos.x,
+                            SectionPos.sectionToBlockCoord(sy) - cameraPos.y,
+                            SectionPos.sectionToBlockCoord(sz) - cameraPos.z
+                    );
+                    outline.buffer.bind();
+                    outline.buffer.drawWithShader(poseStack.last().pose(), projection, shader);
+                    poseStack.popPose();
                 }
             }
         }
+        VertexBuffer.unbind();
+        renderType.clearRenderState();
+
+        // 释放离开渲染范围的区段
+        OUTLINES.values().removeIf(outline -> {
+            if (outline.lastFrame != frame) {
+                outline.close();
+                return true;
+            }
+            return false;
+        });
+    }
+
+    /**
+     * 获取区段的边框缓冲区，区段内容变化时重建
+     *
+     * @return 区段内没有任何标记方块时返回null
+     */
+    private static SectionOutline getOutline(long sectionKey, Block targetBlock) {
+        long stamp = ClientMarkerIndex.getSectionStamp(sectionKey);
+        SectionOutline outline = OUTLINES.get(sectionKey);
+        if (stamp == 0) {
+            if (outline != null) {
+                OUTLINES.remove(sectionKey).close();
+            }
+            return null;
+        }
+
+        if (outline == null) {
+            outline = new SectionOutline();
+            OUTLINES.put(sectionKey, outline);
+        }
+        if (outline.stamp != stamp) {
+            outline.rebuild(sectionKey, targetBlock);
+            outline.stamp = stamp;
+        }
+        outline.lastFrame = frame;
+        return outline;
     }
 
     /**
-     * 渲染单个方块的边框
+     * 释放所有区段的缓冲区
      */
-    private static void renderBlockOutline(PoseStack poseStack, VertexConsumer consumer, BlockPos pos, Vec3 cameraPos) {
-        poseStack.pushPose();
-
-        // 调整到方块位置（相对于相机）
-        poseStack.translate(
-                pos.getX() - cameraPos.x,
-                pos.getY() - cameraPos.y,
-                pos.getZ() - cameraPos.z
-        );
-
-        // 渲染完整方块边框（白色半透明）
-        VoxelShape shape = net.minecraft.world.phys.shapes.Shapes.block();
-        AABB box = shape.bounds();
-
-        LevelRenderer.renderLineBox(
-                poseStack,
-                consumer,
-                box,
-                1.0F, 1.0F, 1.0F, 0.4F  // 白色，40%不透明度
-        );
-
-        poseStack.popPose();
+    private static void releaseOutlines() {
+        if (!OUTLINES.isEmpty()) {
+            OUTLINES.values().forEach(SectionOutline::close);
+            OUTLINES.clear();
+        }
+        outlineBlock = null;
+    }
+
+    /**
+     * 一个区段内手持类型标记的边框（没有该类型标记时buffer为null）
+     */
+    private static final class SectionOutline {
+        private VertexBuffer buffer;
+        private long stamp;
+        private int lastFrame;
+
+        void rebuild(long sectionKey, Block targetBlock) {
+            if (ClientMarkerIndex.countInSection(targetBlock, sectionKey) == 0) {
+                close();
+                return;
+            }
+
+            int originX = SectionPos.sectionToBlockCoord(SectionPos.x(sectionKey));
+            int originY = SectionPos.sectionToBlockCoord(SectionPos.y(sectionKey));
+            int originZ = SectionPos.sectionToBlockCoord(SectionPos.z(sectionKey));
+            PoseStack identity = new PoseStack();
+
+            BUILDER.begin(VertexFormat.Mode.LINES, DefaultVertexFormat.POSITION_COLOR_NORMAL);
+            ClientMarkerIndex.forEachInSection(targetBlock, sectionKey, packed -> {
+                int x = BlockPos.getX(packed) - originX;
+                int y = BlockPos.getY(packed) - originY;
+                int z = BlockPos.getZ(packed) - originZ;
+                // 完整方块边框（白色，40%不透明度）
+                LevelRenderer.renderLineBox(identity, BUILDER, x, y, z, x + 1, y + 1, z + 1,
+                        1.0F, 1.0F, 1.0F, 0.4F);
+            });
+
+            if (buffer == null) {
+                buffer = new VertexBuffer(VertexBuffer.Usage.STATIC);
+            }
+            buffer.bind();
+            buffer.upload(BUILDER.end());
+            VertexBuffer.unbind();
+        }
+
+        void close() {
+            if (buffer != null) {
+                buffer.close();
+                buffer = null;
+            }
+        }
     }
 }
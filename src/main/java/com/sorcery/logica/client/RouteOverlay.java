@@ -0,0 +1,259 @@
+package com.sorcery.logica.client;
+
+import com.mojang.blaze3d.vertex.PoseStack;
+import com.mojang.blaze3d.vertex.VertexConsumer;
+import com.sorcery.logica.Logica;
+import com.sorcery.logica.ai.AIStrategy;
+import com.sorcery.logica.blocks.BaseMarkerBlock;
+import com.sorcery.logica.blocks.PatrolMarkerBlock;
+import com.sorcery.logica.blocks.PatrolWaypointBlock;
+import com.sorcery.logica.blocks.SentriesMarkerBlock;
+import com.sorcery.logica.blocks.SentriesWaypointBlock;
+import com.sorcery.logica.network.LogicaNetwork;
+import com.sorcery.logica.network.RouteOverlayPacket;
+import com.sorcery.logica.network.RouteOverlayRequestPacket;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.multiplayer.ClientPacketListener;
+import net.minecraft.client.renderer.MultiBufferSource;
+import net.minecraft.client.renderer.RenderType;
+import net.minecraft.core.BlockPos;
+import net.minecraft.util.Mth;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.item.BlockItem;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.phys.Vec3;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.client.event.ClientPlayerNetworkEvent;
+import net.minecraftforge.client.event.RenderLevelStageEvent;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+/**
+ * 路线可视化 - 显示服务器实际解析出的路线和附近策略怪物的当前目标路径点
+ *
+ * <h2>开启方式</h2>
+ * <ul>
+ *   <li>手持巡逻/哨兵标记或路径点：只显示该策略、该编号的路线</li>
+ *   <li>按键切换（默认未绑定）：显示附近所有路线</li>
+ * </ul>
+ *
+ * <p>数据来自服务器的增量同步（{@link com.sorcery.logica.network.RouteOverlayTracker}），需要权限等级2；
+ * 关闭后通知服务器停止发送
+ */
+@Mod.EventBusSubscriber(modid = Logica.MOD_ID, bus = Mod.EventBusSubscriber.Bus.FORGE, value = Dist.CLIENT)
+public class RouteOverlay {
+
+    /**
+     * 客户端保存的路线
+     */
+    private record RouteView(AIStrategy strategy, int team, BlockPos markerPos, BlockPos[] nodes, int[] links) {
+    }
+
+    private static final Int2ObjectOpenHashMap<RouteView> ROUTES = new Int2ObjectOpenHashMap<>();
+    private static final Int2ObjectOpenHashMap<RouteOverlayPacket.MobEntry> MOBS = new Int2ObjectOpenHashMap<>();
+
+    // 按键开关状态
+    private static boolean keyToggled;
+
+    // 是否已向服务器请求数据
+    private static boolean subscribed;
+
+    // ==================== 开关 ====================
+
+    @SubscribeEvent
+    public static void onClientTick(TickEvent.ClientTickEvent event) {
+        if (event.phase != TickEvent.Phase.END) {
+            return;
+        }
+
+        while (LogicaKeyMappings.TOGGLE_ROUTE_OVERLAY.consumeClick()) {
+            keyToggled = !keyToggled;
+        }
+
+        Minecraft mc = Minecraft.getInstance();
+        ClientPacketListener connection = mc.getConnection();
+        boolean connected = mc.player != null && connection != null
+                && LogicaNetwork.CHANNEL.isRemotePresent(connection.getConnection());
+        boolean wanted = connected && (keyToggled || getHeldMarker(mc.player) != null);
+        if (wanted == subscribed) {
+            return;
+        }
+
+        subscribed = wanted;
+        if (connected) {
+            LogicaNetwork.sendToServer(new RouteOverlayRequestPacket(wanted));
+        }
+        if (!wanted) {
+            clear();
+        }
+    }
+
+    @SubscribeEvent
+    public static void onLoggingOut(ClientPlayerNetworkEvent.LoggingOut event) {
+        subscribed = false;
+        clear();
+    }
+
+    private static void clear() {
+        ROUTES.clear();
+        MOBS.clear();
+    }
+
+    // ==================== 同步 ====================
+
+    /**
+     * 应用服务器发来的增量（客户端主线程）
+     */
+    public static void apply(RouteOverlayPacket packet) {
+        if (!subscribed) {
+            return; // 已关闭，忽略途中的数据包
+        }
+        if (packet.isReset()) {
+            clear();
+        }
+
+        packet.getRemovedRoutes().forEach(ROUTES::remove);
+        for (RouteOverlayPacket.RouteEntry route : packet.getRoutes()) {
+            BlockPos[] nodes = new BlockPos[route.nodes().length];
+            for (int i = 0; i < nodes.length; i++) {
+                nodes[i] = BlockPos.of(route.nodes()[i]);
+            }
+            ROUTES.put(route.id(), new RouteView(route.strategy(), route.team(),
+                    BlockPos.of(route.markerPos()), nodes, route.links()));
+        }
+
+        packet.getRemovedMobs().forEach(MOBS::remove);
+        for (RouteOverlayPacket.MobEntry mob : packet.getMobs()) {
+            MOBS.put(mob.entityId(), mob);
+        }
+    }
+
+    // ==================== 渲染 ====================
+
+    @SubscribeEvent
+    public static void onRenderLevelStage(RenderLevelStageEvent event) {
+        if (event.getStage() != RenderLevelStageEvent.Stage.AFTER_TRANSLUCENT_BLOCKS || !subscribed || ROUTES.isEmpty()) {
+            return;
+        }
+
+        Minecraft mc = Minecraft.getInstance();
+        if (mc.player == null || mc.level == null) {
+            return;
+        }
+
+        // 手持标记时只显示对应策略和编号的路线
+        Block heldMarker = getHeldMarker(mc.player);
+        AIStrategy strategyFilter = getStrategy(heldMarker);
+        int teamFilter = getTeam(heldMarker);
+
+        Vec3 cameraPos = event.getCamera().getPosition();
+        PoseStack.Pose pose = event.getPoseStack().last();
+        MultiBufferSource.BufferSource buffers = mc.renderBuffers().bufferSource();
+        VertexConsumer consumer = buffers.getBuffer(RenderType.lines());
+
+        // 路线连线（巡逻青色，哨兵黄色）
+        for (RouteView route : ROUTES.values()) {
+            if (!matches(route, strategyFilter, teamFilter)) {
+                continue;
+            }
+            float red = route.strategy() == AIStrategy.PATROL ? 0.2F : 1.0F;
+            float green = route.strategy() == AIStrategy.PATROL ? 0.9F : 0.85F;
+            float blue = route.strategy() == AIStrategy.PATROL ? 1.0F : 0.2F;
+            for (int i = 0; i < route.nodes().length; i++) {
+                int link = route.links()[i];
+                BlockPos from = route.nodes()[i];
+                BlockPos to = link >= 0 ? route.nodes()[link] : route.markerPos();
+                line(consumer, pose, cameraPos, Vec3.atCenterOf(from), Vec3.atCenterOf(to), red, green, blue);
+            }
+        }
+
+        // 怪物到当前目标路径点（绿色）
+        float partialTick = event.getPartialTick();
+        for (RouteOverlayPacket.MobEntry mob : MOBS.values()) {
+            RouteView route = ROUTES.get(mob.routeId());
+            if (route == null || mob.target() < 0 || mob.target() >= route.nodes().length
+                    || !matches(route, strategyFilter, teamFilter)) {
+                continue;
+            }
+            Entity entity = mc.level.getEntity(mob.entityId());
+            if (entity == null) {
+                continue;
+            }
+            Vec3 mobPos = entity.getPosition(partialTick).add(0, entity.getBbHeight() * 0.5, 0);
+            line(consumer, pose, cameraPos, mobPos, Vec3.atCenterOf(route.nodes()[mob.target()]), 0.3F, 1.0F, 0.3F);
+        }
+
+        buffers.endBatch(RenderType.lines());
+    }
+
+    private static boolean matches(RouteView route, AIStrategy strategyFilter, int teamFilter) {
+        return strategyFilter == null || (route.strategy() == strategyFilter && route.team() == teamFilter);
+    }
+
+    private static void line(VertexConsumer consumer, PoseStack.Pose pose, Vec3 cameraPos, Vec3 from, Vec3 to,
+                             float red, float green, float blue) {
+        float dx = (float) (to.x - from.x);
+        float dy = (float) (to.y - from.y);
+        float dz = (float) (to.z - from.z);
+        float length = Mth.sqrt(dx * dx + dy * dy + dz * dz);
+        if (length < 1.0E-4F) {
+            return;
+        }
+        dx /= length;
+        dy /= length;
+        dz /= length;
+
+        consumer.vertex(pose.pose(), (float) (from.x - cameraPos.x), (float) (from.y - cameraPos.y), (float) (from.z - cameraPos.z))
+                .color(red, green, blue, 1.0F)
+                .normal(pose.normal(), dx, dy, dz)
+                .endVertex();
+        consumer.vertex(pose.pose(), (float) (to.x - cameraPos.x), (float) (to.y - cameraPos.y), (float) (to.z - cameraPos.z))
+                .color(red, green, blue, 1.0F)
+                .normal(pose.normal(), dx, dy, dz)
+                .endVertex();
+    }
+
+    // ==================== 手持标记 ====================
+
+    private static Block getHeldMarker(Player player) {
+        for (ItemStack stack : new ItemStack[]{player.getMainHandItem(), player.getOffhandItem()}) {
+            if (stack.getItem() instanceof BlockItem blockItem && blockItem.getBlock() instanceof BaseMarkerBlock) {
+                return blockItem.getBlock();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 手持标记对应的策略（守卫标记或未手持时返回null，不过滤）
+     */
+    private static AIStrategy getStrategy(Block marker) {
+        if (marker instanceof PatrolMarkerBlock || marker instanceof PatrolWaypointBlock) {
+            return AIStrategy.PATROL;
+        }
+        if (marker instanceof SentriesMarkerBlock || marker instanceof SentriesWaypointBlock) {
+            return AIStrategy.SENTRIES;
+        }
+        return null;
+    }
+
+    private static int getTeam(Block marker) {
+        if (marker instanceof PatrolMarkerBlock block) {
+            return block.getTeamId();
+        }
+        if (marker instanceof PatrolWaypointBlock block) {
+            return block.getTeamId();
+        }
+        if (marker instanceof SentriesMarkerBlock block) {
+            return block.getTeamId();
+        }
+        if (marker instanceof SentriesWaypointBlock block) {
+            return block.getTeamId();
+        }
+        return -1;
+    }
+}
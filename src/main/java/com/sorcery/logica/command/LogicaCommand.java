@@ -0,0 +1,70 @@
+package com.sorcery.logica.command;
+
+import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import com.sorcery.logica.Logica;
+import com.sorcery.logica.util.LogicaProfiler;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.network.chat.Component;
+
+/**
+ * /logica 命令（需要权限等级2）
+ *
+ * <ul>
+ *   <li>/logica profile start - 清空并开始性能分析</li>
+ *   <li>/logica profile stop - 停止性能分析（保留数据）</li>
+ *   <li>/logica profile dump [limit] - 输出耗时最高的条目（完整报告同时写入日志）</li>
+ * </ul>
+ */
+public class LogicaCommand {
+
+    /** 聊天栏中每个表默认列出的条目数 */
+    private static final int DEFAULT_DUMP_LIMIT = 5;
+
+    /** 日志中每个表列出的条目数 */
+    private static final int LOG_DUMP_LIMIT = 50;
+
+    public static void register(CommandDispatcher<CommandSourceStack> dispatcher) {
+        dispatcher.register(Commands.literal("logica")
+                .requires(source -> source.hasPermission(2))
+                .then(profile()));
+    }
+
+    // ==================== profile ====================
+
+    private static LiteralArgumentBuilder<CommandSourceStack> profile() {
+        return Commands.literal("profile")
+                .then(Commands.literal("start").executes(context -> {
+                    LogicaProfiler.start();
+                    context.getSource().sendSuccess(() -> Component.literal("Logica profiler started"), true);
+                    return 1;
+                }))
+                .then(Commands.literal("stop").executes(context -> {
+                    if (!LogicaProfiler.isRunning()) {
+                        context.getSource().sendFailure(Component.literal("Logica profiler is not running"));
+                        return 0;
+                    }
+                    LogicaProfiler.stop();
+                    context.getSource().sendSuccess(() -> Component.literal("Logica profiler stopped"), true);
+                    return 1;
+                }))
+                .then(Commands.literal("dump")
+                        .executes(context -> dump(context.getSource(), DEFAULT_DUMP_LIMIT))
+                        .then(Commands.argument("limit", IntegerArgumentType.integer(1, LOG_DUMP_LIMIT))
+                                .executes(context -> dump(context.getSource(),
+                                        IntegerArgumentType.getInteger(context, "limit")))));
+    }
+
+    private static int dump(CommandSourceStack source, int limit) {
+        for (String line : LogicaProfiler.dump(limit)) {
+            source.sendSuccess(() -> Component.literal(line), false);
+        }
+
+        for (String line : LogicaProfiler.dump(LOG_DUMP_LIMIT)) {
+            Logica.LOGGER.info(line);
+        }
+        return 1;
+    }
+}
@@ -54,6 +54,8 @@ public class    LogicaConfig {
     public static final ForgeConfigSpec.IntValue SENTRIES_BELL_COUNT;
     public static final ForgeConfigSpec.IntValue SENTRIES_BELL_INTERVAL;
     public static final ForgeConfigSpec.BooleanValue SENTRIES_ALERT_ALL_TYPES;
+    public static final ForgeConfigSpec.DoubleValue ALERT_HOP_DISTANCE;
+    public static final ForgeConfigSpec.IntValue ALERT_HOP_DELAY_TICKS;
 
     // ==================== 追踪模式 ====================
 
@@ -65,6 +67,21 @@ public class    LogicaConfig {
 
     public static final ForgeConfigSpec.BooleanValue IGNORE_CREATIVE_PLAYERS;
 
+    // ==================== 性能 ====================
+
+    public static final ForgeConfigSpec.BooleanValue ENABLE_AI_LOD;
+    public static final ForgeConfigSpec.DoubleValue LOD_FULL_RADIUS;
+    public static final ForgeConfigSpec.DoubleValue LOD_REDUCED_RADIUS;
+    public static final ForgeConfigSpec.IntValue LOD_REDUCED_INTERVAL;
+    public static final ForgeConfigSpec.IntValue PATH_CACHE_SIZE;
+    public static final ForgeConfigSpec.DoubleValue PATH_BUDGET_MS;
+    public static final ForgeConfigSpec.BooleanValue ASYNC_ROUTE_RESOLUTION;
+    public static final ForgeConfigSpec.BooleanValue ENABLE_JFR_EVENTS;
+    public static final ForgeConfigSpec.IntValue ROUTE_OVERLAY_SYNC_INTERVAL;
+    public static final ForgeConfigSpec.IntValue SQUAD_GROUP_SIZE;
+    public static final ForgeConfigSpec.IntValue MAX_ALERT_WAKEUPS_PER_TICK;
+    public static final ForgeConfigSpec.DoubleValue ROUTE_OVERLAY_RANGE;
+
     // ==================== 日志系统 ====================
 
     public static final ForgeConfigSpec.BooleanValue ENABLE_DEBUG_LOGS;
@@ -317,6 +334,18 @@ public class    LogicaConfig {
         SENTRIES_ALERT_ALL_TYPES = BUILDER
                 .comment("Alert all mob types (false = same type only)")
                 .define("alertAllTypes", true);
+
+        ALERT_HOP_DISTANCE = BUILDER
+                .comment(
+                        "Distance an alert travels per hop (blocks)",
+                        "The alert spreads as a wave from the sentries through nearby mobs and their squad mates;",
+                        "mobs the wave cannot reach within the alert radius are woken at the last hop"
+                )
+                .defineInRange("alertHopDistance", 8.0, 2.0, 64.0);
+
+        ALERT_HOP_DELAY_TICKS = BUILDER
+                .comment("Delay between alert wave hops (ticks, 0 = wake everyone in the same tick)")
+                .defineInRange("alertHopDelayTicks", 4, 0, 40);
         BUILDER.pop();
 
         BUILDER.push("Tracking");
@@ -346,6 +375,91 @@ public class    LogicaConfig {
                 .define("ignoreCreativePlayers", true);
         BUILDER.pop();
 
+        BUILDER.push("Performance");
+        ENABLE_AI_LOD = BUILDER
+                .comment(
+                        "Enable distance-based AI level of detail for strategy goals (default: true)",
+                        "Idle Guard/Sentries/Patrol mobs far from every player update less often:",
+                        "  - Within lodFullRadius: every tick",
+                        "  - Within lodReducedRadius: every lodReducedInterval ticks",
+                        "  - Beyond: route progress is simulated, no pathfinding (mobs do not teleport)"
+                )
+                .define("enableAiLod", true);
+
+        LOD_FULL_RADIUS = BUILDER
+                .comment("Distance to the nearest player within which strategy goals update every tick (blocks)")
+                .defineInRange("lodFullRadius", 48.0, 8.0, 256.0);
+
+        LOD_REDUCED_RADIUS = BUILDER
+                .comment("Distance to the nearest player beyond which route progress is only simulated (blocks)")
+                .defineInRange("lodReducedRadius", 96.0, 16.0, 512.0);
+
+        LOD_REDUCED_INTERVAL = BUILDER
+                .comment("Update interval for reduced and simulated strategy goals (ticks)")
+                .defineInRange("lodReducedInterval", 4, 2, 40);
+
+        PATH_CACHE_SIZE = BUILDER
+                .comment(
+                        "Maximum number of cached waypoint-to-waypoint paths per dimension (default: 256)",
+                        "Mobs walking the same route leg share one pathfinding result",
+                        "Cached paths are dropped when a block changes in a chunk section they cross"
+                )
+                .defineInRange("pathCacheSize", 256, 16, 4096);
+
+        PATH_BUDGET_MS = BUILDER
+                .comment(
+                        "Pathfinding time budget per dimension per tick for Logica goals (milliseconds, default: 2.0)",
+                        "Requests beyond the budget are deferred to later ticks; combat/tracking mobs are served first",
+                        "At least one request is processed every tick"
+                )
+                .defineInRange("pathBudgetMs", 2.0, 0.1, 50.0);
+
+        ASYNC_ROUTE_RESOLUTION = BUILDER
+                .comment(
+                        "Resolve Patrol/Sentries routes on a background thread (default: true)",
+                        "The waypoint search runs against a snapshot of the waypoint index; mobs hold their marker until the route arrives",
+                        "Disable to resolve routes synchronously on the server thread"
+                )
+                .define("asyncRouteResolution", true);
+
+        ENABLE_JFR_EVENTS = BUILDER
+                .comment(
+                        "Emit Java Flight Recorder events for Logica work (default: false)",
+                        "State transitions, goal pathfinding, waypoint searches, sentries alerts and strategy application",
+                        "appear under the 'Logica' category of a JFR recording; events cost nothing while no recording is running"
+                )
+                .define("enableJfrEvents", false);
+
+        SQUAD_GROUP_SIZE = BUILDER
+                .comment(
+                        "Maximum patrol group size within a squad (default: 1 = every mob patrols on its own)",
+                        "Mobs sharing a Patrol marker and team form a squad, split into groups spread evenly along the route",
+                        "With the default every member gets its own start point, so the squad covers the whole tour",
+                        "Larger values opt into formations: only each group's leader pathfinds and the others keep formation",
+                        "behind it by local steering (cheaper, but a squad no larger than the group size walks as one)",
+                        "Sentries in a squad avoid heading for the same waypoint"
+                )
+                .defineInRange("squadGroupSize", 1, 1, 16);
+
+        MAX_ALERT_WAKEUPS_PER_TICK = BUILDER
+                .comment(
+                        "Maximum number of mobs woken by alert waves per tick (default: 8)",
+                        "Wake-ups beyond the limit are pushed to the following ticks so their pathfinding does not land in one tick"
+                )
+                .defineInRange("maxAlertWakeupsPerTick", 8, 1, 256);
+
+        ROUTE_OVERLAY_SYNC_INTERVAL = BUILDER
+                .comment(
+                        "Interval between route overlay updates sent to each viewing operator (ticks, default: 10)",
+                        "Only changes since the previous update are sent; nothing is sent while no one has the overlay open"
+                )
+                .defineInRange("routeOverlaySyncInterval", 10, 1, 200);
+
+        ROUTE_OVERLAY_RANGE = BUILDER
+                .comment("Distance from the viewing player within which routes and mob targets are synced (blocks)")
+                .defineInRange("routeOverlayRange", 64.0, 16.0, 256.0);
+        BUILDER.pop();
+
         BUILDER.push("Logging");
         ENABLE_DEBUG_LOGS = BUILDER
                 .comment(
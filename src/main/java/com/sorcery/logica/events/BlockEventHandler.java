@@ -2,9 +2,16 @@ package com.sorcery.logica.events;
 
 import com.sorcery.logica.Logica;
 import com.sorcery.logica.blocks.*;
+import com.sorcery.logica.util.RouteRegistry;
+import com.sorcery.logica.util.WaypointIndex;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.chunk.LevelChunk;
 import net.minecraftforge.event.level.BlockEvent;
+import net.minecraftforge.event.level.ChunkEvent;
+import net.minecraftforge.event.server.ServerStoppedEvent;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.common.Mod;
 
@@ -13,7 +20,9 @@ import net.minecraftforge.fml.common.Mod;
  *
  * 功能：
  * - 记录策略方块的放置和破坏（用于调试日志）
- * - 策略方块通过BlockEntity自主工作，不需要全局管理
+ * - 策略方块的应用由EntitySpawnHandler在怪物生成时触发
+ * - 区块加载时扫描未索引的区块、卸载时释放没有标记方块的区块，维护路径点索引
+ * - 服务器关闭时丢弃尚未完成的异步路线解析
  */
 @Mod.EventBusSubscriber(modid = Logica.MOD_ID, bus = Mod.EventBusSubscriber.Bus.FORGE)
 public class BlockEventHandler {
@@ -33,13 +42,16 @@ public class BlockEventHandler {
             Level level = (Level) event.getLevel();
             if (level.isClientSide()) return;
 
-            Logica.LOGGER.info("Strategy marker placed at {} (type: {}), BlockEntity will handle beacon effect",
+            Logica.LOGGER.info("Strategy marker placed at {} (type: {}), mobs spawning on it will receive the strategy",
                     event.getPos(), block.getClass().getSimpleName());
         }
     }
 
     /**
      * 监听方块破坏事件（仅用于调试日志）
+     *
+     * 索引不在这里更新：破坏事件在冒险模式、onBlockStartBreak等检查之前触发，
+     * 之后仍可能被拒绝；方块实际被移除时由标记方块的onRemove删除
      */
     @SubscribeEvent
     public static void onBlockBreak(BlockEvent.BreakEvent event) {
@@ -52,8 +64,43 @@ public class BlockEventHandler {
             Level level = (Level) event.getLevel();
             if (level.isClientSide()) return;
 
-            Logica.LOGGER.info("Strategy marker removed at {} (type: {}), BlockEntity destroyed",
+            Logica.LOGGER.info("Strategy marker removed at {} (type: {})",
                     event.getPos(), block.getClass().getSimpleName());
         }
     }
+
+    /**
+     * 区块加载时扫描尚未索引过的区块
+     *
+     * 已索引区块的增删由标记方块的onPlace/onRemove维护
+     */
+    @SubscribeEvent
+    public static void onChunkLoad(ChunkEvent.Load event) {
+        // 只处理服务端完整区块（ProtoChunk可能还没放置结构，且在工作线程上加载）
+        if (!(event.getLevel() instanceof ServerLevel serverLevel) || !(event.getChunk() instanceof LevelChunk)) {
+            return;
+        }
+
+        ChunkPos chunkPos = event.getChunk().getPos();
+        WaypointIndex index = WaypointIndex.get(serverLevel);
+        if (!index.isChunkIndexed(chunkPos.x, chunkPos.z)) {
+            index.indexChunk(event.getChunk());
+        }
+    }
+
+    /**
+     * 区块卸载时让没有标记方块的区块退出已索引集合，避免集合随探索无限增长
+     */
+    @SubscribeEvent
+    public static void onChunkUnload(ChunkEvent.Unload event) {
+        if (event.getLevel() instanceof ServerLevel serverLevel && event.getChunk() instanceof LevelChunk) {
+            ChunkPos chunkPos = event.getChunk().getPos();
+            WaypointIndex.get(serverLevel).unloadChunk(chunkPos.x, chunkPos.z);
+        }
+    }
+
+    @SubscribeEvent
+    public static void onServerStopped(ServerStoppedEvent event) {
+        RouteRegistry.clearPending();
+    }
 }
@@ -0,0 +1,30 @@
+package com.sorcery.logica.events;
+
+import com.sorcery.logica.Logica;
+import com.sorcery.logica.command.LogicaCommand;
+import com.sorcery.logica.util.LogicaProfiler;
+import net.minecraftforge.event.RegisterCommandsEvent;
+import net.minecraftforge.event.server.ServerStoppedEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+/**
+ * 命令注册
+ *
+ * 功能：
+ * - 注册 /logica 命令
+ * - 服务器关闭时停止性能分析
+ */
+@Mod.EventBusSubscriber(modid = Logica.MOD_ID, bus = Mod.EventBusSubscriber.Bus.FORGE)
+public class CommandHandler {
+
+    @SubscribeEvent
+    public static void onRegisterCommands(RegisterCommandsEvent event) {
+        LogicaCommand.register(event.getDispatcher());
+    }
+
+    @SubscribeEvent
+    public static void onServerStopped(ServerStoppedEvent event) {
+        LogicaProfiler.stop();
+    }
+}
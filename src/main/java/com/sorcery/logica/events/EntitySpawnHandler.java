@@ -2,37 +2,45 @@ package com.sorcery.logica.events;
 
 import com.sorcery.logica.Logica;
 import com.sorcery.logica.ai.AIStrategy;
-import com.sorcery.logica.blocks.*;
+import com.sorcery.logica.blocks.entity.BaseStrategyBlockEntity;
 import com.sorcery.logica.capability.AICapabilityProvider;
 import com.sorcery.logica.goals.*;
-import com.sorcery.logica.util.WaypointFinder;
+import com.sorcery.logica.util.WaypointIndex;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
 import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.entity.Mob;
-import net.minecraft.world.level.Level;
-import net.minecraft.world.level.block.Block;
-import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraftforge.event.TickEvent;
 import net.minecraftforge.event.entity.EntityJoinLevelEvent;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.common.Mod;
 
-import java.util.List;
+import java.util.Set;
 
 /**
  * 实体生成处理器
  *
  * 功能：
- * - 检测实体周围3x3x3范围的策略标记方块
- * - 自动应用对应的AI策略
+ * - 新生成的怪物站在策略标记方块上时，应用对应的AI策略
  * - 搜索并记录路径点
+ * - 为重新加载的实体恢复Goals
  *
  * 性能优化：
- * - 缓存世界中是否存在策略方块，避免重复检测
- * - 没有策略方块的世界直接跳过所有处理
+ * - 通过路径点索引判断附近区块是否有标记方块，没有则完全跳过
+ * - 标记方块本身不tick，没有怪物生成时没有任何开销
  * - 普通怪物延迟注册Goals（懒加载）
  */
 @Mod.EventBusSubscriber(modid = Logica.MOD_ID, bus = Mod.EventBusSubscriber.Bus.FORGE)
 public class EntitySpawnHandler {
 
+    /**
+     * 生成后多少tick内站上标记方块仍会应用策略（超过则视为走进来的）
+     */
+    private static final int MARKER_APPLY_WINDOW = 40;
+
+    // 等待检查脚下标记方块的怪物（只收录附近区块有标记方块的怪物）
+    private static final Set<Mob> pendingMarkerChecks = new ReferenceOpenHashSet<>();
 
     /**
      * 实体加入世界时的处理
@@ -53,6 +61,11 @@ public class EntitySpawnHandler {
             return;
         }
 
+        // 附近有标记方块时，等待检查是否站在标记方块上
+        if (event.getLevel() instanceof ServerLevel serverLevel) {
+            watchForMarker(serverLevel, mob);
+        }
+
         // 检查是否有保存的策略数据（重新加载的实体）
         mob.getCapability(AICapabilityProvider.AI_CAPABILITY).ifPresent(aiCap -> {
             AIStrategy strategy = aiCap.getStrategy();
@@ -107,11 +120,73 @@ public class EntitySpawnHandler {
         });
     }
 
+    /**
+     * 附近区块有标记方块的新怪物加入待检查列表
+     */
+    private static void watchForMarker(ServerLevel level, Mob mob) {
+        if (mob.tickCount > MARKER_APPLY_WINDOW || mob.getPersistentData().getBoolean("logica_marker_applied")) {
+            return;
+        }
+
+        // 检查周围3x3区块（怪物在生成窗口内可能走到相邻区块的标记方块上）
+        WaypointIndex index = WaypointIndex.get(level);
+        ChunkPos chunkPos = mob.chunkPosition();
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dz = -1; dz <= 1; dz++) {
+                int chunkX = chunkPos.x + dx;
+                int chunkZ = chunkPos.z + dz;
+                // 尚未索引的区块也先收录，等tick时再确认
+                if (!index.isChunkIndexed(chunkX, chunkZ) || index.hasMarkersInChunk(chunkX, chunkZ)) {
+                    pendingMarkerChecks.add(mob);
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * 每tick检查待检查怪物脚下是否是标记方块
+     */
+    @SubscribeEvent
+    public static void onServerTick(TickEvent.ServerTickEvent event) {
+        if (event.phase != TickEvent.Phase.END || pendingMarkerChecks.isEmpty()) {
+            return;
+        }
+
+        pendingMarkerChecks.removeIf(EntitySpawnHandler::checkMarkerUnderMob);
+    }
+
+    /**
+     * 检查怪物脚下的标记方块并应用策略
+     *
+     * @return 是否结束对该怪物的检查
+     */
+    private static boolean checkMarkerUnderMob(Mob mob) {
+        // 已移除、超过生成窗口、已被处理
+        if (mob.isRemoved() || mob.tickCount > MARKER_APPLY_WINDOW
+                || mob.getPersistentData().getBoolean("logica_marker_applied")) {
+            return true;
+        }
+        if (!(mob.level() instanceof ServerLevel level)) {
+            return true;
+        }
+
+        // 检查怪物是否在标记方块位置（精确匹配）
+        BlockPos pos = mob.blockPosition();
+        if (!WaypointIndex.isMarker(WaypointIndex.get(level).getEntry(level, pos))) {
+            return false;
+        }
+
+        if (level.getBlockEntity(pos) instanceof BaseStrategyBlockEntity marker) {
+            marker.applyStrategy(mob);
+        }
+        return true;
+    }
 
     /**
      * 为策略怪物注册完整的Goals（包括基础Goals和策略Goals）
      *
-     * 注意：此方法用于重新加载实体时恢复Goals
+     * 注意：此方法用于标记方块应用策略，以及重新加载实体时恢复Goals
      * 调用者负责检查是否需要注册（避免重复）
      */
     public static void registerStrategyGoals(Mob mob, AIStrategy strategy) {
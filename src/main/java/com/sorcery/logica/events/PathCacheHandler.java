@@ -0,0 +1,32 @@
+package com.sorcery.logica.events;
+
+import com.sorcery.logica.Logica;
+import com.sorcery.logica.util.PathCache;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraftforge.event.level.BlockEvent;
+import net.minecraftforge.event.server.ServerStoppedEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+/**
+ * 路径缓存维护
+ *
+ * 功能：
+ * - 方块变化时作废经过该区段的缓存路径
+ * - 服务器关闭时清空缓存
+ */
+@Mod.EventBusSubscriber(modid = Logica.MOD_ID, bus = Mod.EventBusSubscriber.Bus.FORGE)
+public class PathCacheHandler {
+
+    @SubscribeEvent
+    public static void onNeighborNotify(BlockEvent.NeighborNotifyEvent event) {
+        if (event.getLevel() instanceof ServerLevel serverLevel) {
+            PathCache.get(serverLevel).invalidate(event.getPos());
+        }
+    }
+
+    @SubscribeEvent
+    public static void onServerStopped(ServerStoppedEvent event) {
+        PathCache.clearAll();
+    }
+}
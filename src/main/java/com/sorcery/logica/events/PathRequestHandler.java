@@ -0,0 +1,32 @@
+package com.sorcery.logica.events;
+
+import com.sorcery.logica.Logica;
+import com.sorcery.logica.util.PathRequestQueue;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.server.ServerStoppedEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+/**
+ * 寻路请求队列驱动
+ *
+ * 功能：
+ * - 每个维度tick结束时在预算内处理寻路请求
+ * - 服务器关闭时清空队列
+ */
+@Mod.EventBusSubscriber(modid = Logica.MOD_ID, bus = Mod.EventBusSubscriber.Bus.FORGE)
+public class PathRequestHandler {
+
+    @SubscribeEvent
+    public static void onLevelTick(TickEvent.LevelTickEvent event) {
+        if (event.phase == TickEvent.Phase.END && event.level instanceof ServerLevel serverLevel) {
+            PathRequestQueue.get(serverLevel).tick();
+        }
+    }
+
+    @SubscribeEvent
+    public static void onServerStopped(ServerStoppedEvent event) {
+        PathRequestQueue.clearAll();
+    }
+}
@@ -0,0 +1,70 @@
+package com.sorcery.logica.events;
+
+import com.sorcery.logica.Logica;
+import com.sorcery.logica.ai.VibrationListener;
+import io.github.Sorcery_Dynasties.aperioculos.api.event.VibrationPerceivedEvent;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.LivingEntity;
+import net.minecraftforge.event.entity.EntityLeaveLevelEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 感知事件分发器
+ *
+ * 功能：
+ * - 统一监听Aperi Oculos的VibrationPerceivedEvent
+ * - 按监听实体ID只分发给该怪物自己的Goals（不再每个Goal各自注册到事件总线）
+ * - 实体离开世界（死亡、卸载、换维度）时自动移除注册
+ */
+@Mod.EventBusSubscriber(modid = Logica.MOD_ID, bus = Mod.EventBusSubscriber.Bus.FORGE)
+public class PerceptionDispatcher {
+
+    // 实体ID -> 听觉监听器（只在服务端使用）
+    private static final Int2ObjectOpenHashMap<List<VibrationListener>> vibrationListeners = new Int2ObjectOpenHashMap<>();
+
+    /**
+     * 为实体注册听觉监听器
+     */
+    public static void register(Entity entity, VibrationListener listener) {
+        vibrationListeners.computeIfAbsent(entity.getId(), id -> new ArrayList<>(1)).add(listener);
+    }
+
+    /**
+     * 分发听觉事件到监听实体的Goals
+     */
+    @SubscribeEvent
+    public static void onVibrationPerceived(VibrationPerceivedEvent event) {
+        LivingEntity listener = event.getListener();
+        if (listener == null || listener.level().isClientSide()) {
+            return;
+        }
+
+        List<VibrationListener> listeners = vibrationListeners.get(listener.getId());
+        if (listeners == null) {
+            return;
+        }
+
+        // 按下标遍历：回调中可能为同一实体注册新的Goal
+        for (int i = 0; i < listeners.size(); i++) {
+            listeners.get(i).onVibrationPerceived(event);
+        }
+    }
+
+    /**
+     * 实体离开世界时移除注册
+     */
+    @SubscribeEvent
+    public static void onEntityLeaveLevel(EntityLeaveLevelEvent event) {
+        // 客户端实体与服务端实体ID相同（单人游戏），不能让客户端的离开事件移除服务端的注册
+        if (event.getLevel().isClientSide()) {
+            return;
+        }
+
+        vibrationListeners.remove(event.getEntity().getId());
+    }
+}
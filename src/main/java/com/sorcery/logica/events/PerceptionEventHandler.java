@@ -2,31 +2,31 @@ package com.sorcery.logica.events;
 
 import com.sorcery.logica.Logica;
 import com.sorcery.logica.ai.AIState;
+import com.sorcery.logica.ai.AlertWave;
 import com.sorcery.logica.ai.AIStrategy;
 import com.sorcery.logica.capability.AICapabilityProvider;
 import com.sorcery.logica.capability.IAICapability;
 import com.sorcery.logica.config.LogicaConfig;
+import com.sorcery.logica.util.GroundSnapper;
+import com.sorcery.logica.util.LogicaProfiler;
+import com.sorcery.logica.util.TickScheduler;
 import io.github.Sorcery_Dynasties.aperioculos.api.event.TargetSpottedEvent;
 import io.github.Sorcery_Dynasties.aperioculos.api.event.VibrationPerceivedEvent;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.particles.ParticleTypes;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.sounds.SoundEvents;
 import net.minecraft.sounds.SoundSource;
+import net.minecraft.world.entity.Entity;
 import net.minecraft.world.entity.LivingEntity;
 import net.minecraft.world.entity.Mob;
 import net.minecraft.world.entity.player.Player;
-import net.minecraft.world.phys.AABB;
 import net.minecraft.world.phys.Vec3;
-import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.entity.EntityLeaveLevelEvent;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.common.Mod;
 
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-import java.util.UUID;
-
 /**
  * 感知事件处理器
  *
@@ -40,9 +40,19 @@ import java.util.UUID;
 @Mod.EventBusSubscriber(modid = Logica.MOD_ID, bus = Mod.EventBusSubscriber.Bus.FORGE)
 public class PerceptionEventHandler {
 
-    // 哨兵警报系统：存储待播放的钟声（UUID -> 剩余次数）
-    private static final Map<UUID, Integer> sentriesBellSchedule = new HashMap<>();
-    private static final Map<UUID, Integer> sentriesBellCooldown = new HashMap<>();
+    // 哨兵警报系统：实体ID -> 正在播放的钟声（同一怪物重复触发时替换旧的警报）
+    private static final Int2ObjectOpenHashMap<SentriesBell> sentriesBells = new Int2ObjectOpenHashMap<>();
+
+    /**
+     * 一次钟声警报的剩余次数
+     */
+    private static final class SentriesBell {
+        int remaining;
+
+        SentriesBell(int remaining) {
+            this.remaining = remaining;
+        }
+    }
 
     /**
      * 监听Aperi Oculos的听觉事件
@@ -180,10 +190,10 @@ public class PerceptionEventHandler {
         // 记录最后已知位置
         aiCap.setLastKnownTargetPos(player.blockPosition());
 
-        // Sentries策略：播放钟声并广播警报
+        // Sentries策略：播放钟声并发出警报（tick结束时逐跳传播）
         if (aiCap.getStrategy() == AIStrategy.SENTRIES) {
             scheduleSentriesBellAlert(observer);
-            broadcastAlert(observer, player);
+            AlertWave.raise(observer, player);
         }
 
         // 切换到COMBAT状态（只有首次进入COMBAT时记录日志）
@@ -205,113 +215,70 @@ public class PerceptionEventHandler {
      * @return 地面位置（最多向下搜索10格）
      */
     private static BlockPos findGroundBelow(net.minecraft.world.level.Level level, BlockPos startPos) {
-        // 向下搜索最多10格
-        for (int i = 0; i < 10; i++) {
-            BlockPos checkPos = startPos.below(i);
-            BlockPos belowPos = checkPos.below();
-
-            // 检查当前位置是否为空气，且下方是固体方块
-            if (level.getBlockState(checkPos).isAir() &&
-                !level.getBlockState(belowPos).isAir() &&
-                level.getBlockState(belowPos).isSolid()) {
-                return checkPos;
-            }
-        }
+        // 向下搜索最多10格：当前位置是空气，且下方是固体方块
+        BlockPos groundPos = GroundSnapper.snapToSurface(level, startPos, 10);
 
         // 如果找不到地面，返回原位置
-        return startPos;
+        return groundPos != null ? groundPos : startPos;
     }
 
     /**
-     * 安排哨兵钟声警报
+     * 安排哨兵钟声警报（立即播放第一声）
      */
     private static void scheduleSentriesBellAlert(Mob mob) {
-        int bellCount = LogicaConfig.SENTRIES_BELL_COUNT.get();
-        sentriesBellSchedule.put(mob.getUUID(), bellCount);
-        sentriesBellCooldown.put(mob.getUUID(), 0); // 立即播放第一声
-    }
-
-    /**
-     * 广播警报到附近的怪物
-     */
-    private static void broadcastAlert(Mob alerter, Player target) {
-        double radius = LogicaConfig.SENTRIES_ALERT_RADIUS.get();
-        boolean alertAllTypes = LogicaConfig.SENTRIES_ALERT_ALL_TYPES.get();
-
-        // 查找范围内的怪物
-        AABB searchBox = new AABB(alerter.blockPosition()).inflate(radius);
-        List<Mob> nearbyMobs = alerter.level().getEntitiesOfClass(Mob.class, searchBox, mob -> {
-            if (mob == alerter) return false; // 排除自己
-            if (!alertAllTypes && mob.getType() != alerter.getType()) return false; // 只警报同类
-            return mob.distanceToSqr(alerter) <= radius * radius;
-        });
-
-        // 传递目标信息
-        for (Mob mob : nearbyMobs) {
-            mob.setTarget(target);
-
-            // 切换到COMBAT状态
-            mob.getCapability(AICapabilityProvider.AI_CAPABILITY).ifPresent(cap -> {
-                cap.setState(AIState.COMBAT);
-                cap.setLastKnownTargetPos(target.blockPosition());
-            });
+        if (!(mob.level() instanceof ServerLevel serverLevel)) {
+            return;
         }
 
-        Logica.LOGGER.debug("Sentries {} alerted {} nearby mobs",
-                alerter.getName().getString(), nearbyMobs.size());
+        SentriesBell bell = new SentriesBell(LogicaConfig.SENTRIES_BELL_COUNT.get());
+        sentriesBells.put(mob.getId(), bell);
+        TickScheduler.schedule(serverLevel, mob, 0, (level, entity) -> ringSentriesBell(level, entity, bell));
     }
 
     /**
-     * 每tick处理钟声播放
+     * 播放一声钟声，并安排下一声
      */
-    @SubscribeEvent
-    public static void onServerTick(TickEvent.ServerTickEvent event) {
-        if (event.phase != TickEvent.Phase.END) {
+    private static void ringSentriesBell(ServerLevel level, Entity entity, SentriesBell bell) {
+        // 已被新的警报替换
+        if (sentriesBells.get(entity.getId()) != bell) {
             return;
         }
 
-        // 处理钟声计时器
-        sentriesBellCooldown.entrySet().removeIf(entry -> {
-            UUID mobUUID = entry.getKey();
-            int cooldown = entry.getValue();
-
-            if (cooldown > 0) {
-                // 减少冷却
-                sentriesBellCooldown.put(mobUUID, cooldown - 1);
-                return false;
-            }
-
-            // 冷却结束，播放钟声
-            Integer remainingBells = sentriesBellSchedule.get(mobUUID);
-            if (remainingBells == null || remainingBells <= 0) {
-                // 播放完毕，清理
-                sentriesBellSchedule.remove(mobUUID);
-                return true;
-            }
+        if (bell.remaining <= 0) {
+            sentriesBells.remove(entity.getId());
+            return;
+        }
 
-            // 查找实体
-            for (ServerLevel level : event.getServer().getAllLevels()) {
-                net.minecraft.world.entity.Entity entity = level.getEntity(mobUUID);
-                if (entity instanceof Mob mob) {
-                    // 播放钟声
-                    level.playSound(null, mob.blockPosition(),
-                            SoundEvents.BELL_BLOCK,
-                            SoundSource.HOSTILE,
-                            1.0F, 1.0F);
+        long start = LogicaProfiler.begin();
 
-                    // 减少剩余次数
-                    sentriesBellSchedule.put(mobUUID, remainingBells - 1);
+        // 播放钟声
+        level.playSound(null, entity.blockPosition(),
+                SoundEvents.BELL_BLOCK,
+                SoundSource.HOSTILE,
+                1.0F, 1.0F);
 
-                    // 重置冷却
-                    sentriesBellCooldown.put(mobUUID, LogicaConfig.SENTRIES_BELL_INTERVAL.get());
+        // 减少剩余次数
+        bell.remaining--;
 
-                    return false;
-                }
-            }
+        if (bell.remaining > 0) {
+            // 间隔结束后的下一tick播放下一声
+            TickScheduler.schedule(level, entity, LogicaConfig.SENTRIES_BELL_INTERVAL.get() + 1,
+                    (lvl, e) -> ringSentriesBell(lvl, e, bell));
+        } else {
+            sentriesBells.remove(entity.getId());
+        }
+        LogicaProfiler.end(start, LogicaProfiler.Section.SENTRIES_BELL, PerceptionEventHandler.class,
+                AIStrategy.SENTRIES, level.dimension());
+    }
 
-            // 实体不存在，清理
-            sentriesBellSchedule.remove(mobUUID);
-            return true;
-        });
+    /**
+     * 实体离开世界时清理未播放完的钟声和待唤醒记录
+     */
+    @SubscribeEvent
+    public static void onEntityLeaveLevel(EntityLeaveLevelEvent event) {
+        if (!event.getLevel().isClientSide()) {
+            sentriesBells.remove(event.getEntity().getId());
+            AlertWave.forget(event.getEntity());
+        }
     }
 }
@@ -0,0 +1,76 @@
+package com.sorcery.logica.events;
+
+import com.sorcery.logica.Logica;
+import com.sorcery.logica.ai.AIStrategy;
+import com.sorcery.logica.capability.AICapabilityProvider;
+import com.sorcery.logica.util.AISpatialIndex;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.Mob;
+import net.minecraft.world.entity.player.Player;
+import net.minecraftforge.event.entity.EntityEvent;
+import net.minecraftforge.event.entity.EntityJoinLevelEvent;
+import net.minecraftforge.event.entity.EntityLeaveLevelEvent;
+import net.minecraftforge.event.server.ServerStoppedEvent;
+import net.minecraftforge.eventbus.api.EventPriority;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+/**
+ * 空间索引维护
+ *
+ * 功能：
+ * - 策略怪物和玩家加入/离开世界时更新AISpatialIndex
+ * - 实体跨越区段边界时移动分桶
+ */
+@Mod.EventBusSubscriber(modid = Logica.MOD_ID, bus = Mod.EventBusSubscriber.Bus.FORGE)
+public class SpatialIndexHandler {
+
+    /**
+     * 实体加入世界（最低优先级，被取消的加入不会收录）
+     */
+    @SubscribeEvent(priority = EventPriority.LOWEST)
+    public static void onEntityJoinLevel(EntityJoinLevelEvent event) {
+        if (!(event.getLevel() instanceof ServerLevel serverLevel)) {
+            return;
+        }
+
+        Entity entity = event.getEntity();
+        if (entity instanceof Player player) {
+            AISpatialIndex.get(serverLevel).addPlayer(player);
+        } else if (entity instanceof Mob mob) {
+            // 重新加载的策略怪物（新生成的怪物在应用策略时加入）
+            mob.getCapability(AICapabilityProvider.AI_CAPABILITY).ifPresent(cap -> {
+                if (cap.getStrategy() != AIStrategy.NONE) {
+                    AISpatialIndex.get(serverLevel).addMob(mob);
+                }
+            });
+        }
+    }
+
+    /**
+     * 实体离开世界（死亡、卸载、换维度）
+     */
+    @SubscribeEvent
+    public static void onEntityLeaveLevel(EntityLeaveLevelEvent event) {
+        if (event.getLevel() instanceof ServerLevel serverLevel) {
+            AISpatialIndex.get(serverLevel).remove(event.getEntity());
+        }
+    }
+
+    /**
+     * 实体跨越区段边界
+     */
+    @SubscribeEvent
+    public static void onEnteringSection(EntityEvent.EnteringSection event) {
+        Entity entity = event.getEntity();
+        if (entity.level() instanceof ServerLevel serverLevel) {
+            AISpatialIndex.get(serverLevel).move(entity, event.getPackedNewPos());
+        }
+    }
+
+    @SubscribeEvent
+    public static void onServerStopped(ServerStoppedEvent event) {
+        AISpatialIndex.clearAll();
+    }
+}
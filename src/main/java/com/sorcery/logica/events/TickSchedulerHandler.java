@@ -0,0 +1,34 @@
+package com.sorcery.logica.events;
+
+import com.sorcery.logica.Logica;
+import com.sorcery.logica.ai.AlertWave;
+import com.sorcery.logica.util.TickScheduler;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.server.ServerStoppedEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+/**
+ * Tick调度器驱动
+ *
+ * 功能：
+ * - 每个服务端tick结束时传播本tick的哨兵警报（合并为警报波），再执行到期的延迟任务
+ * - 服务器关闭时清空任务和警报波
+ */
+@Mod.EventBusSubscriber(modid = Logica.MOD_ID, bus = Mod.EventBusSubscriber.Bus.FORGE)
+public class TickSchedulerHandler {
+
+    @SubscribeEvent
+    public static void onServerTick(TickEvent.ServerTickEvent event) {
+        if (event.phase == TickEvent.Phase.END) {
+            AlertWave.flush(event.getServer());
+            TickScheduler.tick();
+        }
+    }
+
+    @SubscribeEvent
+    public static void onServerStopped(ServerStoppedEvent event) {
+        TickScheduler.clear();
+        AlertWave.clear();
+    }
+}
@@ -2,9 +2,11 @@ package com.sorcery.logica.goals;
 
 import com.sorcery.logica.Logica;
 import com.sorcery.logica.ai.AIState;
-import com.sorcery.logica.capability.AICapabilityProvider;
+import com.sorcery.logica.ai.AIStateListener;
+import com.sorcery.logica.capability.CachedAICapability;
 import com.sorcery.logica.capability.IAICapability;
 import com.sorcery.logica.config.LogicaConfig;
+import com.sorcery.logica.util.LogicaProfiler;
 import io.github.Sorcery_Dynasties.aperioculos.api.AperiOculosAPI;
 import net.minecraft.world.entity.LivingEntity;
 import net.minecraft.world.entity.Mob;
@@ -23,15 +25,35 @@ import java.util.EnumSet;
  *
  * 优先级：1（高优先级，确保及时响应）
  */
-public class CombatMonitorGoal extends Goal {
+public class CombatMonitorGoal extends Goal implements AIStateListener {
 
     private final Mob mob;
+    private final CachedAICapability aiCapability;
+
+    // 是否处于本Goal负责的状态（由状态监听器维护，canUse不再轮询Capability）
+    private boolean stateActive;
     private int visionCheckCooldown;
 
     public CombatMonitorGoal(Mob mob) {
         this.mob = mob;
+        this.aiCapability = new CachedAICapability(mob);
         this.setFlags(EnumSet.noneOf(Flag.class)); // 不占用任何标志位
         this.visionCheckCooldown = 0;
+
+        // 注册状态监听器（状态转换时更新激活标记）
+        IAICapability aiCap = aiCapability.get();
+        if (aiCap != null) {
+            aiCap.addStateListener(this);
+            this.stateActive = aiCap.getState() == AIState.COMBAT;
+        }
+    }
+
+    /**
+     * 状态转换回调
+     */
+    @Override
+    public void onStateChanged(IAICapability aiCap, AIState oldState, AIState newState) {
+        this.stateActive = newState == AIState.COMBAT;
     }
 
     /**
@@ -39,13 +61,15 @@ public class CombatMonitorGoal extends Goal {
      */
     @Override
     public boolean canUse() {
-        IAICapability aiCap = mob.getCapability(AICapabilityProvider.AI_CAPABILITY).orElse(null);
-        if (aiCap == null) {
-            return false;
-        }
+        long start = LogicaProfiler.begin();
+        boolean result = checkCanUse();
+        LogicaProfiler.end(start, LogicaProfiler.Section.GOAL_CAN_USE, getClass(), mob);
+        return result;
+    }
 
+    private boolean checkCanUse() {
         // 只在COMBAT状态下执行
-        return aiCap.getState() == AIState.COMBAT;
+        return stateActive;
     }
 
     /**
@@ -53,13 +77,8 @@ public class CombatMonitorGoal extends Goal {
      */
     @Override
     public boolean canContinueToUse() {
-        IAICapability aiCap = mob.getCapability(AICapabilityProvider.AI_CAPABILITY).orElse(null);
-        if (aiCap == null) {
-            return false;
-        }
-
         // 只要还在COMBAT状态就继续监控
-        return aiCap.getState() == AIState.COMBAT;
+        return stateActive;
     }
 
     /**
@@ -67,6 +86,12 @@ public class CombatMonitorGoal extends Goal {
      */
     @Override
     public void tick() {
+        long start = LogicaProfiler.begin();
+        tickGoal();
+        LogicaProfiler.end(start, LogicaProfiler.Section.GOAL_TICK, getClass(), mob);
+    }
+
+    private void tickGoal() {
         // 定期检查视线（每10 tick = 0.5秒）
         if (--visionCheckCooldown > 0) {
             return;
@@ -90,9 +115,10 @@ public class CombatMonitorGoal extends Goal {
             switchToTracking(target);
         } else {
             // 仍然可见，更新最后已知位置
-            mob.getCapability(AICapabilityProvider.AI_CAPABILITY).ifPresent(cap -> {
+            IAICapability cap = aiCapability.get();
+            if (cap != null) {
                 cap.setLastKnownTargetPos(target.blockPosition());
-            });
+            }
         }
     }
 
@@ -100,30 +126,33 @@ public class CombatMonitorGoal extends Goal {
      * 切换到TRACKING状态
      */
     private void switchToTracking(LivingEntity target) {
-        mob.getCapability(AICapabilityProvider.AI_CAPABILITY).ifPresent(cap -> {
-            cap.setState(AIState.TRACKING);
+        IAICapability cap = aiCapability.get();
+        if (cap != null) {
+            // 先记录目标位置，TRACKING状态要求已知位置
             cap.setLastKnownTargetPos(target.blockPosition());
             cap.setTrackingTicks(0);
+            cap.setState(AIState.TRACKING);
 
             if (LogicaConfig.shouldLogStateTransitions()) {
                 Logica.LOGGER.debug("Mob {} lost sight of target, switching to TRACKING at {}",
                         mob.getName().getString(), target.blockPosition());
             }
-        });
+        }
     }
 
     /**
      * 切换到SEARCHING状态
      */
     private void switchToSearching(String reason) {
-        mob.getCapability(AICapabilityProvider.AI_CAPABILITY).ifPresent(cap -> {
+        IAICapability cap = aiCapability.get();
+        if (cap != null) {
             cap.setState(AIState.SEARCHING);
 
             if (LogicaConfig.shouldLogStateTransitions()) {
                 Logica.LOGGER.debug("Mob {} switching to SEARCHING (reason: {})",
                         mob.getName().getString(), reason);
             }
-        });
+        }
 
         // 清除目标
         mob.setTarget(null);
@@ -1,11 +1,16 @@
 package com.sorcery.logica.goals;
 
 import com.sorcery.logica.Logica;
+import com.sorcery.logica.ai.AILodScheduler;
+import com.sorcery.logica.ai.AILodTier;
 import com.sorcery.logica.ai.AIState;
+import com.sorcery.logica.ai.AIStateListener;
 import com.sorcery.logica.ai.AIStrategy;
-import com.sorcery.logica.capability.AICapabilityProvider;
+import com.sorcery.logica.capability.CachedAICapability;
 import com.sorcery.logica.capability.IAICapability;
 import com.sorcery.logica.config.LogicaConfig;
+import com.sorcery.logica.util.LogicaProfiler;
+import com.sorcery.logica.util.PathRequestQueue;
 import net.minecraft.core.BlockPos;
 import net.minecraft.world.entity.Mob;
 import net.minecraft.world.entity.ai.goal.Goal;
@@ -24,10 +29,17 @@ import java.util.Random;
  * - 实现卡墙检测和脱困逻辑
  *
  * 优先级：4（低于攻击、追踪、调查）
+ *
+ * 远离玩家时按{@link AILodScheduler}降频；超出降频范围后原地待命，不寻路
  */
-public class GuardGoal extends Goal {
+public class GuardGoal extends Goal implements AIStateListener {
 
     private final Mob mob;
+    private final CachedAICapability aiCapability;
+
+    // 是否处于本Goal负责的状态（由状态监听器维护，canUse不再轮询Capability）
+    private boolean stateActive;
+    private boolean running;
     private final Random random = new Random();
 
     // 家的位置
@@ -44,9 +56,40 @@ public class GuardGoal extends Goal {
     private boolean isReturningToInterruptedPosition;
     private int returnFailureCount; // 返回失败计数器
 
+    // 细节层级
+    private final AILodScheduler lodScheduler = new AILodScheduler();
+    private AILodTier lodTier = AILodTier.FULL;
+
     public GuardGoal(Mob mob) {
         this.mob = mob;
+        this.aiCapability = new CachedAICapability(mob);
         this.setFlags(EnumSet.of(Flag.MOVE));
+
+        // 注册状态监听器（状态转换时更新激活标记）
+        IAICapability aiCap = aiCapability.get();
+        if (aiCap != null) {
+            aiCap.addStateListener(this);
+            this.stateActive = aiCap.getState() == AIState.IDLE;
+        }
+    }
+
+    /**
+     * 状态转换回调
+     * 执行中被打断时记录离开位置（只在首次被吸引离开时记录，避免返回途中再次被打断时覆盖原始离开点）
+     */
+    @Override
+    public void onStateChanged(IAICapability aiCap, AIState oldState, AIState newState) {
+        this.stateActive = newState == AIState.IDLE;
+
+        if (running && oldState == AIState.IDLE && aiCap.getInterruptedPatrolPosition() == null) {
+            BlockPos currentPos = mob.blockPosition();
+            aiCap.setInterruptedPatrolPosition(currentPos);
+
+            if (LogicaConfig.shouldLogGoalLifecycle()) {
+                Logica.LOGGER.info("Mob {} interrupted from guard at position: {} (state: {})",
+                        mob.getName().getString(), currentPos, newState);
+            }
+        }
     }
 
     /**
@@ -54,17 +97,24 @@ public class GuardGoal extends Goal {
      */
     @Override
     public boolean canUse() {
-        IAICapability aiCap = mob.getCapability(AICapabilityProvider.AI_CAPABILITY).orElse(null);
-        if (aiCap == null) {
+        long start = LogicaProfiler.begin();
+        boolean result = checkCanUse();
+        LogicaProfiler.end(start, LogicaProfiler.Section.GOAL_CAN_USE, getClass(), mob);
+        return result;
+    }
+
+    private boolean checkCanUse() {
+        // 只在GUARD策略且IDLE状态下执行
+        if (!stateActive) {
             return false;
         }
 
-        // 只在GUARD策略且IDLE状态下执行
-        if (aiCap.getStrategy() != AIStrategy.GUARD) {
+        IAICapability aiCap = aiCapability.get();
+        if (aiCap == null) {
             return false;
         }
 
-        if (aiCap.getState() != AIState.IDLE) {
+        if (aiCap.getStrategy() != AIStrategy.GUARD) {
             return false;
         }
 
@@ -83,13 +133,13 @@ public class GuardGoal extends Goal {
      */
     @Override
     public boolean canContinueToUse() {
-        IAICapability aiCap = mob.getCapability(AICapabilityProvider.AI_CAPABILITY).orElse(null);
+        IAICapability aiCap = aiCapability.get();
         if (aiCap == null) {
             return false;
         }
 
         // 如果状态改变，停止
-        if (aiCap.getState() != AIState.IDLE) {
+        if (!stateActive) {
             return false;
         }
 
@@ -106,11 +156,13 @@ public class GuardGoal extends Goal {
      */
     @Override
     public void start() {
+        this.running = true;
         this.lastPosition = mob.position();
         this.stuckTicks = 0;
         this.wanderCooldown = 0;
         this.isReturningToInterruptedPosition = false;
         this.returnFailureCount = 0;
+        this.lodTier = AILodTier.FULL;
 
         if (LogicaConfig.shouldLogGoalLifecycle()) {
             Logica.LOGGER.info("🔥 GuardGoal.start() CALLED for {} at home position {}",
@@ -118,7 +170,8 @@ public class GuardGoal extends Goal {
         }
 
         // 🔥 优先返回离开点（如果存在）
-        mob.getCapability(AICapabilityProvider.AI_CAPABILITY).ifPresent(cap -> {
+        IAICapability cap = aiCapability.get();
+        if (cap != null) {
             BlockPos interruptedPos = cap.getInterruptedPatrolPosition();
             if (interruptedPos != null) {
                 if (LogicaConfig.shouldLogGoalLifecycle()) {
@@ -126,21 +179,21 @@ public class GuardGoal extends Goal {
                             mob.getName().getString(), interruptedPos);
                 }
 
-                net.minecraft.world.level.pathfinder.Path path = mob.getNavigation().createPath(interruptedPos, 1);
-                if (path != null) {
-                    mob.getNavigation().moveTo(path, LogicaConfig.GUARD_SPEED_MULTIPLIER.get());
-                    // 🔥 标记正在返回，但不清除离开点（等到达后再清除）
-                    this.isReturningToInterruptedPosition = true;
-                } else {
-                    // 🔥 无法创建路径，直接放弃返回
-                    if (LogicaConfig.shouldLogGoalLifecycle()) {
-                        Logica.LOGGER.warn("Mob {} cannot create path to interrupted position {}, giving up",
-                                mob.getName().getString(), interruptedPos);
+                // 🔥 标记正在返回，但不清除离开点（等到达后再清除）
+                this.isReturningToInterruptedPosition = true;
+                PathRequestQueue.navigateTo(mob, interruptedPos, 1, LogicaConfig.GUARD_SPEED_MULTIPLIER.get(), path -> {
+                    if (path == null) {
+                        // 🔥 无法创建路径，直接放弃返回
+                        if (LogicaConfig.shouldLogGoalLifecycle()) {
+                            Logica.LOGGER.warn("Mob {} cannot create path to interrupted position {}, giving up",
+                                    mob.getName().getString(), interruptedPos);
+                        }
+                        cap.setInterruptedPatrolPosition(null);
+                        isReturningToInterruptedPosition = false;
                     }
-                    cap.setInterruptedPatrolPosition(null);
-                }
+                });
             }
-        });
+        }
     }
 
     /**
@@ -148,23 +201,11 @@ public class GuardGoal extends Goal {
      */
     @Override
     public void stop() {
+        this.running = false;
+        PathRequestQueue.cancel(mob);
         mob.getNavigation().stop();
         this.lastPosition = null;
-
-        // 🔥 记录离开守卫时的位置（只在首次被吸引离开时记录）
-        mob.getCapability(AICapabilityProvider.AI_CAPABILITY).ifPresent(cap -> {
-            // 只在状态不是IDLE且没有已存在的离开点时才记录
-            // 这样可以避免返回途中再次被打断时覆盖原始离开点
-            if (cap.getState() != AIState.IDLE && cap.getInterruptedPatrolPosition() == null) {
-                BlockPos currentPos = mob.blockPosition();
-                cap.setInterruptedPatrolPosition(currentPos);
-
-                if (LogicaConfig.shouldLogGoalLifecycle()) {
-                    Logica.LOGGER.info("Mob {} interrupted from guard at position: {} (state: {})",
-                            mob.getName().getString(), currentPos, cap.getState());
-                }
-            }
-        });
+        // 离开守卫的位置已在状态转换时记录（onStateChanged）
     }
 
     /**
@@ -172,67 +213,82 @@ public class GuardGoal extends Goal {
      */
     @Override
     public void tick() {
+        long start = LogicaProfiler.begin();
+        tickGoal();
+        LogicaProfiler.end(start, LogicaProfiler.Section.GOAL_TICK, getClass(), mob);
+    }
+
+    private void tickGoal() {
         if (homePosition == null) {
             return;
         }
 
+        IAICapability aiCap = aiCapability.get();
+        if (aiCap == null) {
+            return;
+        }
+
+        AILodTier tier = lodScheduler.getTier(mob, aiCap);
+        int step = AILodScheduler.getTickStep(mob, tier);
+        if (step == 0) {
+            return;
+        }
+
+        // 守卫没有路线可推进，模拟模式下原地待命（返回中断位置仍需真实导航）
+        if (tier == AILodTier.SIMULATED && !isReturningToInterruptedPosition) {
+            if (lodTier != AILodTier.SIMULATED) {
+                lodTier = AILodTier.SIMULATED;
+                PathRequestQueue.cancel(mob);
+                mob.getNavigation().stop();
+            }
+            return;
+        }
+        if (lodTier == AILodTier.SIMULATED) {
+            // 从模拟模式恢复：重新开始卡墙检测并尽快选择游荡目标
+            lastPosition = mob.position();
+            stuckTicks = 0;
+            wanderCooldown = 0;
+        }
+        lodTier = tier;
+
         // 🔥 处理返回中断位置
         if (isReturningToInterruptedPosition) {
-            mob.getCapability(AICapabilityProvider.AI_CAPABILITY).ifPresent(cap -> {
-                BlockPos interruptedPos = cap.getInterruptedPatrolPosition();
-                if (interruptedPos != null) {
-                    Vec3 mobPos = mob.position();
-                    Vec3 targetPos = Vec3.atCenterOf(interruptedPos);
-                    double distance = mobPos.distanceTo(targetPos);
-
-                    // 到达离开点（距离<3格）
-                    if (distance < 3.0) {
-                        if (LogicaConfig.shouldLogNavigation()) {
-                            Logica.LOGGER.info("Mob {} reached interrupted position {}, clearing and resuming guard",
-                                    mob.getName().getString(), interruptedPos);
-                        }
+            BlockPos interruptedPos = aiCap.getInterruptedPatrolPosition();
+            if (interruptedPos != null) {
+                Vec3 mobPos = mob.position();
+                Vec3 targetPos = Vec3.atCenterOf(interruptedPos);
+                double distance = mobPos.distanceTo(targetPos);
+
+                // 到达离开点（距离<3格）
+                if (distance < 3.0) {
+                    if (LogicaConfig.shouldLogNavigation()) {
+                        Logica.LOGGER.info("Mob {} reached interrupted position {}, clearing and resuming guard",
+                                mob.getName().getString(), interruptedPos);
+                    }
 
-                        // 清除离开点
-                        cap.setInterruptedPatrolPosition(null);
-                        isReturningToInterruptedPosition = false;
-                        returnFailureCount = 0;
+                    // 清除离开点
+                    aiCap.setInterruptedPatrolPosition(null);
+                    isReturningToInterruptedPosition = false;
+                    returnFailureCount = 0;
 
-                        // 继续正常守卫（不return，让下面的逻辑继续执行）
-                    } else {
-                        // 继续前往（如果导航完成，重新设置）
-                        if (mob.getNavigation().isDone()) {
-                            net.minecraft.world.level.pathfinder.Path path = mob.getNavigation().createPath(interruptedPos, 1);
+                    // 继续正常守卫（不return，让下面的逻辑继续执行）
+                } else {
+                    // 继续前往（如果导航完成，重新设置）
+                    if (PathRequestQueue.isNavigationIdle(mob)) {
+                        PathRequestQueue.navigateTo(mob, interruptedPos, 1, LogicaConfig.GUARD_SPEED_MULTIPLIER.get(), path -> {
                             if (path != null) {
-                                mob.getNavigation().moveTo(path, LogicaConfig.GUARD_SPEED_MULTIPLIER.get());
                                 returnFailureCount = 0; // 成功创建路径，重置计数器
                             } else {
-                                // 🔥 无法创建路径，增加失败计数
-                                returnFailureCount++;
-                                if (LogicaConfig.shouldLogNavigation()) {
-                                    Logica.LOGGER.warn("Mob {} failed to create path to interrupted position {} (attempt {}/10)",
-                                            mob.getName().getString(), interruptedPos, returnFailureCount);
-                                }
-
-                                // 🔥 失败10次后放弃返回
-                                if (returnFailureCount >= 10) {
-                                    if (LogicaConfig.shouldLogNavigation()) {
-                                        Logica.LOGGER.warn("Mob {} giving up returning to interrupted position {} after 10 failures",
-                                                mob.getName().getString(), interruptedPos);
-                                    }
-                                    cap.setInterruptedPatrolPosition(null);
-                                    isReturningToInterruptedPosition = false;
-                                    returnFailureCount = 0;
-                                    // 继续正常守卫（不return）
-                                }
+                                handleReturnNavigationFailure(aiCap, interruptedPos);
                             }
-                        }
+                        });
                     }
-                } else {
-                    // 离开点不存在了，取消返回状态
-                    isReturningToInterruptedPosition = false;
-                    returnFailureCount = 0;
                 }
-            });
+            } else {
+                // 离开点不存在了，取消返回状态
+                isReturningToInterruptedPosition = false;
+                returnFailureCount = 0;
+            }
 
             // 🔥 如果没有放弃，继续返回模式
             if (isReturningToInterruptedPosition) {
@@ -248,10 +304,9 @@ public class GuardGoal extends Goal {
 
         // 检查是否距离家太远
         if (distanceToHome > guardRadius * 2) {
-            // 返回家
-            net.minecraft.world.level.pathfinder.Path path = mob.getNavigation().createPath(homePosition, 1);
-            if (path != null) {
-                mob.getNavigation().moveTo(path, LogicaConfig.GUARD_SPEED_MULTIPLIER.get());
+            // 返回家（沿当前路径走完后再重新寻路）
+            if (PathRequestQueue.isNavigationIdle(mob)) {
+                PathRequestQueue.navigateTo(mob, homePosition, 1, LogicaConfig.GUARD_SPEED_MULTIPLIER.get(), null);
             }
 
             if (LogicaConfig.shouldLogNavigation()) {
@@ -263,10 +318,11 @@ public class GuardGoal extends Goal {
         }
 
         // 卡墙检测
-        detectAndResolveStuck(currentPos);
+        detectAndResolveStuck(currentPos, step);
 
         // 游荡逻辑
-        if (--wanderCooldown <= 0) {
+        wanderCooldown -= step;
+        if (wanderCooldown <= 0) {
             wanderCooldown = 100 + random.nextInt(100); // 5-10秒
 
             // 在家附近随机游荡
@@ -279,25 +335,45 @@ public class GuardGoal extends Goal {
                 int targetZ = (int) (homePosition.getZ() + Math.sin(angle) * distance);
                 BlockPos targetPos = new BlockPos(targetX, homePosition.getY(), targetZ);
 
-                net.minecraft.world.level.pathfinder.Path path = mob.getNavigation().createPath(targetPos, 1);
-                if (path != null) {
-                    mob.getNavigation().moveTo(path, LogicaConfig.GUARD_SPEED_MULTIPLIER.get());
-                }
+                PathRequestQueue.navigateTo(mob, targetPos, 1, LogicaConfig.GUARD_SPEED_MULTIPLIER.get(), null);
             } else {
                 // 离家较远，靠近家
-                net.minecraft.world.level.pathfinder.Path path = mob.getNavigation().createPath(homePosition, 1);
-                if (path != null) {
-                    mob.getNavigation().moveTo(path, LogicaConfig.GUARD_SPEED_MULTIPLIER.get());
-                }
+                PathRequestQueue.navigateTo(mob, homePosition, 1, LogicaConfig.GUARD_SPEED_MULTIPLIER.get(), null);
             }
         }
     }
 
+    /**
+     * 处理返回中断位置的寻路失败（失败10次后放弃返回）
+     */
+    private void handleReturnNavigationFailure(IAICapability aiCap, BlockPos interruptedPos) {
+        // 🔥 无法创建路径，增加失败计数
+        returnFailureCount++;
+        if (LogicaConfig.shouldLogNavigation()) {
+            Logica.LOGGER.warn("Mob {} failed to create path to interrupted position {} (attempt {}/10)",
+                    mob.getName().getString(), interruptedPos, returnFailureCount);
+        }
+
+        // 🔥 失败10次后放弃返回
+        if (returnFailureCount >= 10) {
+            if (LogicaConfig.shouldLogNavigation()) {
+                Logica.LOGGER.warn("Mob {} giving up returning to interrupted position {} after 10 failures",
+                        mob.getName().getString(), interruptedPos);
+            }
+            aiCap.setInterruptedPatrolPosition(null);
+            isReturningToInterruptedPosition = false;
+            returnFailureCount = 0;
+        }
+    }
+
     /**
      * 检测并解决卡墙问题
+     *
+     * @param step 距上次检测经过的tick数（降频时大于1）
      */
-    private void detectAndResolveStuck(Vec3 currentPos) {
-        if (lastPosition == null) {
+    private void detectAndResolveStuck(Vec3 currentPos, int step) {
+        // 等待寻路结果时原地不动不算卡住
+        if (lastPosition == null || PathRequestQueue.hasPending(mob)) {
             lastPosition = currentPos;
             return;
         }
@@ -305,9 +381,9 @@ public class GuardGoal extends Goal {
         // 检查是否移动了
         double movementDistance = currentPos.distanceTo(lastPosition);
 
-        if (movementDistance < 0.1) {
+        if (movementDistance < 0.1 * step) {
             // 几乎没有移动，可能卡住了
-            stuckTicks++;
+            stuckTicks += step;
 
             int threshold = LogicaConfig.STUCK_DETECTION_THRESHOLD.get();
 
@@ -343,10 +419,7 @@ public class GuardGoal extends Goal {
         Vec3 targetPos = currentPos.add(backwardVec);
         BlockPos targetBlockPos = new BlockPos((int) targetPos.x, (int) targetPos.y, (int) targetPos.z);
 
-        net.minecraft.world.level.pathfinder.Path path = mob.getNavigation().createPath(targetBlockPos, 1);
-        if (path != null) {
-            mob.getNavigation().moveTo(path, LogicaConfig.GUARD_SPEED_MULTIPLIER.get());
-        }
+        PathRequestQueue.navigateTo(mob, targetBlockPos, 1, LogicaConfig.GUARD_SPEED_MULTIPLIER.get(), null);
 
         // 随机转向
         double randomAngle = random.nextDouble() * Math.PI * 2;
@@ -2,9 +2,12 @@ package com.sorcery.logica.goals;
 
 import com.sorcery.logica.Logica;
 import com.sorcery.logica.ai.AIState;
-import com.sorcery.logica.capability.AICapabilityProvider;
+import com.sorcery.logica.ai.AIStateListener;
+import com.sorcery.logica.capability.CachedAICapability;
 import com.sorcery.logica.capability.IAICapability;
 import com.sorcery.logica.config.LogicaConfig;
+import com.sorcery.logica.util.LogicaProfiler;
+import com.sorcery.logica.util.PathRequestQueue;
 import net.minecraft.core.BlockPos;
 import net.minecraft.world.entity.Mob;
 import net.minecraft.world.entity.ai.goal.Goal;
@@ -24,9 +27,13 @@ import java.util.Random;
  *
  * 优先级：3（仅次于逃跑、攻击和追踪）
  */
-public class InvestigateGoal extends Goal {
+public class InvestigateGoal extends Goal implements AIStateListener {
 
     private final Mob mob;
+    private final CachedAICapability aiCapability;
+
+    // 是否处于本Goal负责的状态（由状态监听器维护，canUse不再轮询Capability）
+    private boolean stateActive;
     private final Random random = new Random();
 
     // 调查状态
@@ -44,7 +51,23 @@ public class InvestigateGoal extends Goal {
 
     public InvestigateGoal(Mob mob) {
         this.mob = mob;
+        this.aiCapability = new CachedAICapability(mob);
         this.setFlags(EnumSet.of(Flag.MOVE, Flag.LOOK));
+
+        // 注册状态监听器（状态转换时更新激活标记）
+        IAICapability aiCap = aiCapability.get();
+        if (aiCap != null) {
+            aiCap.addStateListener(this);
+            this.stateActive = aiCap.getState() == AIState.ALERT;
+        }
+    }
+
+    /**
+     * 状态转换回调
+     */
+    @Override
+    public void onStateChanged(IAICapability aiCap, AIState oldState, AIState newState) {
+        this.stateActive = newState == AIState.ALERT;
     }
 
     /**
@@ -52,7 +75,19 @@ public class InvestigateGoal extends Goal {
      */
     @Override
     public boolean canUse() {
-        IAICapability aiCap = mob.getCapability(AICapabilityProvider.AI_CAPABILITY).orElse(null);
+        long start = LogicaProfiler.begin();
+        boolean result = checkCanUse();
+        LogicaProfiler.end(start, LogicaProfiler.Section.GOAL_CAN_USE, getClass(), mob);
+        return result;
+    }
+
+    private boolean checkCanUse() {
+        // 只在ALERT状态下执行
+        if (!stateActive) {
+            return false;
+        }
+
+        IAICapability aiCap = aiCapability.get();
         if (aiCap == null) {
             if (LogicaConfig.shouldLogGoalLifecycle()) {
                 Logica.LOGGER.warn("🔥 InvestigateGoal.canUse(): Mob {} has NO AI Capability!",
@@ -69,11 +104,6 @@ public class InvestigateGoal extends Goal {
                     mob.getName().getString(), currentState, targetPos);
         }
 
-        // 只在ALERT状态下执行
-        if (currentState != AIState.ALERT) {
-            return false;
-        }
-
         // 必须有调查目标
         if (targetPos == null) {
             // 没有调查目标，直接返回IDLE
@@ -104,13 +134,8 @@ public class InvestigateGoal extends Goal {
      */
     @Override
     public boolean canContinueToUse() {
-        IAICapability aiCap = mob.getCapability(AICapabilityProvider.AI_CAPABILITY).orElse(null);
-        if (aiCap == null) {
-            return false;
-        }
-
         // 如果状态改变（例如发现目标进入COMBAT），停止调查
-        if (aiCap.getState() != AIState.ALERT) {
+        if (!stateActive) {
             return false;
         }
 
@@ -131,25 +156,27 @@ public class InvestigateGoal extends Goal {
             Logica.LOGGER.info("🔥 InvestigateGoal.start() CALLED for {}", mob.getName().getString());
         }
 
-        // 前往调查位置
-        net.minecraft.world.level.pathfinder.Path path = mob.getNavigation().createPath(investigationTarget, 1);
-        boolean moveToSuccess = false;
+        // 前往调查位置（寻路结果在之后的tick返回）
+        BlockPos target = investigationTarget;
+        PathRequestQueue.request(mob, () -> mob.getNavigation().createPath(target, 1), path -> {
+            boolean moveToSuccess = false;
 
-        if (path != null) {
-            // 直接传入速度倍率，让导航系统自动处理
-            double speedMultiplier = LogicaConfig.INVESTIGATION_SPEED_MULTIPLIER.get();
-            moveToSuccess = mob.getNavigation().moveTo(path, speedMultiplier);
+            if (path != null) {
+                // 直接传入速度倍率，让导航系统自动处理
+                double speedMultiplier = LogicaConfig.INVESTIGATION_SPEED_MULTIPLIER.get();
+                moveToSuccess = mob.getNavigation().moveTo(path, speedMultiplier);
 
-            if (LogicaConfig.shouldLogNavigation()) {
-                Logica.LOGGER.info("🔥 moveTo() returned: {} (speed multiplier: {})",
-                        moveToSuccess, speedMultiplier);
+                if (LogicaConfig.shouldLogNavigation()) {
+                    Logica.LOGGER.info("🔥 moveTo() returned: {} (speed multiplier: {})",
+                            moveToSuccess, speedMultiplier);
+                }
             }
-        }
 
-        if (LogicaConfig.shouldLogNavigation()) {
-            Logica.LOGGER.info("Mob {} navigating to investigation point {} (path: {}, moveTo success: {})",
-                    mob.getName().getString(), investigationTarget, path != null ? "created" : "null", moveToSuccess);
-        }
+            if (LogicaConfig.shouldLogNavigation()) {
+                Logica.LOGGER.info("Mob {} navigating to investigation point {} (path: {}, moveTo success: {})",
+                        mob.getName().getString(), target, path != null ? "created" : "null", moveToSuccess);
+            }
+        });
     }
 
     /**
@@ -162,7 +189,7 @@ public class InvestigateGoal extends Goal {
                     hasArrived, lookAroundTimer);
         }
 
-        IAICapability aiCap = mob.getCapability(AICapabilityProvider.AI_CAPABILITY).orElse(null);
+        IAICapability aiCap = aiCapability.get();
         if (aiCap == null) {
             return;
         }
@@ -184,6 +211,7 @@ public class InvestigateGoal extends Goal {
         }
 
         // 停止导航
+        PathRequestQueue.cancel(mob);
         mob.getNavigation().stop();
         this.investigationTarget = null;
         this.hasArrived = false;
@@ -194,6 +222,12 @@ public class InvestigateGoal extends Goal {
      */
     @Override
     public void tick() {
+        long start = LogicaProfiler.begin();
+        tickGoal();
+        LogicaProfiler.end(start, LogicaProfiler.Section.GOAL_TICK, getClass(), mob);
+    }
+
+    private void tickGoal() {
         // DEBUG: 每20 tick记录一次
         if (LogicaConfig.shouldLogGoalLifecycle() && ++tickLogCounter >= 20) {
             tickLogCounter = 0;
@@ -216,7 +250,7 @@ public class InvestigateGoal extends Goal {
         }
 
         // 🔥 FIX: 检查目标是否已变化（听到新声音）
-        IAICapability aiCap = mob.getCapability(AICapabilityProvider.AI_CAPABILITY).orElse(null);
+        IAICapability aiCap = aiCapability.get();
         if (aiCap != null) {
             BlockPos currentTarget = aiCap.getLastKnownTargetPos();
             if (currentTarget != null && !currentTarget.equals(investigationTarget)) {
@@ -231,11 +265,9 @@ public class InvestigateGoal extends Goal {
                 lookAroundCooldown = 0;
                 navigationFailedTicks = 0; // 重置失败计数
 
-                // 立即前往新目标
-                net.minecraft.world.level.pathfinder.Path path = mob.getNavigation().createPath(investigationTarget, 1);
-                if (path != null) {
-                    mob.getNavigation().moveTo(path, LogicaConfig.INVESTIGATION_SPEED_MULTIPLIER.get());
-                }
+                // 立即前往新目标（替换尚未完成的旧寻路请求）
+                PathRequestQueue.navigateTo(mob, investigationTarget, 1,
+                        LogicaConfig.INVESTIGATION_SPEED_MULTIPLIER.get(), null);
             }
         }
 
@@ -258,37 +290,14 @@ public class InvestigateGoal extends Goal {
                             mob.getName().getString(), distance, LogicaConfig.INVESTIGATION_DURATION_TICKS.get());
                 }
             } else {
-                // 继续前往（处理可能的路径丢失）
-                if (mob.getNavigation().isDone()) {
-                    net.minecraft.world.level.pathfinder.Path path = mob.getNavigation().createPath(investigationTarget, 1);
-                    boolean moveToSuccess = false;
-                    if (path != null) {
-                        moveToSuccess = mob.getNavigation().moveTo(path, LogicaConfig.INVESTIGATION_SPEED_MULTIPLIER.get());
-                    }
-
-                    if (!moveToSuccess) {
-                        // 导航失败，增加计数
-                        navigationFailedTicks++;
-
-                        if (navigationFailedTicks >= MAX_NAVIGATION_FAILED_TICKS) {
-                            // 超时，强制视为到达并开始环顾
-                            if (LogicaConfig.shouldLogNavigation()) {
-                                Logica.LOGGER.warn("🔥 InvestigateGoal navigation failed for {} ticks, forcing arrival at current position",
-                                        navigationFailedTicks);
-                            }
-                            hasArrived = true;
-                            lookAroundCooldown = 5;
-                            mob.getNavigation().stop();
-                        } else {
-                            if (LogicaConfig.shouldLogNavigation()) {
-                                Logica.LOGGER.warn("🔥 InvestigateGoal re-navigation failed! path: {}, moveTo: {}, failedTicks: {}/{}",
-                                        path != null, moveToSuccess, navigationFailedTicks, MAX_NAVIGATION_FAILED_TICKS);
-                            }
-                        }
-                    } else {
-                        // 导航成功，重置失败计数
-                        navigationFailedTicks = 0;
-                    }
+                // 继续前往（处理可能的路径丢失，等待寻路结果时不重复请求）
+                if (PathRequestQueue.isNavigationIdle(mob)) {
+                    BlockPos target = investigationTarget;
+                    PathRequestQueue.request(mob, () -> mob.getNavigation().createPath(target, 1), path -> {
+                        boolean moveToSuccess = path != null
+                                && mob.getNavigation().moveTo(path, LogicaConfig.INVESTIGATION_SPEED_MULTIPLIER.get());
+                        handleRenavigationResult(path != null, moveToSuccess);
+                    });
                 }
             }
         } else {
@@ -329,6 +338,36 @@ public class InvestigateGoal extends Goal {
         // 如果发现目标，PerceptionEventHandler会切换状态到COMBAT，这个Goal会自动停止
     }
 
+    /**
+     * 处理重新寻路的结果（失败次数过多时强制视为到达）
+     */
+    private void handleRenavigationResult(boolean pathCreated, boolean moveToSuccess) {
+        if (moveToSuccess) {
+            // 导航成功，重置失败计数
+            navigationFailedTicks = 0;
+            return;
+        }
+
+        // 导航失败，增加计数
+        navigationFailedTicks++;
+
+        if (navigationFailedTicks >= MAX_NAVIGATION_FAILED_TICKS) {
+            // 超时，强制视为到达并开始环顾
+            if (LogicaConfig.shouldLogNavigation()) {
+                Logica.LOGGER.warn("🔥 InvestigateGoal navigation failed for {} ticks, forcing arrival at current position",
+                        navigationFailedTicks);
+            }
+            hasArrived = true;
+            lookAroundCooldown = 5;
+            mob.getNavigation().stop();
+        } else {
+            if (LogicaConfig.shouldLogNavigation()) {
+                Logica.LOGGER.warn("🔥 InvestigateGoal re-navigation failed! path: {}, moveTo: {}, failedTicks: {}/{}",
+                        pathCreated, moveToSuccess, navigationFailedTicks, MAX_NAVIGATION_FAILED_TICKS);
+            }
+        }
+    }
+
     /**
      * 是否需要重复检查canUse
      */
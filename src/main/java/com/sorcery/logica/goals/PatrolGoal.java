@@ -1,12 +1,22 @@
 package com.sorcery.logica.goals;
 
 import com.sorcery.logica.Logica;
+import com.sorcery.logica.ai.AILodScheduler;
+import com.sorcery.logica.ai.AILodTier;
 import com.sorcery.logica.ai.AIState;
+import com.sorcery.logica.ai.AIStateListener;
 import com.sorcery.logica.ai.AIStrategy;
+import com.sorcery.logica.ai.Squad;
+import com.sorcery.logica.ai.SquadRegistry;
 import com.sorcery.logica.capability.AICapabilityProvider;
+import com.sorcery.logica.capability.CachedAICapability;
 import com.sorcery.logica.capability.IAICapability;
 import com.sorcery.logica.config.LogicaConfig;
+import com.sorcery.logica.util.LogicaProfiler;
+import com.sorcery.logica.util.PathRequestQueue;
+import com.sorcery.logica.util.RouteRegistry;
 import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.entity.Mob;
 import net.minecraft.world.entity.ai.goal.Goal;
 import net.minecraft.world.phys.Vec3;
@@ -27,8 +37,12 @@ import java.util.Random;
  * - 速度1.2x，确保完整覆盖所有路径点
  *
  * 优先级：3（低于攻击、追踪、调查）
+ *
+ * 远离玩家时按{@link AILodScheduler}降频；超出降频范围后只推进路线进度，不寻路
+ *
+ * 同一标记方块的怪物组成{@link Squad}：每组只有队长寻路，跟随者按队形本地转向
  */
-public class PatrolGoal extends Goal {
+public class PatrolGoal extends Goal implements AIStateListener {
 
     // ==================== 常量定义 ====================
 
@@ -56,13 +70,36 @@ public class PatrolGoal extends Goal {
     /** 快速转向速度（正常为10.0F） */
     private static final float LOOK_SPEED = 10.0F;
 
+    /** 模拟模式下估算的移动速度（格/tick） */
+    private static final double SIMULATED_BLOCKS_PER_TICK = 0.2;
+
+    /** 跟随者离队形槽位超过该距离时寻路归队（格） */
+    private static final double FOLLOW_PATHFIND_DISTANCE = 16.0;
+
+    /** 跟随者超过该距离时加速追赶，寻路归队到该距离内后改为本地转向（格） */
+    private static final double FOLLOW_CATCH_UP_DISTANCE = 4.0;
+
+    /** 跟随者到达队形槽位的距离（格） */
+    private static final double FOLLOW_ARRIVAL_DISTANCE = 1.0;
+
+    /** 追赶时的速度倍率（相对巡逻速度） */
+    private static final double FOLLOW_CATCH_UP_SPEED = 1.25;
+
+    /** 跟随者持续撞墙多少tick后改为寻路 */
+    private static final int FOLLOW_STUCK_TICKS = 20;
+
     // ==================== 实例变量 ====================
 
     private final Mob mob;
+    private final CachedAICapability aiCapability;
+
+    // 是否处于本Goal负责的状态（由状态监听器维护，canUse不再轮询Capability）
+    private boolean stateActive;
+    private boolean running;
     private final Random random = new Random();
 
     // 路径点系统
-    private List<BlockPos> waypoints;           // 按距离标记方块排序的路径点
+    private List<BlockPos> waypoints;           // 路线的巡逻顺序（闭合环路）
     private int currentWaypointIndex;
 
     // 中间点搜索路径（保留巡逻的随机性）
@@ -78,10 +115,51 @@ public class PatrolGoal extends Goal {
     private boolean isReturningToInterruptedPosition;
     private int returnFailureCount; // 返回失败计数器
 
+    // 路线正在后台解析：在标记方块处待命
+    private boolean awaitingRoute;
+    private BlockPos holdPosition;
+
+    // 细节层级
+    private final AILodScheduler lodScheduler = new AILodScheduler();
+    private AILodTier lodTier = AILodTier.FULL;
+    private int simulatedTicksToNextWaypoint; // 模拟模式下到达下一路径点的剩余tick
+
+    // 小队（跟随者只跟随队长，不自行寻路）
+    private Squad squad;
+    private boolean following;
+    private int stuckTicks;
+
     public PatrolGoal(Mob mob) {
         this.mob = mob;
+        this.aiCapability = new CachedAICapability(mob);
         this.setFlags(EnumSet.of(Flag.MOVE, Flag.LOOK));
         this.searchPath = new ArrayList<>();
+
+        // 注册状态监听器（状态转换时更新激活标记）
+        IAICapability aiCap = aiCapability.get();
+        if (aiCap != null) {
+            aiCap.addStateListener(this);
+            this.stateActive = aiCap.getState() == AIState.IDLE;
+        }
+    }
+
+    /**
+     * 状态转换回调
+     * 执行中被打断时记录离开位置（只在首次被吸引离开时记录，避免返回途中再次被打断时覆盖原始离开点）
+     */
+    @Override
+    public void onStateChanged(IAICapability aiCap, AIState oldState, AIState newState) {
+        this.stateActive = newState == AIState.IDLE;
+
+        if (running && oldState == AIState.IDLE && aiCap.getInterruptedPatrolPosition() == null) {
+            BlockPos currentPos = mob.blockPosition();
+            aiCap.setInterruptedPatrolPosition(currentPos);
+
+            if (LogicaConfig.shouldLogGoalLifecycle()) {
+                Logica.LOGGER.info("Mob {} interrupted from patrol at position: {} (state: {})",
+                        mob.getName().getString(), currentPos, newState);
+            }
+        }
     }
 
     /**
@@ -89,23 +167,43 @@ public class PatrolGoal extends Goal {
      */
     @Override
     public boolean canUse() {
-        IAICapability aiCap = mob.getCapability(AICapabilityProvider.AI_CAPABILITY).orElse(null);
+        long start = LogicaProfiler.begin();
+        boolean result = checkCanUse();
+        LogicaProfiler.end(start, LogicaProfiler.Section.GOAL_CAN_USE, getClass(), mob);
+        return result;
+    }
+
+    private boolean checkCanUse() {
+        // 只在PATROL策略且IDLE状态下执行
+        if (!stateActive) {
+            return false;
+        }
+
+        IAICapability aiCap = aiCapability.get();
         if (aiCap == null) {
             return false;
         }
 
-        // 只在PATROL策略且IDLE状态下执行
         if (aiCap.getStrategy() != AIStrategy.PATROL) {
             return false;
         }
 
-        if (aiCap.getState() != AIState.IDLE) {
-            return false;
+        // 路线被修改过（路径点增删）时刷新
+        if (mob.level() instanceof ServerLevel serverLevel) {
+            RouteRegistry.refreshIfChanged(serverLevel, aiCap);
         }
 
         // 必须有路径点
         List<BlockPos> waypointsList = aiCap.getWaypoints();
         if (waypointsList == null || waypointsList.isEmpty()) {
+            // 路线还在后台解析：像守卫一样在标记方块处待命，路线到达后重新开始
+            BlockPos markerPos = aiCap.getStrategyMarkerPos();
+            if (markerPos != null && RouteRegistry.isResolving(aiCap.getRouteKey())) {
+                this.awaitingRoute = true;
+                this.holdPosition = markerPos;
+                return true;
+            }
+
             if (LogicaConfig.shouldLogStrategyApplication()) {
                 Logica.LOGGER.warn("Mob {} has PATROL strategy but no waypoints!",
                         mob.getName().getString());
@@ -113,34 +211,39 @@ public class PatrolGoal extends Goal {
             return false;
         }
 
-        // 🔥 按距离标记方块排序路径点（从近到远）
-        BlockPos markerPos = aiCap.getStrategyMarkerPos();
-        if (markerPos != null && (this.waypoints == null || !this.waypoints.equals(waypointsList))) {
-            // 只在首次或路径点列表改变时排序
-            List<BlockPos> sortedWaypoints = new ArrayList<>(waypointsList);
-            sortedWaypoints.sort((pos1, pos2) -> {
-                double dist1 = markerPos.distSqr(pos1);
-                double dist2 = markerPos.distSqr(pos2);
-                return Double.compare(dist1, dist2);
-            });
+        this.awaitingRoute = false;
 
-            this.waypoints = sortedWaypoints;
+        // 🔥 巡逻顺序（编译好的闭合环路，编译完成前按距离标记方块从近到远）
+        // 结果由共享路线缓存，同一路线的所有怪物只计算一次
+        List<BlockPos> patrolOrder = aiCap.getRoute().getPatrolOrder();
+        this.currentWaypointIndex = aiCap.getCurrentWaypointIndex();
+        if (this.waypoints != patrolOrder) {
+            // 顺序切换（包括重新加载后路线重新解析、编译好的环路发布）时按位置保持当前目标路径点不变
+            BlockPos target = aiCap.getCurrentWaypointPos();
+            if (target == null && this.waypoints != null
+                    && currentWaypointIndex >= 0 && currentWaypointIndex < this.waypoints.size()) {
+                target = this.waypoints.get(currentWaypointIndex);
+            }
+            if (target != null) {
+                int remapped = patrolOrder.indexOf(target);
+                if (remapped >= 0) {
+                    currentWaypointIndex = remapped;
+                }
+            }
+            this.waypoints = patrolOrder;
 
             if (LogicaConfig.shouldLogNavigation()) {
-                Logica.LOGGER.info("Sorted {} waypoints for patrol from marker at {}",
-                        sortedWaypoints.size(), markerPos);
+                Logica.LOGGER.info("Using {} waypoints for patrol from marker at {}",
+                        patrolOrder.size(), aiCap.getStrategyMarkerPos());
             }
-        } else if (this.waypoints == null) {
-            // 没有标记方块位置，使用原始顺序
-            this.waypoints = new ArrayList<>(waypointsList);
         }
 
-        this.currentWaypointIndex = aiCap.getCurrentWaypointIndex();
-
         // 确保索引有效
         if (currentWaypointIndex < 0 || currentWaypointIndex >= waypoints.size()) {
             currentWaypointIndex = 0;
-            aiCap.setCurrentWaypointIndex(0);
+        }
+        if (currentWaypointIndex != aiCap.getCurrentWaypointIndex() || aiCap.getCurrentWaypointPos() == null) {
+            saveProgress(aiCap);
         }
 
         return true;
@@ -151,13 +254,13 @@ public class PatrolGoal extends Goal {
      */
     @Override
     public boolean canContinueToUse() {
-        IAICapability aiCap = mob.getCapability(AICapabilityProvider.AI_CAPABILITY).orElse(null);
+        IAICapability aiCap = aiCapability.get();
         if (aiCap == null) {
             return false;
         }
 
         // 如果状态改变，停止
-        if (aiCap.getState() != AIState.IDLE) {
+        if (!stateActive) {
             return false;
         }
 
@@ -166,6 +269,11 @@ public class PatrolGoal extends Goal {
             return false;
         }
 
+        // 路线解析完成，停止待命（下次canUse取到路线后开始巡逻）
+        if (awaitingRoute && !RouteRegistry.isResolving(aiCap.getRouteKey())) {
+            return false;
+        }
+
         return true;
     }
 
@@ -174,19 +282,44 @@ public class PatrolGoal extends Goal {
      */
     @Override
     public void start() {
+        this.running = true;
         this.isWaiting = false;
         this.waitTimer = 0;
         this.lookAroundCooldown = 0;
         this.isReturningToInterruptedPosition = false;
         this.returnFailureCount = 0;
+        this.lodTier = AILodTier.FULL;
+
+        if (awaitingRoute) {
+            if (LogicaConfig.shouldLogGoalLifecycle()) {
+                Logica.LOGGER.info("PatrolGoal.start() for {}: route still resolving, holding at {}",
+                        mob.getName().getString(), holdPosition);
+            }
+            return;
+        }
 
         if (LogicaConfig.shouldLogGoalLifecycle()) {
             Logica.LOGGER.info("PatrolGoal.start() for {} with {} waypoints, current index: {}",
                     mob.getName().getString(), waypoints.size(), currentWaypointIndex);
         }
 
+        // 加入小队；新编组的队长错开起点
+        IAICapability cap = aiCapability.get();
+        this.following = false;
+        if (cap != null && cap.getRouteKey() != null) {
+            this.squad = SquadRegistry.join(mob, cap.getRouteKey());
+            int startIndex = squad.takeStartIndex(mob, waypoints.size());
+            if (startIndex >= 0) {
+                currentWaypointIndex = startIndex;
+                saveProgress(cap);
+            }
+            if (squad.getLeader(mob) != null) {
+                return; // 跟随者在tick中归队
+            }
+        }
+
         // 优先返回离开点（如果存在）
-        mob.getCapability(AICapabilityProvider.AI_CAPABILITY).ifPresent(cap -> {
+        if (cap != null) {
             BlockPos interruptedPos = cap.getInterruptedPatrolPosition();
             if (interruptedPos != null) {
                 if (LogicaConfig.shouldLogGoalLifecycle()) {
@@ -194,22 +327,23 @@ public class PatrolGoal extends Goal {
                             mob.getName().getString(), interruptedPos);
                 }
 
-                net.minecraft.world.level.pathfinder.Path path = mob.getNavigation().createPath(interruptedPos, 1);
-                if (path != null) {
-                    mob.getNavigation().moveTo(path, LogicaConfig.PATROL_SPEED_MULTIPLIER.get());
-                    // 标记正在返回，但不清除离开点（等到达后再清除）
-                    this.isReturningToInterruptedPosition = true;
-                } else {
-                    // 无法创建路径，直接放弃返回
-                    if (LogicaConfig.shouldLogGoalLifecycle()) {
-                        Logica.LOGGER.warn("Mob {} cannot create path to interrupted position {}, giving up",
-                                mob.getName().getString(), interruptedPos);
+                // 标记正在返回，但不清除离开点（等到达后再清除）
+                this.isReturningToInterruptedPosition = true;
+                PathRequestQueue.navigateTo(mob, interruptedPos, 1, LogicaConfig.PATROL_SPEED_MULTIPLIER.get(), path -> {
+                    if (path == null) {
+                        // 无法创建路径，直接放弃返回，继续正常巡逻
+                        if (LogicaConfig.shouldLogGoalLifecycle()) {
+                            Logica.LOGGER.warn("Mob {} cannot create path to interrupted position {}, giving up",
+                                    mob.getName().getString(), interruptedPos);
+                        }
+                        cap.setInterruptedPatrolPosition(null);
+                        cancelReturnMode();
+                        generateSearchPath();
                     }
-                    cap.setInterruptedPatrolPosition(null);
-                }
+                });
                 return;
             }
-        });
+        }
 
         // 生成到下一个路径点的搜索路径
         generateSearchPath();
@@ -220,24 +354,21 @@ public class PatrolGoal extends Goal {
      */
     @Override
     public void stop() {
+        this.running = false;
+        PathRequestQueue.cancel(mob);
         mob.getNavigation().stop();
 
-        // 记录离开巡逻时的位置（只在首次被吸引离开时记录）
-        mob.getCapability(AICapabilityProvider.AI_CAPABILITY).ifPresent(cap -> {
-            cap.setCurrentWaypointIndex(currentWaypointIndex);
-
-            // 只在状态不是IDLE且没有已存在的离开点时才记录
-            // 这样可以避免返回途中再次被打断时覆盖原始离开点
-            if (cap.getState() != AIState.IDLE && cap.getInterruptedPatrolPosition() == null) {
-                BlockPos currentPos = mob.blockPosition();
-                cap.setInterruptedPatrolPosition(currentPos);
+        if (squad != null) {
+            SquadRegistry.leave(mob);
+            squad = null;
+        }
+        following = false;
 
-                if (LogicaConfig.shouldLogGoalLifecycle()) {
-                    Logica.LOGGER.info("Mob {} interrupted from patrol at position: {} (state: {})",
-                            mob.getName().getString(), currentPos, cap.getState());
-                }
-            }
-        });
+        // 保存巡逻进度（离开位置已在状态转换时记录）
+        IAICapability cap = aiCapability.get();
+        if (cap != null && !awaitingRoute) {
+            saveProgress(cap);
+        }
     }
 
     /**
@@ -245,28 +376,200 @@ public class PatrolGoal extends Goal {
      */
     @Override
     public void tick() {
+        long start = LogicaProfiler.begin();
+        tickGoal();
+        LogicaProfiler.end(start, LogicaProfiler.Section.GOAL_TICK, getClass(), mob);
+    }
+
+    private void tickGoal() {
+        IAICapability aiCap = aiCapability.get();
+        if (aiCap == null) {
+            return;
+        }
+
+        AILodTier tier = lodScheduler.getTier(mob, aiCap);
+        int step = AILodScheduler.getTickStep(mob, tier);
+        if (step == 0) {
+            return;
+        }
+
+        if (awaitingRoute) {
+            tickAwaitingRoute(step);
+            return;
+        }
+
         if (waypoints == null || waypoints.isEmpty()) {
             return;
         }
 
+        // 小队跟随者：跟随队长，不自行寻路
+        Mob leader = squad != null ? squad.getLeader(mob) : null;
+        if (leader != null) {
+            tickFollowing(aiCap, leader, tier, step);
+            return;
+        }
+        if (following) {
+            // 被提升为队长：从原队长的进度继续
+            following = false;
+            currentWaypointIndex = aiCap.getCurrentWaypointIndex();
+            if (currentWaypointIndex < 0 || currentWaypointIndex >= waypoints.size()) {
+                currentWaypointIndex = 0;
+            }
+            if (tier == AILodTier.SIMULATED) {
+                // 下一tick进入模拟模式时重新估算到达时间
+                lodTier = AILodTier.FULL;
+            } else {
+                lodTier = tier;
+                generateSearchPath();
+            }
+            return;
+        }
+
+        // 返回中断位置需要真实导航，模拟模式下按降频处理
+        if (tier == AILodTier.SIMULATED && !isReturningToInterruptedPosition) {
+            simulateRouteProgress(aiCap, step);
+            return;
+        }
+
+        // 从模拟模式恢复：从当前位置重新规划到目标路径点
+        if (lodTier == AILodTier.SIMULATED) {
+            lodTier = tier;
+            generateSearchPath();
+            return;
+        }
+        lodTier = tier;
+
         if (isReturningToInterruptedPosition) {
             tickReturnToInterruptedPosition();
             return;
         }
 
         if (isWaiting) {
-            tickWaitingAtWaypoint();
+            tickWaitingAtWaypoint(step);
         } else {
             tickMovingToWaypoint();
         }
     }
 
+    /**
+     * 模拟路线进度（不寻路、不移动）
+     * 按估算的移动与停留时间推进路径点索引，玩家靠近后从当前位置继续巡逻
+     */
+    private void simulateRouteProgress(IAICapability aiCap, int step) {
+        if (lodTier != AILodTier.SIMULATED) {
+            lodTier = AILodTier.SIMULATED;
+            PathRequestQueue.cancel(mob);
+            mob.getNavigation().stop();
+            searchPath.clear();
+            isWaiting = false;
+            simulatedTicksToNextWaypoint = estimateLegTicks(mob.position(), waypoints.get(currentWaypointIndex));
+        }
+
+        simulatedTicksToNextWaypoint -= step;
+        if (simulatedTicksToNextWaypoint > 0) {
+            return;
+        }
+
+        BlockPos reached = waypoints.get(currentWaypointIndex);
+        currentWaypointIndex = (currentWaypointIndex + 1) % waypoints.size();
+        saveProgress(aiCap);
+        simulatedTicksToNextWaypoint = estimateLegTicks(Vec3.atCenterOf(reached), waypoints.get(currentWaypointIndex));
+
+        if (LogicaConfig.shouldLogNavigation()) {
+            Logica.LOGGER.debug("Mob {} simulated arrival at waypoint {}, next: {}",
+                    mob.getName().getString(), reached, currentWaypointIndex);
+        }
+    }
+
+    /**
+     * 跟随队长：寻路归队，归队后在队形槽位本地转向
+     * 路线进度与队长同步，模拟模式下队长也不移动，跟随者只同步进度
+     */
+    private void tickFollowing(IAICapability aiCap, Mob leader, AILodTier tier, int step) {
+        if (!following) {
+            following = true;
+            PathRequestQueue.cancel(mob);
+            mob.getNavigation().stop();
+            searchPath.clear();
+            isWaiting = false;
+            cancelReturnMode();
+            aiCap.setInterruptedPatrolPosition(null);
+            stuckTicks = 0;
+        }
+        lodTier = tier;
+
+        IAICapability leaderCap = leader.getCapability(AICapabilityProvider.AI_CAPABILITY).orElse(null);
+        if (leaderCap != null && leaderCap.getCurrentWaypointIndex() != currentWaypointIndex) {
+            currentWaypointIndex = leaderCap.getCurrentWaypointIndex();
+            saveProgress(aiCap);
+        }
+
+        if (tier == AILodTier.SIMULATED) {
+            return;
+        }
+
+        Vec3 slot = Squad.getFormationPosition(leader, squad.getFollowerSlot(mob));
+        double distanceSqr = mob.position().distanceToSqr(slot);
+        double speed = LogicaConfig.PATROL_SPEED_MULTIPLIER.get();
+
+        // 离队太远：寻路归队
+        if (distanceSqr > FOLLOW_PATHFIND_DISTANCE * FOLLOW_PATHFIND_DISTANCE) {
+            if (PathRequestQueue.isNavigationIdle(mob)) {
+                PathRequestQueue.navigateTo(mob, BlockPos.containing(slot), 1, speed, null);
+            }
+            return;
+        }
+
+        // 沿路径归队中，接近后交给本地转向
+        if (!PathRequestQueue.isNavigationIdle(mob)) {
+            if (distanceSqr > FOLLOW_CATCH_UP_DISTANCE * FOLLOW_CATCH_UP_DISTANCE) {
+                return;
+            }
+            PathRequestQueue.cancel(mob);
+            mob.getNavigation().stop();
+        }
+
+        // 被地形挡住：改为寻路
+        if (mob.horizontalCollision) {
+            stuckTicks += step;
+            if (stuckTicks >= FOLLOW_STUCK_TICKS) {
+                stuckTicks = 0;
+                PathRequestQueue.navigateTo(mob, BlockPos.containing(slot), 1, speed, null);
+                return;
+            }
+        } else {
+            stuckTicks = 0;
+        }
+
+        if (distanceSqr > FOLLOW_ARRIVAL_DISTANCE * FOLLOW_ARRIVAL_DISTANCE) {
+            double followSpeed = distanceSqr > FOLLOW_CATCH_UP_DISTANCE * FOLLOW_CATCH_UP_DISTANCE
+                    ? speed * FOLLOW_CATCH_UP_SPEED : speed;
+            mob.getMoveControl().setWantedPosition(slot.x, slot.y, slot.z, followSpeed);
+        } else {
+            // 在槽位上：队长停留时一起环顾四周
+            lookAroundCooldown -= step;
+            if (lookAroundCooldown <= 0) {
+                lookAroundRandomly();
+                lookAroundCooldown = LogicaConfig.LOOK_AROUND_INTERVAL.get();
+            }
+        }
+    }
+
+    /**
+     * 估算走完一段路线并停留所需的tick数
+     */
+    private static int estimateLegTicks(Vec3 from, BlockPos to) {
+        double distance = from.distanceTo(Vec3.atCenterOf(to));
+        return WAIT_DURATION_TICKS + (int) Math.ceil(distance / SIMULATED_BLOCKS_PER_TICK);
+    }
+
     /**
      * 处理返回中断位置的逻辑
      * 检查是否到达、继续导航、或放弃返回
      */
     private void tickReturnToInterruptedPosition() {
-        mob.getCapability(AICapabilityProvider.AI_CAPABILITY).ifPresent(cap -> {
+        IAICapability cap = aiCapability.get();
+        if (cap != null) {
             BlockPos interruptedPos = cap.getInterruptedPatrolPosition();
 
             if (interruptedPos == null) {
@@ -280,7 +583,7 @@ public class PatrolGoal extends Goal {
             } else {
                 continueNavigatingToInterruptedPosition(interruptedPos);
             }
-        });
+        }
 
         // 如果没有放弃，继续返回模式
         if (!isReturningToInterruptedPosition) {
@@ -318,16 +621,14 @@ public class PatrolGoal extends Goal {
      * 继续前往中断位置
      */
     private void continueNavigatingToInterruptedPosition(BlockPos interruptedPos) {
-        if (mob.getNavigation().isDone()) {
-            net.minecraft.world.level.pathfinder.Path path =
-                mob.getNavigation().createPath(interruptedPos, 1);
-
-            if (path != null) {
-                mob.getNavigation().moveTo(path, LogicaConfig.PATROL_SPEED_MULTIPLIER.get());
-                returnFailureCount = 0;
-            } else {
-                handleReturnNavigationFailure(interruptedPos);
-            }
+        if (PathRequestQueue.isNavigationIdle(mob)) {
+            PathRequestQueue.navigateTo(mob, interruptedPos, 1, LogicaConfig.PATROL_SPEED_MULTIPLIER.get(), path -> {
+                if (path != null) {
+                    returnFailureCount = 0;
+                } else {
+                    handleReturnNavigationFailure(interruptedPos);
+                }
+            });
         }
     }
 
@@ -357,9 +658,10 @@ public class PatrolGoal extends Goal {
                     mob.getName().getString(), interruptedPos, MAX_RETURN_FAILURE_COUNT);
         }
 
-        mob.getCapability(AICapabilityProvider.AI_CAPABILITY).ifPresent(cap -> {
+        IAICapability cap = aiCapability.get();
+        if (cap != null) {
             cap.setInterruptedPatrolPosition(null);
-        });
+        }
 
         cancelReturnMode();
         generateSearchPath();
@@ -373,14 +675,34 @@ public class PatrolGoal extends Goal {
         returnFailureCount = 0;
     }
 
+    /**
+     * 路线解析期间在标记方块处待命
+     */
+    private void tickAwaitingRoute(int step) {
+        // 离开标记方块时走回去，站定后环顾四周
+        if (mob.position().distanceToSqr(Vec3.atBottomCenterOf(holdPosition)) > 4.0) {
+            if (PathRequestQueue.isNavigationIdle(mob)) {
+                PathRequestQueue.navigateTo(mob, holdPosition, 0, LogicaConfig.PATROL_SPEED_MULTIPLIER.get(), null);
+            }
+            return;
+        }
+
+        lookAroundCooldown -= step;
+        if (lookAroundCooldown <= 0) {
+            lookAroundRandomly();
+            lookAroundCooldown = LogicaConfig.LOOK_AROUND_INTERVAL.get();
+        }
+    }
+
     /**
      * 处理在路径点等待的逻辑
      * 包括环顾四周和等待计时
      */
-    private void tickWaitingAtWaypoint() {
-        waitTimer++;
+    private void tickWaitingAtWaypoint(int step) {
+        waitTimer += step;
 
-        if (--lookAroundCooldown <= 0) {
+        lookAroundCooldown -= step;
+        if (lookAroundCooldown <= 0) {
             lookAroundRandomly();
             lookAroundCooldown = LogicaConfig.LOOK_AROUND_INTERVAL.get();
         }
@@ -410,6 +732,11 @@ public class PatrolGoal extends Goal {
         waitTimer = 0;
 
         currentWaypointIndex = (currentWaypointIndex + 1) % waypoints.size();
+        // 立即记录进度（跟随者据此同步）
+        IAICapability cap = aiCapability.get();
+        if (cap != null) {
+            saveProgress(cap);
+        }
         generateSearchPath();
 
         if (LogicaConfig.shouldLogNavigation()) {
@@ -425,6 +752,17 @@ public class PatrolGoal extends Goal {
         followSearchPath();
     }
 
+    /**
+     * 记录巡逻进度：索引和目标路径点位置（重新加载后巡逻顺序可能不同，按位置恢复索引）
+     */
+    private void saveProgress(IAICapability cap) {
+        if (currentWaypointIndex >= 0 && currentWaypointIndex < waypoints.size()) {
+            cap.setCurrentWaypoint(currentWaypointIndex, waypoints.get(currentWaypointIndex));
+        } else {
+            cap.setCurrentWaypointIndex(currentWaypointIndex);
+        }
+    }
+
     /**
      * 生成从当前路径点到下一路径点的搜索路径（中间点）
      */
@@ -453,11 +791,28 @@ public class PatrolGoal extends Goal {
             return;
         }
 
+        int intermediateCount = buildSearchPath(startPos, endPos, LogicaConfig.PATROL_SEARCH_RADIUS.get(), random, searchPath);
+
+        if (LogicaConfig.shouldLogNavigation()) {
+            Logica.LOGGER.info("Generated search path with {} intermediate points for patrol from current pos to waypoint {}",
+                    intermediateCount, currentWaypointIndex);
+        }
+
+        // 立即前往第一个搜索点
+        navigateToCurrentSearchPoint();
+    }
+
+    /**
+     * 在起点和终点之间生成随机偏移的中间点，最后加入终点
+     *
+     * @param searchRadius 中间点偏离直线的最大距离
+     * @param out 输出的搜索路径
+     * @return 中间点数量
+     */
+    static int buildSearchPath(Vec3 startPos, Vec3 endPos, double searchRadius, Random random, List<Vec3> out) {
         Vec3 direction = endPos.subtract(startPos);
         Vec3 perpendicular = new Vec3(-direction.z, 0, direction.x).normalize(); // 垂直向量
 
-        double searchRadius = LogicaConfig.PATROL_SEARCH_RADIUS.get();
-
         // 生成2-4个随机中间点
         int intermediateCount = MIN_INTERMEDIATE_POINTS +
                                random.nextInt(MAX_INTERMEDIATE_POINTS - MIN_INTERMEDIATE_POINTS + 1);
@@ -470,19 +825,12 @@ public class PatrolGoal extends Goal {
             double offset = (random.nextDouble() * 2 - 1) * searchRadius;
             Vec3 searchPoint = linePoint.add(perpendicular.scale(offset));
 
-            searchPath.add(searchPoint);
+            out.add(searchPoint);
         }
 
         // 最后添加终点路径点
-        searchPath.add(endPos);
-
-        if (LogicaConfig.shouldLogNavigation()) {
-            Logica.LOGGER.info("Generated search path with {} intermediate points for patrol from current pos to waypoint {}",
-                    intermediateCount, currentWaypointIndex);
-        }
-
-        // 立即前往第一个搜索点
-        navigateToCurrentSearchPoint();
+        out.add(endPos);
+        return intermediateCount;
     }
 
     /**
@@ -518,7 +866,7 @@ public class PatrolGoal extends Goal {
             }
         } else {
             // 继续前往（处理可能的路径丢失）
-            if (mob.getNavigation().isDone()) {
+            if (PathRequestQueue.isNavigationIdle(mob)) {
                 navigateToCurrentSearchPoint();
             }
         }
@@ -535,15 +883,13 @@ public class PatrolGoal extends Goal {
         Vec3 targetPoint = searchPath.get(currentSearchIndex);
         BlockPos targetPos = new BlockPos((int)targetPoint.x, (int)targetPoint.y, (int)targetPoint.z);
 
-        net.minecraft.world.level.pathfinder.Path path = mob.getNavigation().createPath(targetPos, 0);
-        if (path != null) {
-            mob.getNavigation().moveTo(path, LogicaConfig.PATROL_SPEED_MULTIPLIER.get());
-
-            if (LogicaConfig.shouldLogNavigation()) {
+        int searchIndex = currentSearchIndex;
+        PathRequestQueue.navigateTo(mob, targetPos, 0, LogicaConfig.PATROL_SPEED_MULTIPLIER.get(), path -> {
+            if (path != null && LogicaConfig.shouldLogNavigation()) {
                 Logica.LOGGER.debug("Patrol navigating to search point {} ({}/{})",
-                        targetPos, currentSearchIndex + 1, searchPath.size());
+                        targetPos, searchIndex + 1, searchPath.size());
             }
-        }
+        });
     }
 
     /**
@@ -2,9 +2,11 @@ package com.sorcery.logica.goals;
 
 import com.sorcery.logica.Logica;
 import com.sorcery.logica.ai.AIState;
-import com.sorcery.logica.capability.AICapabilityProvider;
+import com.sorcery.logica.ai.AIStateListener;
+import com.sorcery.logica.capability.CachedAICapability;
 import com.sorcery.logica.capability.IAICapability;
 import com.sorcery.logica.config.LogicaConfig;
+import com.sorcery.logica.util.LogicaProfiler;
 import net.minecraft.core.BlockPos;
 import net.minecraft.world.entity.Mob;
 import net.minecraft.world.entity.ai.goal.Goal;
@@ -25,15 +27,35 @@ import java.util.Random;
  * 优先级：3（高于RandomStrollGoal的5）
  * 注意：此Goal不控制移动,只控制状态和超时,移动由原版RandomStrollGoal接管
  */
-public class SearchingGoal extends Goal {
+public class SearchingGoal extends Goal implements AIStateListener {
 
     private final Mob mob;
+    private final CachedAICapability aiCapability;
+
+    // 是否处于本Goal负责的状态（由状态监听器维护，canUse不再轮询Capability）
+    private boolean stateActive;
     private int searchTimer; // 搜索计时器
 
     public SearchingGoal(Mob mob) {
         this.mob = mob;
+        this.aiCapability = new CachedAICapability(mob);
         // 🔥 不设置任何Flag,让原版RandomStrollGoal接管移动
         this.setFlags(EnumSet.noneOf(Flag.class));
+
+        // 注册状态监听器（状态转换时更新激活标记）
+        IAICapability aiCap = aiCapability.get();
+        if (aiCap != null) {
+            aiCap.addStateListener(this);
+            this.stateActive = aiCap.getState() == AIState.SEARCHING;
+        }
+    }
+
+    /**
+     * 状态转换回调
+     */
+    @Override
+    public void onStateChanged(IAICapability aiCap, AIState oldState, AIState newState) {
+        this.stateActive = newState == AIState.SEARCHING;
     }
 
     /**
@@ -41,13 +63,15 @@ public class SearchingGoal extends Goal {
      */
     @Override
     public boolean canUse() {
-        IAICapability aiCap = mob.getCapability(AICapabilityProvider.AI_CAPABILITY).orElse(null);
-        if (aiCap == null) {
-            return false;
-        }
+        long start = LogicaProfiler.begin();
+        boolean result = checkCanUse();
+        LogicaProfiler.end(start, LogicaProfiler.Section.GOAL_CAN_USE, getClass(), mob);
+        return result;
+    }
 
+    private boolean checkCanUse() {
         // 只在SEARCHING状态下执行
-        if (aiCap.getState() != AIState.SEARCHING) {
+        if (!stateActive) {
             return false;
         }
 
@@ -66,13 +90,8 @@ public class SearchingGoal extends Goal {
      */
     @Override
     public boolean canContinueToUse() {
-        IAICapability aiCap = mob.getCapability(AICapabilityProvider.AI_CAPABILITY).orElse(null);
-        if (aiCap == null) {
-            return false;
-        }
-
         // 如果状态改变，停止
-        if (aiCap.getState() != AIState.SEARCHING) {
+        if (!stateActive) {
             return false;
         }
 
@@ -105,7 +124,7 @@ public class SearchingGoal extends Goal {
      */
     @Override
     public void stop() {
-        IAICapability aiCap = mob.getCapability(AICapabilityProvider.AI_CAPABILITY).orElse(null);
+        IAICapability aiCap = aiCapability.get();
         if (aiCap == null) {
             return;
         }
@@ -132,6 +151,12 @@ public class SearchingGoal extends Goal {
      */
     @Override
     public void tick() {
+        long start = LogicaProfiler.begin();
+        tickGoal();
+        LogicaProfiler.end(start, LogicaProfiler.Section.GOAL_TICK, getClass(), mob);
+    }
+
+    private void tickGoal() {
         searchTimer++;
     }
 
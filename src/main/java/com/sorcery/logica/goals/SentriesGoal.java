@@ -1,12 +1,23 @@
 package com.sorcery.logica.goals;
 
 import com.sorcery.logica.Logica;
+import com.sorcery.logica.ai.AILodScheduler;
+import com.sorcery.logica.ai.AILodTier;
 import com.sorcery.logica.ai.AIState;
+import com.sorcery.logica.ai.AIStateListener;
 import com.sorcery.logica.ai.AIStrategy;
-import com.sorcery.logica.capability.AICapabilityProvider;
+import com.sorcery.logica.ai.Squad;
+import com.sorcery.logica.ai.SquadRegistry;
+import com.sorcery.logica.capability.CachedAICapability;
 import com.sorcery.logica.capability.IAICapability;
 import com.sorcery.logica.config.LogicaConfig;
+import com.sorcery.logica.util.LogicaProfiler;
+import com.sorcery.logica.util.PathCache;
+import com.sorcery.logica.util.PathRequestQueue;
+import com.sorcery.logica.util.Route;
+import com.sorcery.logica.util.RouteRegistry;
 import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.entity.Mob;
 import net.minecraft.world.entity.ai.goal.Goal;
 import net.minecraft.world.phys.Vec3;
@@ -29,16 +40,29 @@ import java.util.Set;
  * - 优先前往未访问位置
  *
  * 优先级：4（低于攻击、追踪、调查）
+ *
+ * 远离玩家时按{@link AILodScheduler}降频；超出降频范围后只推进路线进度，不寻路
+ *
+ * 同一标记方块的哨兵组成{@link Squad}，选择路径点时避开其他成员正在前往的路径点
  */
-public class SentriesGoal extends Goal {
+public class SentriesGoal extends Goal implements AIStateListener {
+
+    /** 模拟模式下估算的移动速度（格/tick） */
+    private static final double SIMULATED_BLOCKS_PER_TICK = 0.25;
 
     private final Mob mob;
+    private final CachedAICapability aiCapability;
+
+    // 是否处于本Goal负责的状态（由状态监听器维护，canUse不再轮询Capability）
+    private boolean stateActive;
+    private boolean running;
     private final Random random = new Random();
 
     // 路径点系统
     private List<BlockPos> waypoints;
     private int currentWaypointIndex;
     private Set<BlockPos> visitedWaypoints;
+    private int legStartIndex = -1; // 刚到达的路径点（用于共享路径缓存），不在路径点上时为-1
 
     // 无路径点模式：大范围游荡
     private BlockPos centerPosition;
@@ -51,14 +75,49 @@ public class SentriesGoal extends Goal {
     private boolean isReturningToInterruptedPosition;
     private int returnFailureCount; // 返回失败计数器
 
+    // 细节层级
+    private final AILodScheduler lodScheduler = new AILodScheduler();
+    private AILodTier lodTier = AILodTier.FULL;
+    private int simulatedTicksToNextWaypoint; // 模拟模式下到达下一路径点的剩余tick
+
+    // 小队（避开其他成员正在前往的路径点）
+    private Squad squad;
+
     // DEBUG: 日志计数器
     private int logCounter;
 
     public SentriesGoal(Mob mob) {
         this.mob = mob;
+        this.aiCapability = new CachedAICapability(mob);
         this.setFlags(EnumSet.of(Flag.MOVE));
         this.visitedWaypoints = new HashSet<>();
         this.logCounter = 0;
+
+        // 注册状态监听器（状态转换时更新激活标记）
+        IAICapability aiCap = aiCapability.get();
+        if (aiCap != null) {
+            aiCap.addStateListener(this);
+            this.stateActive = aiCap.getState() == AIState.IDLE;
+        }
+    }
+
+    /**
+     * 状态转换回调
+     * 执行中被打断时记录离开位置（只在首次被吸引离开时记录，避免返回途中再次被打断时覆盖原始离开点）
+     */
+    @Override
+    public void onStateChanged(IAICapability aiCap, AIState oldState, AIState newState) {
+        this.stateActive = newState == AIState.IDLE;
+
+        if (running && oldState == AIState.IDLE && aiCap.getInterruptedPatrolPosition() == null) {
+            BlockPos currentPos = mob.blockPosition();
+            aiCap.setInterruptedPatrolPosition(currentPos);
+
+            if (LogicaConfig.shouldLogGoalLifecycle()) {
+                Logica.LOGGER.info("Mob {} interrupted from patrol at position: {} (state: {})",
+                        mob.getName().getString(), currentPos, newState);
+            }
+        }
     }
 
     /**
@@ -66,24 +125,46 @@ public class SentriesGoal extends Goal {
      */
     @Override
     public boolean canUse() {
-        IAICapability aiCap = mob.getCapability(AICapabilityProvider.AI_CAPABILITY).orElse(null);
+        long start = LogicaProfiler.begin();
+        boolean result = checkCanUse();
+        LogicaProfiler.end(start, LogicaProfiler.Section.GOAL_CAN_USE, getClass(), mob);
+        return result;
+    }
+
+    private boolean checkCanUse() {
+        // 只在SENTRIES策略且IDLE状态下执行
+        if (!stateActive) {
+            return false;
+        }
+
+        IAICapability aiCap = aiCapability.get();
         if (aiCap == null) {
             return false;
         }
 
-        // 只在SENTRIES策略且IDLE状态下执行
         if (aiCap.getStrategy() != AIStrategy.SENTRIES) {
             return false;
         }
 
-        if (aiCap.getState() != AIState.IDLE) {
-            return false;
+        // 路线被修改过（路径点增删）时刷新（异步解析期间沿用旧路线，没有路线时以标记方块为中心）
+        if (mob.level() instanceof ServerLevel serverLevel) {
+            RouteRegistry.refreshIfChanged(serverLevel, aiCap);
         }
 
-        // 获取路径点
-        this.waypoints = aiCap.getWaypoints();
+        // 获取路径点（路线更换后旧的访问记录作废）
+        List<BlockPos> currentWaypoints = aiCap.getWaypoints();
+        if (currentWaypoints != this.waypoints) {
+            visitedWaypoints.clear();
+        }
+        this.waypoints = currentWaypoints;
         this.currentWaypointIndex = aiCap.getCurrentWaypointIndex();
 
+        // 确保索引有效（路线可能变短）
+        if (waypoints != null && (currentWaypointIndex < 0 || currentWaypointIndex >= waypoints.size())) {
+            currentWaypointIndex = 0;
+            aiCap.setCurrentWaypointIndex(0);
+        }
+
         // 如果没有路径点，使用标记方块位置作为中心
         if (waypoints == null || waypoints.isEmpty()) {
             BlockPos markerPos = aiCap.getStrategyMarkerPos();
@@ -101,7 +182,7 @@ public class SentriesGoal extends Goal {
      */
     @Override
     public boolean canContinueToUse() {
-        IAICapability aiCap = mob.getCapability(AICapabilityProvider.AI_CAPABILITY).orElse(null);
+        IAICapability aiCap = aiCapability.get();
         if (aiCap == null) {
             if (LogicaConfig.shouldLogGoalLifecycle()) {
                 Logica.LOGGER.warn("🔥 SentriesGoal.canContinueToUse() - No AI capability, stopping");
@@ -112,7 +193,7 @@ public class SentriesGoal extends Goal {
         AIState currentState = aiCap.getState();
 
         // 如果状态改变，停止
-        if (currentState != AIState.IDLE) {
+        if (!stateActive) {
             if (LogicaConfig.shouldLogGoalLifecycle()) {
                 Logica.LOGGER.info("🔥 SentriesGoal.canContinueToUse() - State changed to {}, STOPPING Goal",
                         currentState);
@@ -136,6 +217,7 @@ public class SentriesGoal extends Goal {
      */
     @Override
     public void start() {
+        this.running = true;
         if (LogicaConfig.shouldLogGoalLifecycle()) {
             Logica.LOGGER.info("🔥 SentriesGoal.start() CALLED for {} (was resting: {})",
                     mob.getName().getString(), isResting);
@@ -146,9 +228,22 @@ public class SentriesGoal extends Goal {
         this.isResting = false;
         this.isReturningToInterruptedPosition = false;
         this.returnFailureCount = 0;
+        this.lodTier = AILodTier.FULL;
+        this.legStartIndex = -1;
+
+        // 加入小队，第一个路径点已有其他成员前往时换一个
+        IAICapability cap = aiCapability.get();
+        if (cap != null && cap.getRouteKey() != null && waypoints != null && !waypoints.isEmpty()) {
+            this.squad = SquadRegistry.join(mob, cap.getRouteKey());
+            if (squad.isClaimedByOther(currentWaypointIndex, mob)) {
+                selectNextWaypoint();
+            } else {
+                squad.claim(currentWaypointIndex, mob);
+            }
+        }
 
         // 🔥 优先返回离开点（如果存在）
-        mob.getCapability(AICapabilityProvider.AI_CAPABILITY).ifPresent(cap -> {
+        if (cap != null) {
             BlockPos interruptedPos = cap.getInterruptedPatrolPosition();
             if (interruptedPos != null) {
                 if (LogicaConfig.shouldLogGoalLifecycle()) {
@@ -156,22 +251,23 @@ public class SentriesGoal extends Goal {
                             mob.getName().getString(), interruptedPos);
                 }
 
-                net.minecraft.world.level.pathfinder.Path path = mob.getNavigation().createPath(interruptedPos, 1);
-                if (path != null) {
-                    mob.getNavigation().moveTo(path, LogicaConfig.SENTRIES_SPEED_MULTIPLIER.get());
-                    // 🔥 标记正在返回，但不清除离开点（等到达后再清除）
-                    this.isReturningToInterruptedPosition = true;
-                } else {
-                    // 🔥 无法创建路径，直接放弃返回
-                    if (LogicaConfig.shouldLogGoalLifecycle()) {
-                        Logica.LOGGER.warn("Mob {} cannot create path to interrupted position {}, giving up",
-                                mob.getName().getString(), interruptedPos);
+                // 🔥 标记正在返回，但不清除离开点（等到达后再清除）
+                this.isReturningToInterruptedPosition = true;
+                PathRequestQueue.navigateTo(mob, interruptedPos, 1, LogicaConfig.SENTRIES_SPEED_MULTIPLIER.get(), path -> {
+                    if (path == null) {
+                        // 🔥 无法创建路径，直接放弃返回（之后的tick恢复正常巡逻）
+                        if (LogicaConfig.shouldLogGoalLifecycle()) {
+                            Logica.LOGGER.warn("Mob {} cannot create path to interrupted position {}, giving up",
+                                    mob.getName().getString(), interruptedPos);
+                        }
+                        cap.setInterruptedPatrolPosition(null);
+                        isReturningToInterruptedPosition = false;
+                        returnFailureCount = 0;
                     }
-                    cap.setInterruptedPatrolPosition(null);
-                }
+                });
                 return;
             }
-        });
+        }
 
         if (waypoints != null && !waypoints.isEmpty()) {
             if (LogicaConfig.shouldLogGoalLifecycle()) {
@@ -181,23 +277,24 @@ public class SentriesGoal extends Goal {
 
             // 立即开始前往第一个路径点
             BlockPos targetWaypoint = waypoints.get(currentWaypointIndex);
-            net.minecraft.world.level.pathfinder.Path path = mob.getNavigation().createPath(targetWaypoint, 0);
-            boolean moveToSuccess = false;
-            if (path != null) {
-                // 直接传入速度倍率，让导航系统自动处理
-                double speedMultiplier = LogicaConfig.SENTRIES_SPEED_MULTIPLIER.get();
-                moveToSuccess = mob.getNavigation().moveTo(path, speedMultiplier);
+            PathRequestQueue.request(mob, () -> mob.getNavigation().createPath(targetWaypoint, 0), path -> {
+                boolean moveToSuccess = false;
+                if (path != null) {
+                    // 直接传入速度倍率，让导航系统自动处理
+                    double speedMultiplier = LogicaConfig.SENTRIES_SPEED_MULTIPLIER.get();
+                    moveToSuccess = mob.getNavigation().moveTo(path, speedMultiplier);
 
-                if (LogicaConfig.shouldLogNavigation()) {
-                    Logica.LOGGER.info("🔥 moveTo() returned: {} (speed multiplier: {})",
-                            moveToSuccess, speedMultiplier);
+                    if (LogicaConfig.shouldLogNavigation()) {
+                        Logica.LOGGER.info("🔥 moveTo() returned: {} (speed multiplier: {})",
+                                moveToSuccess, speedMultiplier);
+                    }
                 }
-            }
 
-            if (LogicaConfig.shouldLogNavigation()) {
-                Logica.LOGGER.info("Mob {} starting navigation to first waypoint: {} (path: {}, moveTo: {})",
-                        mob.getName().getString(), targetWaypoint, path != null, moveToSuccess);
-            }
+                if (LogicaConfig.shouldLogNavigation()) {
+                    Logica.LOGGER.info("Mob {} starting navigation to first waypoint: {} (path: {}, moveTo: {})",
+                            mob.getName().getString(), targetWaypoint, path != null, moveToSuccess);
+                }
+            });
         } else {
             if (LogicaConfig.shouldLogGoalLifecycle()) {
                 Logica.LOGGER.info("Mob {} starting sentries patrol in free-roam mode around {}",
@@ -216,26 +313,20 @@ public class SentriesGoal extends Goal {
                     mob.getName().getString(), isResting);
         }
 
+        this.running = false;
+        PathRequestQueue.cancel(mob);
         mob.getNavigation().stop();
 
-        // 🔥 记录离开巡逻时的位置（只在首次被吸引离开时记录）
-        mob.getCapability(AICapabilityProvider.AI_CAPABILITY).ifPresent(cap -> {
-            if (waypoints != null && !waypoints.isEmpty()) {
-                cap.setCurrentWaypointIndex(currentWaypointIndex);
-            }
-
-            // 只在状态不是IDLE且没有已存在的离开点时才记录
-            // 这样可以避免返回途中再次被打断时覆盖原始离开点
-            if (cap.getState() != AIState.IDLE && cap.getInterruptedPatrolPosition() == null) {
-                BlockPos currentPos = mob.blockPosition();
-                cap.setInterruptedPatrolPosition(currentPos);
+        if (squad != null) {
+            SquadRegistry.leave(mob);
+            squad = null;
+        }
 
-                if (LogicaConfig.shouldLogGoalLifecycle()) {
-                    Logica.LOGGER.info("Mob {} interrupted from patrol at position: {} (state: {})",
-                            mob.getName().getString(), currentPos, cap.getState());
-                }
-            }
-        });
+        // 保存巡逻进度（离开位置已在状态转换时记录）
+        IAICapability cap = aiCapability.get();
+        if (cap != null && waypoints != null && !waypoints.isEmpty()) {
+            cap.setCurrentWaypointIndex(currentWaypointIndex);
+        }
     }
 
     /**
@@ -243,6 +334,12 @@ public class SentriesGoal extends Goal {
      */
     @Override
     public void tick() {
+        long start = LogicaProfiler.begin();
+        tickGoal();
+        LogicaProfiler.end(start, LogicaProfiler.Section.GOAL_TICK, getClass(), mob);
+    }
+
+    private void tickGoal() {
         // DEBUG: 每20 tick记录一次
         if (LogicaConfig.shouldLogGoalLifecycle() && ++logCounter >= 20) {
             logCounter = 0;
@@ -263,67 +360,66 @@ public class SentriesGoal extends Goal {
             logCounter = 0;
         }
 
+        IAICapability aiCap = aiCapability.get();
+        if (aiCap == null) {
+            return;
+        }
+
+        AILodTier tier = lodScheduler.getTier(mob, aiCap);
+        int step = AILodScheduler.getTickStep(mob, tier);
+        if (step == 0) {
+            return;
+        }
+
+        // 返回中断位置需要真实导航，模拟模式下按降频处理
+        if (tier == AILodTier.SIMULATED && !isReturningToInterruptedPosition) {
+            simulateRouteProgress(aiCap, step);
+            return;
+        }
+        if (lodTier == AILodTier.SIMULATED) {
+            // 从模拟模式恢复：导航已停止，下面的逻辑会从当前位置重新寻路
+            isResting = false;
+        }
+        lodTier = tier;
+
         // 🔥 处理返回中断位置
         if (isReturningToInterruptedPosition) {
-            mob.getCapability(AICapabilityProvider.AI_CAPABILITY).ifPresent(cap -> {
-                BlockPos interruptedPos = cap.getInterruptedPatrolPosition();
-                if (interruptedPos != null) {
-                    Vec3 mobPos = mob.position();
-                    Vec3 targetPos = Vec3.atCenterOf(interruptedPos);
-                    double distance = mobPos.distanceTo(targetPos);
-
-                    // 到达离开点（距离<3格）
-                    if (distance < 3.0) {
-                        if (LogicaConfig.shouldLogNavigation()) {
-                            Logica.LOGGER.info("Mob {} reached interrupted position {}, clearing and resuming patrol",
-                                    mob.getName().getString(), interruptedPos);
-                        }
+            BlockPos interruptedPos = aiCap.getInterruptedPatrolPosition();
+            if (interruptedPos != null) {
+                Vec3 mobPos = mob.position();
+                Vec3 targetPos = Vec3.atCenterOf(interruptedPos);
+                double distance = mobPos.distanceTo(targetPos);
+
+                // 到达离开点（距离<3格）
+                if (distance < 3.0) {
+                    if (LogicaConfig.shouldLogNavigation()) {
+                        Logica.LOGGER.info("Mob {} reached interrupted position {}, clearing and resuming patrol",
+                                mob.getName().getString(), interruptedPos);
+                    }
 
-                        // 清除离开点
-                        cap.setInterruptedPatrolPosition(null);
-                        isReturningToInterruptedPosition = false;
-                        returnFailureCount = 0;
+                    // 清除离开点
+                    aiCap.setInterruptedPatrolPosition(null);
+                    isReturningToInterruptedPosition = false;
+                    returnFailureCount = 0;
 
-                        // 继续正常巡逻（不return，让下面的逻辑继续执行）
-                    } else {
-                        // 继续前往（如果导航完成，重新设置）
-                        if (mob.getNavigation().isDone()) {
-                            net.minecraft.world.level.pathfinder.Path path = mob.getNavigation().createPath(interruptedPos, 1);
+                    // 继续正常巡逻（不return，让下面的逻辑继续执行）
+                } else {
+                    // 继续前往（如果导航完成，重新设置；结果在之后的tick返回）
+                    if (PathRequestQueue.isNavigationIdle(mob)) {
+                        PathRequestQueue.navigateTo(mob, interruptedPos, 1, LogicaConfig.SENTRIES_SPEED_MULTIPLIER.get(), path -> {
                             if (path != null) {
-                                mob.getNavigation().moveTo(path, LogicaConfig.SENTRIES_SPEED_MULTIPLIER.get());
                                 returnFailureCount = 0; // 成功创建路径，重置计数器
                             } else {
-                                // 🔥 无法创建路径，增加失败计数
-                                returnFailureCount++;
-                                if (LogicaConfig.shouldLogNavigation()) {
-                                    Logica.LOGGER.warn("Mob {} failed to create path to interrupted position {} (attempt {}/10)",
-                                            mob.getName().getString(), interruptedPos, returnFailureCount);
-                                }
-
-                                // 🔥 失败10次后放弃返回
-                                if (returnFailureCount >= 10) {
-                                    if (LogicaConfig.shouldLogNavigation()) {
-                                        Logica.LOGGER.warn("Mob {} giving up returning to interrupted position {} after 10 failures",
-                                                mob.getName().getString(), interruptedPos);
-                                    }
-                                    cap.setInterruptedPatrolPosition(null);
-                                    isReturningToInterruptedPosition = false;
-                                    returnFailureCount = 0;
-                                    // 不return，让下面的逻辑继续执行（切换到正常巡逻）
-                                } else {
-                                    return; // 继续尝试
-                                }
+                                handleReturnNavigationFailure(aiCap, interruptedPos);
                             }
-                        } else {
-                            return; // 导航未完成，继续等待
-                        }
+                        });
                     }
-                } else {
-                    // 离开点不存在了，取消返回状态
-                    isReturningToInterruptedPosition = false;
-                    returnFailureCount = 0;
                 }
-            });
+            } else {
+                // 离开点不存在了，取消返回状态
+                isReturningToInterruptedPosition = false;
+                returnFailureCount = 0;
+            }
 
             // 🔥 如果没有return，说明已经到达或放弃，继续执行下面的正常巡逻逻辑
             if (!isReturningToInterruptedPosition) {
@@ -335,17 +431,19 @@ public class SentriesGoal extends Goal {
 
         // 休息逻辑
         if (isResting) {
-            if (--restCooldown <= 0) {
+            restCooldown -= step;
+            if (restCooldown <= 0) {
                 isResting = false;
             }
             return;
         }
 
-        // 随机决定是否休息（10%概率）
-        if (random.nextDouble() < LogicaConfig.SENTRIES_REST_CHANCE.get()) {
+        // 随机决定是否休息（10%概率，降频时按步长放大以保持相同频率）
+        if (random.nextDouble() < LogicaConfig.SENTRIES_REST_CHANCE.get() * step) {
             if (random.nextDouble() < 0.1) { // 额外的10%检查，避免太频繁
                 isResting = true;
                 restCooldown = 20 + random.nextInt(40); // 1-3秒
+                PathRequestQueue.cancel(mob);
                 mob.getNavigation().stop();
                 return;
             }
@@ -361,6 +459,48 @@ public class SentriesGoal extends Goal {
         }
     }
 
+    /**
+     * 模拟路线进度（不寻路、不移动）
+     * 按估算的移动时间推进路径点，玩家靠近后从当前位置继续巡逻
+     */
+    private void simulateRouteProgress(IAICapability aiCap, int step) {
+        if (lodTier != AILodTier.SIMULATED) {
+            lodTier = AILodTier.SIMULATED;
+            PathRequestQueue.cancel(mob);
+            mob.getNavigation().stop();
+            if (waypoints != null && !waypoints.isEmpty()) {
+                simulatedTicksToNextWaypoint = estimateLegTicks(mob.position(), waypoints.get(currentWaypointIndex));
+            }
+        }
+
+        // 自由游荡模式没有可推进的路线
+        if (waypoints == null || waypoints.isEmpty()) {
+            return;
+        }
+
+        simulatedTicksToNextWaypoint -= step;
+        if (simulatedTicksToNextWaypoint > 0) {
+            return;
+        }
+
+        BlockPos reached = waypoints.get(currentWaypointIndex);
+        visitedWaypoints.add(reached);
+        if (visitedWaypoints.size() >= waypoints.size()) {
+            visitedWaypoints.clear();
+        }
+        selectNextWaypoint();
+        aiCap.setCurrentWaypointIndex(currentWaypointIndex);
+        simulatedTicksToNextWaypoint = estimateLegTicks(Vec3.atCenterOf(reached), waypoints.get(currentWaypointIndex));
+    }
+
+    /**
+     * 估算走完一段路线所需的tick数
+     */
+    private static int estimateLegTicks(Vec3 from, BlockPos to) {
+        double distance = from.distanceTo(Vec3.atCenterOf(to));
+        return Math.max(1, (int) Math.ceil(distance / SIMULATED_BLOCKS_PER_TICK));
+    }
+
     /**
      * 路径点巡逻模式
      */
@@ -386,6 +526,7 @@ public class SentriesGoal extends Goal {
             }
 
             // 选择下一个路径点（优先未访问的）
+            legStartIndex = currentWaypointIndex;
             selectNextWaypoint();
 
             if (LogicaConfig.shouldLogNavigation()) {
@@ -396,22 +537,50 @@ public class SentriesGoal extends Goal {
         }
 
         // 前往当前目标路径点（如果导航完成或失败，重新设置）
-        if (mob.getNavigation().isDone()) {
-            targetWaypoint = waypoints.get(currentWaypointIndex);
-            net.minecraft.world.level.pathfinder.Path path = mob.getNavigation().createPath(targetWaypoint, 0);
-            boolean success = false;
-            if (path != null) {
-                success = mob.getNavigation().moveTo(path, LogicaConfig.SENTRIES_SPEED_MULTIPLIER.get());
-            }
-
-            if (!success) {
-                if (LogicaConfig.shouldLogNavigation()) {
-                    Logica.LOGGER.warn("Mob {} failed to navigate to waypoint {}, skipping",
-                            mob.getName().getString(), targetWaypoint);
+        if (PathRequestQueue.isNavigationIdle(mob)) {
+            BlockPos nextWaypoint = waypoints.get(currentWaypointIndex);
+
+            // 从路径点出发时使用同一路线共享的路径缓存（只在刚到达时使用一次，中途重新寻路不缓存）
+            IAICapability aiCap = aiCapability.get();
+            Route route = aiCap != null ? aiCap.getRoute() : null;
+            int fromIndex = legStartIndex;
+            int toIndex = currentWaypointIndex;
+            legStartIndex = -1;
+            PathRequestQueue.request(mob, () -> PathCache.createRoutePath(mob, route, fromIndex, toIndex, nextWaypoint, 0), path -> {
+                boolean success = path != null && mob.getNavigation().moveTo(path, LogicaConfig.SENTRIES_SPEED_MULTIPLIER.get());
+
+                if (!success) {
+                    if (LogicaConfig.shouldLogNavigation()) {
+                        Logica.LOGGER.warn("Mob {} failed to navigate to waypoint {}, skipping",
+                                mob.getName().getString(), nextWaypoint);
+                    }
+                    // 跳到下一个路径点
+                    selectNextWaypoint();
                 }
-                // 跳到下一个路径点
-                selectNextWaypoint();
+            });
+        }
+    }
+
+    /**
+     * 处理返回中断位置的寻路失败（失败10次后放弃返回，切换到正常巡逻）
+     */
+    private void handleReturnNavigationFailure(IAICapability aiCap, BlockPos interruptedPos) {
+        // 🔥 无法创建路径，增加失败计数
+        returnFailureCount++;
+        if (LogicaConfig.shouldLogNavigation()) {
+            Logica.LOGGER.warn("Mob {} failed to create path to interrupted position {} (attempt {}/10)",
+                    mob.getName().getString(), interruptedPos, returnFailureCount);
+        }
+
+        // 🔥 失败10次后放弃返回
+        if (returnFailureCount >= 10) {
+            if (LogicaConfig.shouldLogNavigation()) {
+                Logica.LOGGER.warn("Mob {} giving up returning to interrupted position {} after 10 failures",
+                        mob.getName().getString(), interruptedPos);
             }
+            aiCap.setInterruptedPatrolPosition(null);
+            isReturningToInterruptedPosition = false;
+            returnFailureCount = 0;
         }
     }
 
@@ -419,19 +588,30 @@ public class SentriesGoal extends Goal {
      * 选择下一个路径点（优先未访问的）
      */
     private void selectNextWaypoint() {
-        // 首先尝试找到未访问的路径点
+        currentWaypointIndex = findNextWaypoint();
+        if (squad != null) {
+            squad.claim(currentWaypointIndex, mob);
+        }
+    }
+
+    private int findNextWaypoint() {
+        // 首先尝试找到未访问、且没有其他小队成员前往的路径点
+        int unclaimed = -1;
         for (int i = 0; i < waypoints.size(); i++) {
             int index = (currentWaypointIndex + 1 + i) % waypoints.size();
-            BlockPos waypoint = waypoints.get(index);
-
-            if (!visitedWaypoints.contains(waypoint)) {
-                currentWaypointIndex = index;
-                return;
+            if (squad != null && squad.isClaimedByOther(index, mob)) {
+                continue;
+            }
+            if (!visitedWaypoints.contains(waypoints.get(index))) {
+                return index;
+            }
+            if (unclaimed < 0) {
+                unclaimed = index;
             }
         }
 
-        // 如果所有路径点都访问过，选择下一个
-        currentWaypointIndex = (currentWaypointIndex + 1) % waypoints.size();
+        // 如果所有路径点都访问过，选择下一个（优先没有其他成员前往的）
+        return unclaimed >= 0 ? unclaimed : (currentWaypointIndex + 1) % waypoints.size();
     }
 
     /**
@@ -447,8 +627,8 @@ public class SentriesGoal extends Goal {
         Vec3 centerPos = Vec3.atCenterOf(centerPosition);
         double distanceToCenter = currentPos.distanceTo(centerPos);
 
-        // 检查是否到达目标或导航完成
-        if (mob.getNavigation().isDone() || distanceToCenter > sentriesRadius * 1.5) {
+        // 检查是否到达目标或导航完成（等待寻路结果时不重复请求）
+        if (!PathRequestQueue.hasPending(mob) && (mob.getNavigation().isDone() || distanceToCenter > sentriesRadius * 1.5)) {
             // 在中心附近随机选择一个位置
             double angle = random.nextDouble() * Math.PI * 2;
             double distance = random.nextDouble() * sentriesRadius;
@@ -457,10 +637,7 @@ public class SentriesGoal extends Goal {
             int targetZ = (int) (centerPosition.getZ() + Math.sin(angle) * distance);
             BlockPos targetPos = new BlockPos(targetX, centerPosition.getY(), targetZ);
 
-            net.minecraft.world.level.pathfinder.Path path = mob.getNavigation().createPath(targetPos, 1);
-            if (path != null) {
-                mob.getNavigation().moveTo(path, LogicaConfig.SENTRIES_SPEED_MULTIPLIER.get());
-            }
+            PathRequestQueue.navigateTo(mob, targetPos, 1, LogicaConfig.SENTRIES_SPEED_MULTIPLIER.get(), null);
 
             if (LogicaConfig.shouldLogNavigation()) {
                 Logica.LOGGER.debug("Mob {} choosing new sentries target at distance {} from center: {}",
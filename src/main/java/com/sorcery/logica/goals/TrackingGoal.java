@@ -2,19 +2,24 @@ package com.sorcery.logica.goals;
 
 import com.sorcery.logica.Logica;
 import com.sorcery.logica.ai.AIState;
-import com.sorcery.logica.capability.AICapabilityProvider;
+import com.sorcery.logica.ai.AIStateListener;
+import com.sorcery.logica.ai.VibrationListener;
+import com.sorcery.logica.capability.CachedAICapability;
 import com.sorcery.logica.capability.IAICapability;
 import com.sorcery.logica.config.LogicaConfig;
+import com.sorcery.logica.events.PerceptionDispatcher;
+import com.sorcery.logica.util.AISpatialIndex;
+import com.sorcery.logica.util.LogicaProfiler;
+import com.sorcery.logica.util.PathRequestQueue;
 import io.github.Sorcery_Dynasties.aperioculos.api.event.VibrationPerceivedEvent;
 import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.entity.LivingEntity;
 import net.minecraft.world.entity.Mob;
 import net.minecraft.world.entity.ai.goal.Goal;
 import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.phys.AABB;
 import net.minecraft.world.phys.Vec3;
-import net.minecraftforge.common.MinecraftForge;
-import net.minecraftforge.eventbus.api.SubscribeEvent;
 
 import java.util.EnumSet;
 import java.util.List;
@@ -31,9 +36,13 @@ import java.util.List;
  *
  * 优先级：2（仅次于逃跑和攻击）
  */
-public class TrackingGoal extends Goal {
+public class TrackingGoal extends Goal implements VibrationListener, AIStateListener {
 
     private final Mob mob;
+    private final CachedAICapability aiCapability;
+
+    // 是否处于本Goal负责的状态（由状态监听器维护，canUse不再轮询Capability）
+    private boolean stateActive;
 
     // 追踪状态
     private BlockPos lastSoundPosition;
@@ -41,10 +50,26 @@ public class TrackingGoal extends Goal {
 
     public TrackingGoal(Mob mob) {
         this.mob = mob;
+        this.aiCapability = new CachedAICapability(mob);
         this.setFlags(EnumSet.of(Flag.MOVE, Flag.LOOK));
 
-        // 注册事件监听器（用于接收声音事件）
-        MinecraftForge.EVENT_BUS.register(this);
+        // 注册听觉监听器（只接收本怪物的声音事件，实体离开世界时自动移除）
+        PerceptionDispatcher.register(mob, this);
+
+        // 注册状态监听器（状态转换时更新激活标记）
+        IAICapability aiCap = aiCapability.get();
+        if (aiCap != null) {
+            aiCap.addStateListener(this);
+            this.stateActive = aiCap.getState() == AIState.TRACKING;
+        }
+    }
+
+    /**
+     * 状态转换回调
+     */
+    @Override
+    public void onStateChanged(IAICapability aiCap, AIState oldState, AIState newState) {
+        this.stateActive = newState == AIState.TRACKING;
     }
 
     /**
@@ -52,13 +77,20 @@ public class TrackingGoal extends Goal {
      */
     @Override
     public boolean canUse() {
-        IAICapability aiCap = mob.getCapability(AICapabilityProvider.AI_CAPABILITY).orElse(null);
-        if (aiCap == null) {
+        long start = LogicaProfiler.begin();
+        boolean result = checkCanUse();
+        LogicaProfiler.end(start, LogicaProfiler.Section.GOAL_CAN_USE, getClass(), mob);
+        return result;
+    }
+
+    private boolean checkCanUse() {
+        // 只在TRACKING状态下执行
+        if (!stateActive) {
             return false;
         }
 
-        // 只在TRACKING状态下执行
-        if (aiCap.getState() != AIState.TRACKING) {
+        IAICapability aiCap = aiCapability.get();
+        if (aiCap == null) {
             return false;
         }
 
@@ -81,13 +113,13 @@ public class TrackingGoal extends Goal {
      */
     @Override
     public boolean canContinueToUse() {
-        IAICapability aiCap = mob.getCapability(AICapabilityProvider.AI_CAPABILITY).orElse(null);
-        if (aiCap == null) {
+        // 如果状态改变（例如重新发现目标进入COMBAT），停止
+        if (!stateActive) {
             return false;
         }
 
-        // 如果状态改变（例如重新发现目标进入COMBAT），停止
-        if (aiCap.getState() != AIState.TRACKING) {
+        IAICapability aiCap = aiCapability.get();
+        if (aiCap == null) {
             return false;
         }
 
@@ -125,6 +157,7 @@ public class TrackingGoal extends Goal {
      */
     @Override
     public void stop() {
+        PathRequestQueue.cancel(mob);
         mob.getNavigation().stop();
         this.lastSoundPosition = null;
     }
@@ -134,12 +167,19 @@ public class TrackingGoal extends Goal {
      */
     @Override
     public void tick() {
+        long start = LogicaProfiler.begin();
+        tickGoal();
+        LogicaProfiler.end(start, LogicaProfiler.Section.GOAL_TICK, getClass(), mob);
+    }
+
+    private void tickGoal() {
         trackingTimer++;
 
         // 更新追踪计时器到Capability
-        mob.getCapability(AICapabilityProvider.AI_CAPABILITY).ifPresent(cap -> {
+        IAICapability cap = aiCapability.get();
+        if (cap != null) {
             cap.setTrackingTicks(trackingTimer);
-        });
+        }
 
         // 碰撞检测
         if (checkCollision()) {
@@ -155,13 +195,13 @@ public class TrackingGoal extends Goal {
             // 到达位置但没有发现目标
             if (distance < 3.0) {
                 // 🔥 改进: 到达后在附近游荡,而不是站着不动
-                if (mob.getNavigation().isDone()) {
+                if (PathRequestQueue.isNavigationIdle(mob)) {
                     // 在最后位置周围随机游荡
                     wanderAroundLastPosition();
                 }
             } else {
                 // 继续前往
-                if (mob.getNavigation().isDone()) {
+                if (PathRequestQueue.isNavigationIdle(mob)) {
                     navigateToLastSound();
                 }
             }
@@ -175,9 +215,13 @@ public class TrackingGoal extends Goal {
     private boolean checkCollision() {
         double collisionRadius = LogicaConfig.TRACKING_COLLISION_RADIUS.get();
 
-        // 查找附近的玩家
+        if (!(mob.level() instanceof ServerLevel serverLevel)) {
+            return false;
+        }
+
+        // 查找附近的玩家（空间索引只遍历覆盖范围的区段）
         AABB searchBox = mob.getBoundingBox().inflate(collisionRadius);
-        List<Player> nearbyPlayers = mob.level().getEntitiesOfClass(Player.class, searchBox);
+        List<Player> nearbyPlayers = AISpatialIndex.get(serverLevel).getPlayers(searchBox, player -> true);
 
         for (Player player : nearbyPlayers) {
             if (player.isSpectator()) {
@@ -192,11 +236,12 @@ public class TrackingGoal extends Goal {
             // 碰撞成功！重新获得仇恨
             mob.setTarget(player);
 
-            mob.getCapability(AICapabilityProvider.AI_CAPABILITY).ifPresent(cap -> {
-                cap.setState(AIState.COMBAT);
+            IAICapability cap = aiCapability.get();
+            if (cap != null) {
                 cap.setLastKnownTargetPos(player.blockPosition());
                 cap.setTrackingTicks(0);
-            });
+                cap.setState(AIState.COMBAT);
+            }
 
             if (LogicaConfig.shouldLogStateTransitions()) {
                 Logica.LOGGER.debug("Mob {} collision detected, reacquiring target {}",
@@ -217,10 +262,7 @@ public class TrackingGoal extends Goal {
             return;
         }
 
-        net.minecraft.world.level.pathfinder.Path path = mob.getNavigation().createPath(lastSoundPosition, 1);
-        if (path != null) {
-            mob.getNavigation().moveTo(path, LogicaConfig.TRACKING_SPEED_MULTIPLIER.get());
-        }
+        PathRequestQueue.navigateTo(mob, lastSoundPosition, 1, LogicaConfig.TRACKING_SPEED_MULTIPLIER.get(), null);
 
         // 朝向目标
         mob.getLookControl().setLookAt(
@@ -254,25 +296,17 @@ public class TrackingGoal extends Goal {
             (int)(lastSoundPosition.getZ() + offsetZ)
         );
 
-        net.minecraft.world.level.pathfinder.Path path = mob.getNavigation().createPath(wanderTarget, 1);
-        if (path != null) {
-            // 使用原版速度游荡 (不是追踪速度)
-            mob.getNavigation().moveTo(path, mob.getSpeed());
-        }
+        // 使用原版速度游荡 (不是追踪速度)
+        PathRequestQueue.navigateTo(mob, wanderTarget, 1, mob.getSpeed(), null);
     }
 
     /**
      * 监听声音事件（TRACKING状态下积极响应）
      */
-    @SubscribeEvent
+    @Override
     public void onVibrationPerceived(VibrationPerceivedEvent event) {
-        // 只处理自己的事件
-        if (event.getListener() != this.mob) {
-            return;
-        }
-
         // 只在TRACKING状态下响应
-        IAICapability aiCap = mob.getCapability(AICapabilityProvider.AI_CAPABILITY).orElse(null);
+        IAICapability aiCap = aiCapability.get();
         if (aiCap == null || aiCap.getState() != AIState.TRACKING) {
             return;
         }
@@ -0,0 +1,47 @@
+package com.sorcery.logica.jfr;
+
+import com.sorcery.logica.ai.AIState;
+import com.sorcery.logica.ai.AIStrategy;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Registered;
+import net.minecraft.world.entity.Mob;
+
+/**
+ * AI状态转换（AICapability.setState，持续时间包括状态监听器回调）
+ */
+@Name("logica.AIStateTransition")
+@Label("AI State Transition")
+@Description("A Logica AI state change request, including the state listener callbacks")
+@Registered(false)
+public class AIStateTransitionEvent extends LogicaEvent {
+
+    @Label("From")
+    String fromState;
+
+    @Label("To")
+    String toState;
+
+    @Label("Strategy")
+    String strategy;
+
+    @Label("Accepted")
+    boolean accepted;
+
+    @Label("Listeners")
+    int listeners;
+
+    /**
+     * 填写字段并提交（调用前应已调用 end，且 shouldCommit 为真）
+     */
+    public void record(Mob mob, AIState from, AIState to, AIStrategy strategy, boolean accepted, int listeners) {
+        setMob(mob);
+        this.fromState = from.name();
+        this.toState = to.name();
+        this.strategy = strategy.name();
+        this.accepted = accepted;
+        this.listeners = listeners;
+        commit();
+    }
+}
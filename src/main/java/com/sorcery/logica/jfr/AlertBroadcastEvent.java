@@ -0,0 +1,38 @@
+package com.sorcery.logica.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Registered;
+import net.minecraft.world.entity.Mob;
+
+/**
+ * 哨兵警报传播（位置和类型为同一tick内第一个发出警报的怪物）
+ */
+@Name("logica.AlertBroadcast")
+@Label("Sentries Alert Broadcast")
+@Description("A sentries mob alerting nearby strategy mobs")
+@Registered(false)
+public class AlertBroadcastEvent extends LogicaEvent {
+
+    @Label("Radius")
+    double radius;
+
+    @Label("Alerted Mobs")
+    int alerted;
+
+    @Label("Coalesced Sources")
+    @Description("Sentries that spotted the same target in the same tick")
+    int sources;
+
+    /**
+     * 填写字段并提交（调用前应已调用 end，且 shouldCommit 为真）
+     */
+    public void record(Mob alerter, double radius, int alerted, int sources) {
+        setMob(alerter);
+        this.radius = radius;
+        this.alerted = alerted;
+        this.sources = sources;
+        commit();
+    }
+}
@@ -0,0 +1,49 @@
+package com.sorcery.logica.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Registered;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.entity.Mob;
+
+/**
+ * Logica JFR事件基类：记录相关怪物类型和位置
+ *
+ * <p>所有事件都不自动注册，由 {@link LogicaJfr} 按配置注册
+ */
+@Category("Logica")
+@Registered(false)
+abstract class LogicaEvent extends Event {
+
+    @Label("Mob Type")
+    String mobType;
+
+    @Label("X")
+    int x;
+
+    @Label("Y")
+    int y;
+
+    @Label("Z")
+    int z;
+
+    /**
+     * 记录怪物类型和当前方块位置
+     */
+    void setMob(Mob mob) {
+        if (mob != null) {
+            mobType = EntityType.getKey(mob.getType()).toString();
+            setPosition(mob.blockPosition());
+        }
+    }
+
+    void setPosition(BlockPos pos) {
+        if (pos != null) {
+            x = pos.getX();
+            y = pos.getY();
+            z = pos.getZ();
+        }
+    }
+}
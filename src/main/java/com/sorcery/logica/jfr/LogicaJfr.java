@@ -0,0 +1,83 @@
+package com.sorcery.logica.jfr;
+
+import com.sorcery.logica.Logica;
+import com.sorcery.logica.config.LogicaConfig;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.config.ModConfig;
+import net.minecraftforge.fml.event.config.ModConfigEvent;
+
+import java.util.List;
+
+/**
+ * Java Flight Recorder事件开关
+ *
+ * <h2>开销</h2>
+ * <ul>
+ *   <li>配置关闭时事件类不注册，调用处只读取一个volatile布尔值，不创建事件对象</li>
+ *   <li>配置开启但没有正在进行的录制（或录制中禁用了该事件）时，事件对象不逃逸，
+ *       只有 shouldCommit 为真时才填写字段</li>
+ * </ul>
+ *
+ * <p>事件名称以 {@code logica.} 开头，在JMC中位于 Logica 分类下
+ */
+@Mod.EventBusSubscriber(modid = Logica.MOD_ID, bus = Mod.EventBusSubscriber.Bus.MOD)
+public class LogicaJfr {
+
+    private static final List<Class<? extends Event>> EVENTS = List.of(
+            AIStateTransitionEvent.class,
+            PathfindEvent.class,
+            WaypointSearchEvent.class,
+            AlertBroadcastEvent.class,
+            StrategyApplicationEvent.class
+    );
+
+    private static volatile boolean enabled;
+
+    /**
+     * JFR事件是否已按配置启用（调用处据此决定是否创建事件）
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    @SubscribeEvent
+    public static void onConfigLoading(ModConfigEvent.Loading event) {
+        apply(event.getConfig());
+    }
+
+    @SubscribeEvent
+    public static void onConfigReloading(ModConfigEvent.Reloading event) {
+        apply(event.getConfig());
+    }
+
+    /**
+     * 按配置注册或注销事件类
+     */
+    private static synchronized void apply(ModConfig config) {
+        if (config.getSpec() != LogicaConfig.SPEC) {
+            return;
+        }
+
+        boolean wanted = LogicaConfig.ENABLE_JFR_EVENTS.get();
+        if (wanted == enabled) {
+            return;
+        }
+        if (wanted && !FlightRecorder.isAvailable()) {
+            Logica.LOGGER.warn("JFR events are enabled in the config but Flight Recorder is not available in this JVM");
+            return;
+        }
+
+        for (Class<? extends Event> eventClass : EVENTS) {
+            if (wanted) {
+                FlightRecorder.register(eventClass);
+            } else {
+                FlightRecorder.unregister(eventClass);
+            }
+        }
+        enabled = wanted;
+        Logica.LOGGER.info("Logica JFR events {}", wanted ? "registered" : "unregistered");
+    }
+}
@@ -0,0 +1,59 @@
+package com.sorcery.logica.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Registered;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.entity.Mob;
+import net.minecraft.world.level.pathfinder.Path;
+
+/**
+ * 一次寻路（寻路请求队列执行goal提交的createPath，可能命中路径缓存）
+ */
+@Name("logica.Pathfind")
+@Label("Pathfind")
+@Description("A createPath call submitted by a Logica goal, run from the path request queue")
+@Registered(false)
+public class PathfindEvent extends LogicaEvent {
+
+    @Label("Found")
+    boolean found;
+
+    @Label("Reaches Target")
+    boolean reachesTarget;
+
+    @Label("Node Count")
+    int nodeCount;
+
+    @Label("Target X")
+    int targetX;
+
+    @Label("Target Y")
+    int targetY;
+
+    @Label("Target Z")
+    int targetZ;
+
+    @Label("Queued Requests")
+    @Description("Requests still waiting in this dimension's queue")
+    int queued;
+
+    /**
+     * 填写字段并提交（调用前应已调用 end，且 shouldCommit 为真）
+     */
+    public void record(Mob mob, Path path, int queued) {
+        setMob(mob);
+        if (path != null) {
+            BlockPos target = path.getTarget();
+            this.found = true;
+            this.reachesTarget = path.canReach();
+            this.nodeCount = path.getNodeCount();
+            this.targetX = target.getX();
+            this.targetY = target.getY();
+            this.targetZ = target.getZ();
+        }
+        this.queued = queued;
+        commit();
+    }
+}
@@ -0,0 +1,40 @@
+package com.sorcery.logica.jfr;
+
+import com.sorcery.logica.ai.AIStrategy;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Registered;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.entity.Mob;
+
+/**
+ * 标记方块对怪物应用策略（位置为标记方块）
+ */
+@Name("logica.StrategyApplication")
+@Label("Strategy Application")
+@Description("A strategy marker block applying its strategy to a mob")
+@Registered(false)
+public class StrategyApplicationEvent extends LogicaEvent {
+
+    @Label("Strategy")
+    String strategy;
+
+    @Label("Area Team")
+    int team;
+
+    @Label("Waypoints")
+    int waypoints;
+
+    /**
+     * 填写字段并提交（调用前应已调用 end，且 shouldCommit 为真）
+     */
+    public void record(Mob mob, BlockPos markerPos, AIStrategy strategy, int team, int waypoints) {
+        setMob(mob);
+        setPosition(markerPos);
+        this.strategy = strategy.name();
+        this.team = team;
+        this.waypoints = waypoints;
+        commit();
+    }
+}
@@ -0,0 +1,42 @@
+package com.sorcery.logica.jfr;
+
+import com.sorcery.logica.ai.AIStrategy;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Registered;
+import net.minecraft.core.BlockPos;
+
+/**
+ * 一次路径点BFS（同步搜索或后台线程上的快照搜索）
+ */
+@Name("logica.WaypointSearch")
+@Label("Waypoint Search")
+@Description("A breadth-first waypoint search from a strategy marker")
+@Registered(false)
+public class WaypointSearchEvent extends LogicaEvent {
+
+    @Label("Strategy")
+    String strategy;
+
+    @Label("Async")
+    boolean async;
+
+    @Label("Waypoints Found")
+    int found;
+
+    @Label("Search Radius")
+    int radius;
+
+    /**
+     * 填写字段并提交（调用前应已调用 end，且 shouldCommit 为真）
+     */
+    public void record(BlockPos markerPos, AIStrategy strategy, boolean async, int found, int radius) {
+        setPosition(markerPos);
+        this.strategy = strategy.name();
+        this.async = async;
+        this.found = found;
+        this.radius = radius;
+        commit();
+    }
+}
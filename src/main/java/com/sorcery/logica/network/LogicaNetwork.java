@@ -0,0 +1,61 @@
+package com.sorcery.logica.network;
+
+import com.sorcery.logica.Logica;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraftforge.network.NetworkDirection;
+import net.minecraftforge.network.NetworkRegistry;
+import net.minecraftforge.network.PacketDistributor;
+import net.minecraftforge.network.simple.SimpleChannel;
+
+/**
+ * 网络通道 - Logica的所有数据包
+ *
+ * <h2>数据包</h2>
+ * <ul>
+ *   <li>{@link RouteOverlayRequestPacket}（客户端→服务器）：打开/关闭路线可视化</li>
+ *   <li>{@link RouteOverlayPacket}（服务器→客户端）：路线和怪物目标的增量更新</li>
+ * </ul>
+ */
+public class LogicaNetwork {
+
+    private static final String PROTOCOL_VERSION = "1";
+
+    public static final SimpleChannel CHANNEL = NetworkRegistry.newSimpleChannel(
+            new ResourceLocation(Logica.MOD_ID, "main"),
+            () -> PROTOCOL_VERSION,
+            PROTOCOL_VERSION::equals,
+            PROTOCOL_VERSION::equals
+    );
+
+    /**
+     * 注册数据包（通用设置阶段调用）
+     */
+    public static void register() {
+        int id = 0;
+        CHANNEL.messageBuilder(RouteOverlayRequestPacket.class, id++, NetworkDirection.PLAY_TO_SERVER)
+                .encoder(RouteOverlayRequestPacket::encode)
+                .decoder(RouteOverlayRequestPacket::decode)
+                .consumerMainThread(RouteOverlayRequestPacket::handle)
+                .add();
+        CHANNEL.messageBuilder(RouteOverlayPacket.class, id++, NetworkDirection.PLAY_TO_CLIENT)
+                .encoder(RouteOverlayPacket::encode)
+                .decoder(RouteOverlayPacket::decode)
+                .consumerMainThread(RouteOverlayPacket::handle)
+                .add();
+    }
+
+    /**
+     * 发送数据包给指定玩家
+     */
+    public static void sendToPlayer(ServerPlayer player, Object packet) {
+        CHANNEL.send(PacketDistributor.PLAYER.with(() -> player), packet);
+    }
+
+    /**
+     * 发送数据包给服务器
+     */
+    public static void sendToServer(Object packet) {
+        CHANNEL.sendToServer(packet);
+    }
+}
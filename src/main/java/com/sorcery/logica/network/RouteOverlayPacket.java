@@ -0,0 +1,148 @@
+package com.sorcery.logica.network;
+
+import com.sorcery.logica.ai.AIStrategy;
+import com.sorcery.logica.client.RouteOverlay;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.fml.DistExecutor;
+import net.minecraftforge.network.NetworkEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * 服务器→客户端：路线可视化的增量更新
+ *
+ * <p>路线和怪物都用编号引用，每个玩家的编号独立分配（见 {@link RouteOverlayTracker}）。
+ * 一条路线只在第一次出现在玩家附近时发送完整的路径点，之后只发送怪物目标的变化
+ */
+public class RouteOverlayPacket {
+
+    /**
+     * 路线
+     *
+     * @param id 路线编号
+     * @param markerPos 策略标记方块位置
+     * @param nodes 路径点（按怪物使用的顺序：巡逻为环路顺序，哨兵为搜索结果顺序）
+     * @param links 每个路径点连向的路径点下标（-1表示连向标记方块）
+     */
+    public record RouteEntry(int id, AIStrategy strategy, int team, long markerPos, long[] nodes, int[] links) {
+    }
+
+    /**
+     * 怪物当前的路线和目标路径点
+     *
+     * @param routeId 路线编号
+     * @param target 目标路径点下标（-1表示没有目标）
+     */
+    public record MobEntry(int entityId, int routeId, int target) {
+    }
+
+    // 丢弃客户端已有的全部数据
+    private final boolean reset;
+    private final IntArrayList removedRoutes;
+    private final List<RouteEntry> routes;
+    private final IntArrayList removedMobs;
+    private final List<MobEntry> mobs;
+
+    public RouteOverlayPacket(boolean reset) {
+        this(reset, new IntArrayList(), new ArrayList<>(), new IntArrayList(), new ArrayList<>());
+    }
+
+    private RouteOverlayPacket(boolean reset, IntArrayList removedRoutes, List<RouteEntry> routes,
+                               IntArrayList removedMobs, List<MobEntry> mobs) {
+        this.reset = reset;
+        this.removedRoutes = removedRoutes;
+        this.routes = routes;
+        this.removedMobs = removedMobs;
+        this.mobs = mobs;
+    }
+
+    public boolean isReset() {
+        return reset;
+    }
+
+    public IntArrayList getRemovedRoutes() {
+        return removedRoutes;
+    }
+
+    public List<RouteEntry> getRoutes() {
+        return routes;
+    }
+
+    public IntArrayList getRemovedMobs() {
+        return removedMobs;
+    }
+
+    public List<MobEntry> getMobs() {
+        return mobs;
+    }
+
+    /**
+     * 是否没有任何内容需要发送
+     */
+    public boolean isEmpty() {
+        return !reset && removedRoutes.isEmpty() && routes.isEmpty() && removedMobs.isEmpty() && mobs.isEmpty();
+    }
+
+    // ==================== 编解码 ====================
+
+    public void encode(FriendlyByteBuf buf) {
+        buf.writeBoolean(reset);
+
+        buf.writeVarInt(removedRoutes.size());
+        removedRoutes.forEach(buf::writeVarInt);
+        buf.writeVarInt(routes.size());
+        for (RouteEntry route : routes) {
+            buf.writeVarInt(route.id());
+            buf.writeEnum(route.strategy());
+            buf.writeByte(route.team());
+            buf.writeLong(route.markerPos());
+            buf.writeLongArray(route.nodes());
+            buf.writeVarIntArray(route.links());
+        }
+
+        buf.writeVarInt(removedMobs.size());
+        removedMobs.forEach(buf::writeVarInt);
+        buf.writeVarInt(mobs.size());
+        for (MobEntry mob : mobs) {
+            buf.writeVarInt(mob.entityId());
+            buf.writeVarInt(mob.routeId());
+            buf.writeVarInt(mob.target());
+        }
+    }
+
+    public static RouteOverlayPacket decode(FriendlyByteBuf buf) {
+        boolean reset = buf.readBoolean();
+
+        int count = buf.readVarInt();
+        IntArrayList removedRoutes = new IntArrayList(count);
+        for (int i = 0; i < count; i++) {
+            removedRoutes.add(buf.readVarInt());
+        }
+        count = buf.readVarInt();
+        List<RouteEntry> routes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            routes.add(new RouteEntry(buf.readVarInt(), buf.readEnum(AIStrategy.class), buf.readByte(),
+                    buf.readLong(), buf.readLongArray(), buf.readVarIntArray()));
+        }
+
+        count = buf.readVarInt();
+        IntArrayList removedMobs = new IntArrayList(count);
+        for (int i = 0; i < count; i++) {
+            removedMobs.add(buf.readVarInt());
+        }
+        count = buf.readVarInt();
+        List<MobEntry> mobs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            mobs.add(new MobEntry(buf.readVarInt(), buf.readVarInt(), buf.readVarInt()));
+        }
+        return new RouteOverlayPacket(reset, removedRoutes, routes, removedMobs, mobs);
+    }
+
+    public void handle(Supplier<NetworkEvent.Context> context) {
+        DistExecutor.unsafeRunWhenOn(Dist.CLIENT, () -> () -> RouteOverlay.apply(this));
+    }
+}
@@ -0,0 +1,35 @@
+package com.sorcery.logica.network;
+
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraftforge.network.NetworkEvent;
+
+import java.util.function.Supplier;
+
+/**
+ * 客户端→服务器：打开或关闭路线可视化
+ *
+ * @param enabled 是否接收路线数据
+ */
+public record RouteOverlayRequestPacket(boolean enabled) {
+
+    public void encode(FriendlyByteBuf buf) {
+        buf.writeBoolean(enabled);
+    }
+
+    public static RouteOverlayRequestPacket decode(FriendlyByteBuf buf) {
+        return new RouteOverlayRequestPacket(buf.readBoolean());
+    }
+
+    public void handle(Supplier<NetworkEvent.Context> context) {
+        ServerPlayer player = context.get().getSender();
+        if (player == null) {
+            return;
+        }
+        if (enabled) {
+            RouteOverlayTracker.subscribe(player);
+        } else {
+            RouteOverlayTracker.unsubscribe(player);
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.sorcery.logica.network;
+
+import com.sorcery.logica.Logica;
+import com.sorcery.logica.ai.AIStrategy;
+import com.sorcery.logica.capability.AICapabilityProvider;
+import com.sorcery.logica.capability.IAICapability;
+import com.sorcery.logica.config.LogicaConfig;
+import com.sorcery.logica.util.AISpatialIndex;
+import com.sorcery.logica.util.Route;
+import it.unimi.dsi.fastutil.ints.Int2LongMap;
+import it.unimi.dsi.fastutil.ints.Int2LongOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.objects.Reference2IntMap;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.entity.Mob;
+import net.minecraft.world.level.Level;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.entity.player.PlayerEvent;
+import net.minecraftforge.event.server.ServerStoppedEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 路线可视化同步 - 为打开了路线可视化的管理员定期发送附近路线和怪物目标的增量
+ *
+ * <h2>工作原理</h2>
+ * <ul>
+ *   <li>客户端打开可视化时发送 {@link RouteOverlayRequestPacket}，需要权限等级2</li>
+ *   <li>每 routeOverlaySyncInterval tick 对每个观察者查询一次空间索引，所有变化合并为一个数据包</li>
+ *   <li>路线按共享的路径点列表实例识别，每个观察者只收到一次完整路线；路线离开范围后通知客户端丢弃</li>
+ *   <li>怪物只在路线或目标路径点变化时发送</li>
+ *   <li>切换维度时重新同步</li>
+ * </ul>
+ */
+@Mod.EventBusSubscriber(modid = Logica.MOD_ID, bus = Mod.EventBusSubscriber.Bus.FORGE)
+public class RouteOverlayTracker {
+
+    private static final int REQUIRED_PERMISSION = 2;
+
+    private static final Map<UUID, Viewer> VIEWERS = new HashMap<>();
+
+    private static int tickCounter;
+
+    /**
+     * 一个观察者的客户端已知状态
+     */
+    private static final class Viewer {
+        private ResourceKey<Level> dimension;
+        private boolean needsReset = true;
+
+        // 路径点列表实例 -> 路线编号
+        private final Reference2IntOpenHashMap<List<BlockPos>> routeIds = new Reference2IntOpenHashMap<>();
+        private int nextRouteId;
+
+        // 实体ID -> (路线编号 << 32 | 目标下标)
+        private final Int2LongOpenHashMap mobs = new Int2LongOpenHashMap();
+
+        Viewer() {
+            routeIds.defaultReturnValue(-1);
+            mobs.defaultReturnValue(Long.MIN_VALUE);
+        }
+
+        void reset(ResourceKey<Level> dimension) {
+            this.dimension = dimension;
+            this.needsReset = false;
+            routeIds.clear();
+            nextRouteId = 0;
+            mobs.clear();
+        }
+    }
+
+    // ==================== 订阅 ====================
+
+    public static void subscribe(ServerPlayer player) {
+        if (!player.hasPermissions(REQUIRED_PERMISSION)) {
+            return;
+        }
+        // 重新订阅时完整同步一次
+        VIEWERS.put(player.getUUID(), new Viewer());
+    }
+
+    public static void unsubscribe(ServerPlayer player) {
+        VIEWERS.remove(player.getUUID());
+    }
+
+    @SubscribeEvent
+    public static void onPlayerLoggedOut(PlayerEvent.PlayerLoggedOutEvent event) {
+        VIEWERS.remove(event.getEntity().getUUID());
+    }
+
+    @SubscribeEvent
+    public static void onServerStopped(ServerStoppedEvent event) {
+        VIEWERS.clear();
+    }
+
+    // ==================== 同步 ====================
+
+    @SubscribeEvent
+    public static void onServerTick(TickEvent.ServerTickEvent event) {
+        if (event.phase != TickEvent.Phase.END || VIEWERS.isEmpty()) {
+            return;
+        }
+        if (++tickCounter < LogicaConfig.ROUTE_OVERLAY_SYNC_INTERVAL.get()) {
+            return;
+        }
+        tickCounter = 0;
+
+        MinecraftServer server = event.getServer();
+        Iterator<Map.Entry<UUID, Viewer>> it = VIEWERS.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<UUID, Viewer> entry = it.next();
+            ServerPlayer player = server.getPlayerList().getPlayer(entry.getKey());
+            if (player == null || !player.hasPermissions(REQUIRED_PERMISSION)) {
+                it.remove();
+                continue;
+            }
+
+            RouteOverlayPacket packet = buildDelta(player, entry.getValue());
+            if (!packet.isEmpty()) {
+                LogicaNetwork.sendToPlayer(player, packet);
+            }
+        }
+    }
+
+    /**
+     * 对比观察者的已知状态，生成增量数据包并更新已知状态
+     */
+    private static RouteOverlayPacket buildDelta(ServerPlayer player, Viewer viewer) {
+        ServerLevel level = player.serverLevel();
+        boolean reset = viewer.needsReset || !level.dimension().equals(viewer.dimension);
+        if (reset) {
+            viewer.reset(level.dimension());
+        }
+        RouteOverlayPacket packet = new RouteOverlayPacket(reset);
+
+        IntOpenHashSet usedRoutes = new IntOpenHashSet();
+        IntOpenHashSet seenMobs = new IntOpenHashSet();
+        double range = LogicaConfig.ROUTE_OVERLAY_RANGE.get();
+        for (Mob mob : AISpatialIndex.get(level).getMobs(player.getBoundingBox().inflate(range), mob -> true)) {
+            IAICapability aiCap = mob.getCapability(AICapabilityProvider.AI_CAPABILITY).orElse(null);
+            if (aiCap == null) {
+                continue;
+            }
+            AIStrategy strategy = aiCap.getStrategy();
+            Route route = aiCap.getRoute();
+            BlockPos markerPos = aiCap.getStrategyMarkerPos();
+            if (route == null || route.isEmpty() || markerPos == null
+                    || (strategy != AIStrategy.PATROL && strategy != AIStrategy.SENTRIES)) {
+                continue;
+            }
+
+            // 与Goal使用同一个列表，目标下标才有意义
+            List<BlockPos> nodes = strategy == AIStrategy.PATROL ? route.getPatrolOrder() : route.getWaypoints();
+            int routeId = viewer.routeIds.getInt(nodes);
+            if (routeId < 0) {
+                routeId = viewer.nextRouteId++;
+                viewer.routeIds.put(nodes, routeId);
+                packet.getRoutes().add(describeRoute(routeId, strategy, aiCap.getAreaTeam(), markerPos, route, nodes));
+            }
+            usedRoutes.add(routeId);
+
+            int index = aiCap.getCurrentWaypointIndex();
+            int target = index >= 0 && index < nodes.size() ? index : -1;
+            long state = ((long) routeId << 32) | (target & 0xFFFFFFFFL);
+            seenMobs.add(mob.getId());
+            if (viewer.mobs.put(mob.getId(), state) != state) {
+                packet.getMobs().add(new RouteOverlayPacket.MobEntry(mob.getId(), routeId, target));
+            }
+        }
+
+        // 离开范围的怪物和不再被引用的路线
+        Iterator<Int2LongMap.Entry> mobIt = viewer.mobs.int2LongEntrySet().iterator();
+        while (mobIt.hasNext()) {
+            int entityId = mobIt.next().getIntKey();
+            if (!seenMobs.contains(entityId)) {
+                mobIt.remove();
+                packet.getRemovedMobs().add(entityId);
+            }
+        }
+        Iterator<Reference2IntMap.Entry<List<BlockPos>>> routeIt = viewer.routeIds.reference2IntEntrySet().iterator();
+        while (routeIt.hasNext()) {
+            int routeId = routeIt.next().getIntValue();
+            if (!usedRoutes.contains(routeId)) {
+                routeIt.remove();
+                packet.getRemovedRoutes().add(routeId);
+            }
+        }
+        return packet;
+    }
+
+    /**
+     * 描述一条路线的路径点和连线
+     *
+     * <p>巡逻：按环路顺序首尾相连。
+     * 哨兵：使用路线缓存的连线（{@link Route#getSentriesLinks}），每条路线只计算一次
+     */
+    private static RouteOverlayPacket.RouteEntry describeRoute(int routeId, AIStrategy strategy, int team,
+                                                               BlockPos markerPos, Route route, List<BlockPos> nodes) {
+        int count = nodes.size();
+        long[] packed = new long[count];
+        for (int i = 0; i < count; i++) {
+            packed[i] = nodes.get(i).asLong();
+        }
+
+        int[] links;
+        if (strategy == AIStrategy.PATROL) {
+            links = new int[count];
+            for (int i = 0; i < count; i++) {
+                links[i] = count > 1 ? (i + 1) % count : -1;
+            }
+        } else {
+            links = route.getSentriesLinks(markerPos);
+        }
+        return new RouteOverlayPacket.RouteEntry(routeId, strategy, team, markerPos.asLong(), packed, links);
+    }
+}
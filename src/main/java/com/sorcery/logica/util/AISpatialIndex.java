@@ -0,0 +1,173 @@
+package com.sorcery.logica.util;
+
+import it.unimi.dsi.fastutil.ints.Int2LongOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.core.SectionPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.Mob;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.phys.AABB;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * AI空间索引 - 每个维度一份，按区段（16x16x16）分桶
+ *
+ * <h2>收录对象</h2>
+ * <ul>
+ *   <li>带有策略（GUARD/SENTRIES/PATROL）的怪物</li>
+ *   <li>玩家</li>
+ * </ul>
+ *
+ * <h2>维护方式</h2>
+ * <ul>
+ *   <li>加入世界/应用策略时加入，离开世界时移除</li>
+ *   <li>跨越区段边界时（EntityEvent.EnteringSection）移动分桶</li>
+ * </ul>
+ *
+ * <p>查询只遍历范围覆盖的区段，开销与候选数量相关，而与世界实体密度无关
+ */
+public class AISpatialIndex {
+
+    private static final Map<ResourceKey<Level>, AISpatialIndex> INDICES = new HashMap<>();
+
+    // 区段 -> 实体
+    private final Long2ObjectOpenHashMap<List<Mob>> mobs = new Long2ObjectOpenHashMap<>();
+    private final Long2ObjectOpenHashMap<List<Player>> players = new Long2ObjectOpenHashMap<>();
+
+    // 实体ID -> 当前所在区段
+    private final Int2LongOpenHashMap sections = new Int2LongOpenHashMap();
+
+    /**
+     * 获取维度对应的索引（不存在时创建）
+     */
+    public static AISpatialIndex get(ServerLevel level) {
+        return INDICES.computeIfAbsent(level.dimension(), key -> new AISpatialIndex());
+    }
+
+    /**
+     * 清空所有维度的索引（服务器关闭时）
+     */
+    public static void clearAll() {
+        INDICES.clear();
+    }
+
+    // ==================== 增删 ====================
+
+    public boolean contains(Entity entity) {
+        return sections.containsKey(entity.getId());
+    }
+
+    public void addMob(Mob mob) {
+        add(mobs, mob);
+    }
+
+    public void addPlayer(Player player) {
+        add(players, player);
+    }
+
+    private <T extends Entity> void add(Long2ObjectOpenHashMap<List<T>> buckets, T entity) {
+        if (contains(entity)) {
+            return;
+        }
+        long section = SectionPos.asLong(entity.blockPosition());
+        sections.put(entity.getId(), section);
+        buckets.computeIfAbsent(section, k -> new ArrayList<>()).add(entity);
+    }
+
+    public void remove(Entity entity) {
+        if (!contains(entity)) {
+            return;
+        }
+        long section = sections.remove(entity.getId());
+        if (entity instanceof Player player) {
+            removeFromBucket(players, section, player);
+        } else if (entity instanceof Mob mob) {
+            removeFromBucket(mobs, section, mob);
+        }
+    }
+
+    /**
+     * 实体跨越区段边界
+     */
+    public void move(Entity entity, long newSection) {
+        int id = entity.getId();
+        if (!sections.containsKey(id)) {
+            return;
+        }
+        long oldSection = sections.put(id, newSection);
+        if (oldSection == newSection) {
+            return;
+        }
+        if (entity instanceof Player player) {
+            removeFromBucket(players, oldSection, player);
+            players.computeIfAbsent(newSection, k -> new ArrayList<>()).add(player);
+        } else if (entity instanceof Mob mob) {
+            removeFromBucket(mobs, oldSection, mob);
+            mobs.computeIfAbsent(newSection, k -> new ArrayList<>()).add(mob);
+        }
+    }
+
+    private static <T extends Entity> void removeFromBucket(Long2ObjectOpenHashMap<List<T>> buckets, long section, T entity) {
+        List<T> bucket = buckets.get(section);
+        if (bucket != null && bucket.remove(entity) && bucket.isEmpty()) {
+            buckets.remove(section);
+        }
+    }
+
+    // ==================== 查询 ====================
+
+    /**
+     * 查询碰撞箱与范围相交的策略怪物
+     */
+    public List<Mob> getMobs(AABB box, Predicate<? super Mob> filter) {
+        return collect(mobs, box, filter);
+    }
+
+    /**
+     * 查询碰撞箱与范围相交的玩家
+     */
+    public List<Player> getPlayers(AABB box, Predicate<? super Player> filter) {
+        return collect(players, box, filter);
+    }
+
+    private static <T extends Entity> List<T> collect(Long2ObjectOpenHashMap<List<T>> buckets, AABB box, Predicate<? super T> filter) {
+        List<T> result = new ArrayList<>();
+        if (buckets.isEmpty()) {
+            return result;
+        }
+
+        // 实体碰撞箱可能跨出所在区段，向外多扩展2格
+        int minX = SectionPos.blockToSectionCoord(box.minX - 2.0);
+        int minY = SectionPos.blockToSectionCoord(box.minY - 2.0);
+        int minZ = SectionPos.blockToSectionCoord(box.minZ - 2.0);
+        int maxX = SectionPos.blockToSectionCoord(box.maxX + 2.0);
+        int maxY = SectionPos.blockToSectionCoord(box.maxY + 2.0);
+        int maxZ = SectionPos.blockToSectionCoord(box.maxZ + 2.0);
+
+        for (int x = minX; x <= maxX; x++) {
+            for (int z = minZ; z <= maxZ; z++) {
+                for (int y = minY; y <= maxY; y++) {
+                    List<T> bucket = buckets.get(SectionPos.asLong(x, y, z));
+                    if (bucket == null) {
+                        continue;
+                    }
+                    for (int i = 0; i < bucket.size(); i++) {
+                        T entity = bucket.get(i);
+                        if (!entity.isRemoved() && entity.getBoundingBox().intersects(box) && filter.test(entity)) {
+                            result.add(entity);
+                        }
+                    }
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,144 @@
+package com.sorcery.logica.util;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.levelgen.Heightmap;
+
+/**
+ * 地面吸附 - 把位置向下调整到地面
+ *
+ * <h2>加速方式</h2>
+ * <ul>
+ *   <li>WORLD_SURFACE高度图以上全是空气，直接从最高的非空气方块开始</li>
+ *   <li>只有空气的区段（hasOnlyAir）整段跳过</li>
+ *   <li>直接读取区块的区段，不经过Level.getBlockState的逐次区块查找</li>
+ * </ul>
+ *
+ * <p>不缓存结果：/setblock、结构放置等标志位2的方块变化不会触发任何事件，缓存无法可靠作废
+ *
+ * <p>判定条件与原先逐格向下扫描完全相同，只是跳过了不可能满足条件的位置
+ */
+public class GroundSnapper {
+
+    /** 没有找到地面 */
+    private static final int NOT_FOUND = Integer.MIN_VALUE;
+
+    private static final BlockState VOID_AIR = Blocks.VOID_AIR.defaultBlockState();
+
+    // ==================== 查询 ====================
+
+    /**
+     * 从指定位置向下查找第一个完整碰撞箱的固体方块，返回它上方一格（用于路径点）
+     *
+     * @return 地面位置；一直到世界底部都没有地面时返回null
+     */
+    public static BlockPos snapToFullBlock(Level level, BlockPos pos) {
+        int y = scanFullBlock(level, pos);
+        return y == NOT_FOUND ? null : new BlockPos(pos.getX(), y, pos.getZ());
+    }
+
+    /**
+     * 在起始位置向下 maxDepth 格内查找"本身是空气、下方是非空气固体方块"的位置（用于调查目标）
+     *
+     * @param maxDepth 最多检查的格数
+     * @return 地面位置；范围内没有地面时返回null
+     */
+    public static BlockPos snapToSurface(Level level, BlockPos pos, int maxDepth) {
+        int y = scanSurface(level, pos, maxDepth);
+        return y == NOT_FOUND ? null : new BlockPos(pos.getX(), y, pos.getZ());
+    }
+
+    // ==================== 扫描 ====================
+
+    /**
+     * 等价于从 pos.y 逐格向下到 minBuildHeight，找到第一个
+     * {@code !isAir() && isCollisionShapeFullBlock} 的方块
+     */
+    private static int scanFullBlock(Level level, BlockPos pos) {
+        int x = pos.getX();
+        int z = pos.getZ();
+        int minY = level.getMinBuildHeight();
+        LevelChunk chunk = level.getChunkAt(pos);
+
+        // 高度图（最高非空气方块）以上全是空气；建筑高度以上是虚空空气
+        int y = Math.min(pos.getY(), chunk.getHeight(Heightmap.Types.WORLD_SURFACE, x & 15, z & 15));
+        y = Math.min(y, level.getMaxBuildHeight() - 1);
+        BlockPos.MutableBlockPos checkPos = new BlockPos.MutableBlockPos();
+
+        while (y >= minY) {
+            LevelChunkSection section = getSection(chunk, y);
+            if (section == null || section.hasOnlyAir()) {
+                // 跳到下一个区段的顶部
+                y = SectionPos.sectionToBlockCoord(SectionPos.blockToSectionCoord(y)) - 1;
+                continue;
+            }
+
+            BlockState state = section.getBlockState(x & 15, y & 15, z & 15);
+            if (!state.isAir() && state.isCollisionShapeFullBlock(level, checkPos.set(x, y, z))) {
+                return y + 1;
+            }
+            y--;
+        }
+        return NOT_FOUND;
+    }
+
+    /**
+     * 等价于 i = 0..maxDepth-1 逐格检查 {@code check = pos.y - i}：
+     * check 是空气，且 check-1 不是空气并且 isSolid
+     */
+    private static int scanSurface(Level level, BlockPos pos, int maxDepth) {
+        int x = pos.getX();
+        int z = pos.getZ();
+        int lowest = pos.getY() - maxDepth + 1;
+        int minY = level.getMinBuildHeight();
+        LevelChunk chunk = level.getChunkAt(pos);
+
+        // 下方方块必须是非空气，因此 check 不会高于最高非空气方块的上一格；
+        // 下方方块也不会在建筑高度以上
+        int check = Math.min(pos.getY(), chunk.getHeight(Heightmap.Types.WORLD_SURFACE, x & 15, z & 15) + 1);
+        check = Math.min(check, level.getMaxBuildHeight());
+
+        while (check >= lowest) {
+            int belowY = check - 1;
+            if (belowY < minY) {
+                // 世界底部以下是虚空空气，不会再满足条件
+                return NOT_FOUND;
+            }
+
+            LevelChunkSection belowSection = getSection(chunk, belowY);
+            if (belowSection == null || belowSection.hasOnlyAir()) {
+                // 下方方块落在全空气区段内的 check 都不满足，跳到该区段底部
+                check = SectionPos.sectionToBlockCoord(SectionPos.blockToSectionCoord(belowY));
+                continue;
+            }
+
+            BlockState below = belowSection.getBlockState(x & 15, belowY & 15, z & 15);
+            if (!below.isAir() && below.isSolid() && getBlockState(level, chunk, x, check, z).isAir()) {
+                return check;
+            }
+            check--;
+        }
+        return NOT_FOUND;
+    }
+
+    /**
+     * 读取区块内的方块（超出建筑高度时与Level.getBlockState一样视为虚空空气）
+     */
+    private static BlockState getBlockState(Level level, LevelChunk chunk, int x, int y, int z) {
+        LevelChunkSection section = getSection(chunk, y);
+        return section != null ? section.getBlockState(x & 15, y & 15, z & 15) : VOID_AIR;
+    }
+
+    /**
+     * 获取高度所在的区段（超出建筑高度时返回null）
+     */
+    private static LevelChunkSection getSection(LevelChunk chunk, int y) {
+        int index = chunk.getSectionIndex(y);
+        return index >= 0 && index < chunk.getSectionsCount() ? chunk.getSection(index) : null;
+    }
+}
@@ -0,0 +1,264 @@
+package com.sorcery.logica.util;
+
+import com.sorcery.logica.ai.AIStrategy;
+import com.sorcery.logica.capability.AICapabilityProvider;
+import com.sorcery.logica.capability.IAICapability;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.world.entity.Mob;
+import net.minecraft.world.level.Level;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 内置AI性能分析器 - 基于nanoTime的分段计时，按 (分段, 所属类) 聚合为对数直方图
+ *
+ * <h2>用法</h2>
+ * <pre>
+ * long start = LogicaProfiler.begin();
+ * ... 被测代码 ...
+ * LogicaProfiler.end(start, LogicaProfiler.Section.GOAL_TICK, getClass(), mob);
+ * </pre>
+ *
+ * <h2>开销</h2>
+ * 未启用时 {@link #begin()} 只读取一个volatile布尔值并返回0，{@link #end} 直接返回。
+ * 启用后每次记录是一次直方图更新和几次哈希查找
+ *
+ * <p>只在服务器线程记录。分段可能嵌套（例如Goal的tick内触发的路径点搜索会同时计入两者），
+ * 按策略/维度的合计包括嵌套部分
+ */
+public class LogicaProfiler {
+
+    /**
+     * 计时分段
+     */
+    public enum Section {
+        GOAL_CAN_USE("goal.canUse"),
+        GOAL_TICK("goal.tick"),
+        WAYPOINT_SEARCH("waypoints.search"),
+        WAYPOINT_SEARCH_ASYNC("waypoints.asyncSearch"),
+        WAYPOINT_FINISH("waypoints.finish"),
+        MARKER_APPLY("marker.applyStrategy"),
+        BROADCAST_ALERT("alert.broadcast"),
+        SENTRIES_BELL("alert.bell");
+
+        private final String label;
+
+        Section(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    /**
+     * 对数直方图：第i个桶记录 [2^(i-1), 2^i) 纳秒
+     */
+    public static final class Histogram {
+        private static final int BUCKETS = 40;
+
+        private final long[] buckets = new long[BUCKETS];
+        private long count;
+        private long totalNanos;
+        private long maxNanos;
+
+        void record(long nanos) {
+            int bucket = Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(nanos));
+            buckets[bucket]++;
+            count++;
+            totalNanos += nanos;
+            if (nanos > maxNanos) {
+                maxNanos = nanos;
+            }
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+
+        public long getMaxNanos() {
+            return maxNanos;
+        }
+
+        /**
+         * 分位数的上界（所在桶的上限，不超过最大值）
+         */
+        public long percentileUpperBound(double quantile) {
+            long rank = (long) Math.ceil(count * quantile);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += buckets[i];
+                if (seen >= rank && buckets[i] > 0) {
+                    return Math.min(maxNanos, 1L << i);
+                }
+            }
+            return maxNanos;
+        }
+    }
+
+    private static volatile boolean running;
+
+    private static long startedAt;
+    private static long stoppedAt;
+
+    // 分段 -> 所属类 -> 直方图
+    private static final EnumMap<Section, Reference2ObjectOpenHashMap<Class<?>, Histogram>> SECTIONS = new EnumMap<>(Section.class);
+    private static final EnumMap<AIStrategy, Histogram> BY_STRATEGY = new EnumMap<>(AIStrategy.class);
+    private static final Map<ResourceKey<Level>, Histogram> BY_DIMENSION = new HashMap<>();
+
+    // ==================== 控制 ====================
+
+    /**
+     * 清空数据并开始记录
+     */
+    public static void start() {
+        SECTIONS.clear();
+        BY_STRATEGY.clear();
+        BY_DIMENSION.clear();
+        startedAt = System.nanoTime();
+        stoppedAt = 0;
+        running = true;
+    }
+
+    /**
+     * 停止记录（保留数据供dump）
+     */
+    public static void stop() {
+        if (running) {
+            running = false;
+            stoppedAt = System.nanoTime();
+        }
+    }
+
+    public static boolean isRunning() {
+        return running;
+    }
+
+    // ==================== 记录 ====================
+
+    /**
+     * 开始计时
+     *
+     * @return 开始时间；未启用时返回0
+     */
+    public static long begin() {
+        return running ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * 结束计时，按怪物的策略和所在维度归类
+     */
+    public static void end(long start, Section section, Class<?> owner, Mob mob) {
+        if (start == 0L) {
+            return;
+        }
+        long nanos = System.nanoTime() - start;
+        IAICapability aiCap = mob.getCapability(AICapabilityProvider.AI_CAPABILITY).orElse(null);
+        record(section, owner, aiCap != null ? aiCap.getStrategy() : AIStrategy.NONE, mob.level().dimension(), nanos);
+    }
+
+    /**
+     * 结束计时，使用给定的策略和维度归类
+     */
+    public static void end(long start, Section section, Class<?> owner, AIStrategy strategy, ResourceKey<Level> dimension) {
+        if (start == 0L) {
+            return;
+        }
+        record(section, owner, strategy, dimension, System.nanoTime() - start);
+    }
+
+    /**
+     * 记录在其他线程测得的耗时（在服务器线程调用）
+     */
+    public static void record(Section section, Class<?> owner, AIStrategy strategy, ResourceKey<Level> dimension, long nanos) {
+        if (!running) {
+            return;
+        }
+        SECTIONS.computeIfAbsent(section, key -> new Reference2ObjectOpenHashMap<>())
+                .computeIfAbsent(owner, key -> new Histogram())
+                .record(nanos);
+        BY_STRATEGY.computeIfAbsent(strategy, key -> new Histogram()).record(nanos);
+        BY_DIMENSION.computeIfAbsent(dimension, key -> new Histogram()).record(nanos);
+    }
+
+    // ==================== 报告 ====================
+
+    /**
+     * 生成报告
+     *
+     * @param limit 每个表最多列出的条目数
+     * @return 报告行
+     */
+    public static List<String> dump(int limit) {
+        List<String> lines = new ArrayList<>();
+        long end = running ? System.nanoTime() : stoppedAt;
+        double seconds = startedAt == 0 ? 0 : (end - startedAt) / 1_000_000_000.0;
+        lines.add(String.format("Logica profile: %.1f s%s", seconds, running ? " (running)" : ""));
+        if (SECTIONS.isEmpty()) {
+            lines.add("  no samples");
+            return lines;
+        }
+
+        // 按所属类合计（Goal类、处理器等）
+        Map<Class<?>, Histogram> byOwner = new HashMap<>();
+        for (Reference2ObjectOpenHashMap<Class<?>, Histogram> owners : SECTIONS.values()) {
+            owners.forEach((owner, histogram) -> merge(byOwner.computeIfAbsent(owner, key -> new Histogram()), histogram));
+        }
+        lines.add("Top owners:");
+        appendTable(lines, byOwner, Class::getSimpleName, seconds, limit);
+
+        lines.add("By strategy:");
+        appendTable(lines, BY_STRATEGY, AIStrategy::name, seconds, limit);
+
+        lines.add("By dimension:");
+        appendTable(lines, BY_DIMENSION, key -> key.location().toString(), seconds, limit);
+
+        // 分段明细
+        lines.add("Sections:");
+        Map<String, Histogram> bySection = new HashMap<>();
+        SECTIONS.forEach((section, owners) -> owners.forEach((owner, histogram) ->
+                bySection.put(section.getLabel() + " " + owner.getSimpleName(), histogram)));
+        appendTable(lines, bySection, Function.identity(), seconds, limit);
+        return lines;
+    }
+
+    private static <K> void appendTable(List<String> lines, Map<K, Histogram> table, Function<K, String> name,
+                                        double seconds, int limit) {
+        table.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<K, Histogram> entry) -> entry.getValue().getTotalNanos()).reversed())
+                .limit(limit)
+                .forEach(entry -> lines.add("  " + name.apply(entry.getKey()) + ": " + describe(entry.getValue(), seconds)));
+    }
+
+    private static String describe(Histogram histogram, double seconds) {
+        double totalMs = histogram.getTotalNanos() / 1_000_000.0;
+        return String.format("%.2f ms total (%.3f ms/s), n=%d, mean %.1f us, p99 <= %.1f us, max %.1f us",
+                totalMs,
+                seconds > 0 ? totalMs / seconds : 0,
+                histogram.getCount(),
+                histogram.getTotalNanos() / 1000.0 / histogram.getCount(),
+                histogram.percentileUpperBound(0.99) / 1000.0,
+                histogram.getMaxNanos() / 1000.0);
+    }
+
+    private static void merge(Histogram into, Histogram from) {
+        for (int i = 0; i < Histogram.BUCKETS; i++) {
+            into.buckets[i] += from.buckets[i];
+        }
+        into.count += from.count;
+        into.totalNanos += from.totalNanos;
+        into.maxNanos = Math.max(into.maxNanos, from.maxNanos);
+    }
+}
@@ -0,0 +1,194 @@
+package com.sorcery.logica.util;
+
+import com.sorcery.logica.config.LogicaConfig;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.util.Mth;
+import net.minecraft.world.entity.Mob;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.pathfinder.Node;
+import net.minecraft.world.level.pathfinder.Path;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 路线路径缓存 - 每个维度一份
+ *
+ * <h2>工作原理</h2>
+ * <ul>
+ *   <li>键：(共享路线, 起点路径点, 终点路径点, 导航类型, 体型, 到达精度)</li>
+ *   <li>同一路线上走同一段的怪物共用一次寻路结果，每次取出时复制一份（Path带有进度状态）</li>
+ *   <li>只有起点与缓存路径首节点足够接近时才命中，否则照常寻路</li>
+ *   <li>按LRU淘汰，容量可配置</li>
+ *   <li>路径经过的区段内有方块变化（NeighborNotifyEvent）时作废；
+ *       每个节点从脚下的地面到头顶的净空都计入区段，跨区段边界的地面或头顶方块变化同样会作废</li>
+ * </ul>
+ *
+ * <p>路线刷新后会得到新的 {@link Route} 对象，旧路线的缓存项不再命中，随LRU淘汰
+ */
+public class PathCache {
+
+    private static final Map<ResourceKey<Level>, PathCache> CACHES = new HashMap<>();
+
+    /**
+     * 起点容差（曼哈顿距离，格）
+     */
+    private static final int START_TOLERANCE = 2;
+
+    private record Key(Route route, int fromIndex, int toIndex, Class<?> navigationType, int sizeClass, int accuracy) {}
+
+    private record Entry(Path path, LongSet sections) {}
+
+    // LRU：按访问顺序排列，最久未使用的在最前
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(64, 0.75F, true);
+
+    // 区段 -> 经过该区段的缓存项
+    private final Long2ObjectOpenHashMap<Set<Key>> bySection = new Long2ObjectOpenHashMap<>();
+
+    /**
+     * 获取维度对应的缓存（不存在时创建）
+     */
+    public static PathCache get(ServerLevel level) {
+        return CACHES.computeIfAbsent(level.dimension(), key -> new PathCache());
+    }
+
+    /**
+     * 清空所有维度的缓存（服务器关闭时）
+     */
+    public static void clearAll() {
+        CACHES.clear();
+    }
+
+    /**
+     * 为沿路线行走的怪物创建路径（优先使用缓存）
+     *
+     * @param route 共享路线（无路线时不缓存）
+     * @param fromIndex 出发的路径点序号（不在路径点上时传-1，不缓存）
+     * @param toIndex 目标路径点序号
+     * @param target 目标位置
+     * @param accuracy 到达精度
+     * @return 路径，无法寻路时返回null
+     */
+    public static Path createRoutePath(Mob mob, Route route, int fromIndex, int toIndex, BlockPos target, int accuracy) {
+        if (route == null || fromIndex < 0 || !(mob.level() instanceof ServerLevel serverLevel)) {
+            return mob.getNavigation().createPath(target, accuracy);
+        }
+        return get(serverLevel).createPath(mob, new Key(route, fromIndex, toIndex,
+                mob.getNavigation().getClass(), sizeClass(mob), accuracy), target);
+    }
+
+    private Path createPath(Mob mob, Key key, BlockPos target) {
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            Node start = entry.path().getNode(0);
+            if (start.distanceManhattan(mob.blockPosition()) <= START_TOLERANCE) {
+                return copy(entry.path());
+            }
+        }
+
+        Path path = mob.getNavigation().createPath(target, key.accuracy());
+        // 只缓存能到达目标的完整路径
+        if (path != null && path.canReach() && path.getNodeCount() > 0) {
+            put(key, copy(path), Mth.ceil(mob.getBbHeight()));
+        }
+        return path;
+    }
+
+    /**
+     * 方块变化：作废经过该区段的所有缓存路径
+     */
+    public void invalidate(BlockPos pos) {
+        if (bySection.isEmpty()) {
+            return;
+        }
+        long section = SectionPos.asLong(pos);
+        Set<Key> keys = bySection.remove(section);
+        if (keys == null) {
+            return;
+        }
+        for (Key key : keys) {
+            Entry entry = entries.remove(key);
+            if (entry != null) {
+                unindex(key, entry, section);
+            }
+        }
+    }
+
+    // ==================== 内部 ====================
+
+    /**
+     * @param height 怪物高度（格，向上取整），节点 y-1（地面）到 y+height（头顶）所在的区段都会被索引
+     */
+    private void put(Key key, Path path, int height) {
+        LongSet sections = new LongOpenHashSet();
+        for (int i = 0; i < path.getNodeCount(); i++) {
+            Node node = path.getNode(i);
+            int sectionX = SectionPos.blockToSectionCoord(node.x);
+            int sectionZ = SectionPos.blockToSectionCoord(node.z);
+            int maxSectionY = SectionPos.blockToSectionCoord(node.y + height);
+            for (int sectionY = SectionPos.blockToSectionCoord(node.y - 1); sectionY <= maxSectionY; sectionY++) {
+                sections.add(SectionPos.asLong(sectionX, sectionY, sectionZ));
+            }
+        }
+
+        Entry previous = entries.put(key, new Entry(path, sections));
+        if (previous != null) {
+            unindex(key, previous, Long.MIN_VALUE);
+        }
+        sections.forEach((long section) -> bySection.computeIfAbsent(section, s -> new ObjectOpenHashSet<>()).add(key));
+
+        // LRU淘汰
+        int capacity = LogicaConfig.PATH_CACHE_SIZE.get();
+        Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+        while (entries.size() > capacity && iterator.hasNext()) {
+            Map.Entry<Key, Entry> eldest = iterator.next();
+            iterator.remove();
+            unindex(eldest.getKey(), eldest.getValue(), Long.MIN_VALUE);
+        }
+    }
+
+    /**
+     * 从区段索引中移除缓存项（skipSection为正在被整体移除的区段）
+     */
+    private void unindex(Key key, Entry entry, long skipSection) {
+        entry.sections().forEach((long section) -> {
+            if (section == skipSection) {
+                return;
+            }
+            Set<Key> keys = bySection.get(section);
+            if (keys != null && keys.remove(key) && keys.isEmpty()) {
+                bySection.remove(section);
+            }
+        });
+    }
+
+    /**
+     * 复制路径（Path带有当前节点进度，导航时还会截断节点列表，不能共享同一实例）
+     */
+    private static Path copy(Path path) {
+        List<Node> nodes = new ArrayList<>(path.getNodeCount());
+        for (int i = 0; i < path.getNodeCount(); i++) {
+            nodes.add(path.getNode(i));
+        }
+        return new Path(nodes, path.getTarget(), path.canReach());
+    }
+
+    /**
+     * 体型分类（按碰撞箱宽高取整，能走同一条路的怪物归为一类）
+     */
+    private static int sizeClass(Mob mob) {
+        return Mth.ceil(mob.getBbWidth()) << 8 | Mth.ceil(mob.getBbHeight());
+    }
+}
@@ -0,0 +1,238 @@
+package com.sorcery.logica.util;
+
+import com.sorcery.logica.ai.AIState;
+import com.sorcery.logica.capability.AICapabilityProvider;
+import com.sorcery.logica.capability.IAICapability;
+import com.sorcery.logica.config.LogicaConfig;
+import com.sorcery.logica.jfr.LogicaJfr;
+import com.sorcery.logica.jfr.PathfindEvent;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.Mob;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.pathfinder.Path;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * 寻路请求队列 - 每个维度一份，按tick时间预算处理
+ *
+ * <h2>工作原理</h2>
+ * <ul>
+ *   <li>Goal提交寻路请求，结果在之后的世界tick结束时通过回调返回（可能跨越多个tick）</li>
+ *   <li>每tick最多消耗 {@link LogicaConfig#PATH_BUDGET_MS} 毫秒，至少处理一个请求保证推进</li>
+ *   <li>按AI状态分优先级：COMBAT/TRACKING → ALERT/SEARCHING → IDLE，同级先进先出</li>
+ *   <li>每个怪物同时只保留一个请求，新请求替换旧请求</li>
+ *   <li>怪物已移除或请求被取消时丢弃，不调用回调</li>
+ * </ul>
+ *
+ * <p>客户端（或非ServerLevel）请求同步执行
+ */
+public class PathRequestQueue {
+
+    private static final Map<ResourceKey<Level>, PathRequestQueue> QUEUES = new HashMap<>();
+
+    private static final int PRIORITY_COUNT = 3;
+
+    private static final class Request {
+        final Mob mob;
+        final Supplier<Path> planner;
+        final Consumer<Path> callback;
+        boolean canceled;
+
+        Request(Mob mob, Supplier<Path> planner, Consumer<Path> callback) {
+            this.mob = mob;
+            this.planner = planner;
+            this.callback = callback;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private final ArrayDeque<Request>[] queues = new ArrayDeque[PRIORITY_COUNT];
+
+    // 实体ID -> 未完成的请求
+    private final Int2ObjectOpenHashMap<Request> pending = new Int2ObjectOpenHashMap<>();
+
+    // 累计统计（用于负载测试和性能分析）
+    private long submittedCount;
+    private long processedCount;
+
+    private PathRequestQueue() {
+        for (int i = 0; i < PRIORITY_COUNT; i++) {
+            queues[i] = new ArrayDeque<>();
+        }
+    }
+
+    /**
+     * 获取维度对应的队列（不存在时创建）
+     */
+    public static PathRequestQueue get(ServerLevel level) {
+        return QUEUES.computeIfAbsent(level.dimension(), key -> new PathRequestQueue());
+    }
+
+    /**
+     * 清空所有维度的队列（服务器关闭时）
+     */
+    public static void clearAll() {
+        QUEUES.clear();
+    }
+
+    // ==================== 提交 ====================
+
+    /**
+     * 请求寻路到目标位置，成功时以给定速度开始移动
+     *
+     * @param onResult 结果回调（移动已开始后调用，失败时参数为null），可为null
+     */
+    public static void navigateTo(Mob mob, BlockPos target, int accuracy, double speed, Consumer<Path> onResult) {
+        request(mob, () -> mob.getNavigation().createPath(target, accuracy), path -> {
+            if (path != null) {
+                mob.getNavigation().moveTo(path, speed);
+            }
+            if (onResult != null) {
+                onResult.accept(path);
+            }
+        });
+    }
+
+    /**
+     * 提交寻路请求
+     *
+     * @param planner 实际寻路（在处理时执行）
+     * @param callback 结果回调（失败时参数为null）
+     */
+    public static void request(Mob mob, Supplier<Path> planner, Consumer<Path> callback) {
+        if (!(mob.level() instanceof ServerLevel serverLevel)) {
+            callback.accept(planner.get());
+            return;
+        }
+        get(serverLevel).enqueue(new Request(mob, planner, callback));
+    }
+
+    /**
+     * 怪物是否有未完成的寻路请求
+     */
+    public static boolean hasPending(Mob mob) {
+        return mob.level() instanceof ServerLevel serverLevel && get(serverLevel).pending.containsKey(mob.getId());
+    }
+
+    /**
+     * 导航空闲：当前路径已走完且没有等待中的寻路请求（替代直接判断 isDone）
+     */
+    public static boolean isNavigationIdle(Mob mob) {
+        return mob.getNavigation().isDone() && !hasPending(mob);
+    }
+
+    /**
+     * 取消怪物未完成的寻路请求（Goal停止时调用）
+     */
+    public static void cancel(Mob mob) {
+        if (mob.level() instanceof ServerLevel serverLevel) {
+            Request request = get(serverLevel).pending.remove(mob.getId());
+            if (request != null) {
+                request.canceled = true;
+            }
+        }
+    }
+
+    private void enqueue(Request request) {
+        submittedCount++;
+        Request previous = pending.put(request.mob.getId(), request);
+        if (previous != null) {
+            previous.canceled = true;
+        }
+        queues[priorityOf(request.mob)].addLast(request);
+    }
+
+    private static int priorityOf(Mob mob) {
+        IAICapability aiCap = mob.getCapability(AICapabilityProvider.AI_CAPABILITY).orElse(null);
+        AIState state = aiCap != null ? aiCap.getState() : AIState.IDLE;
+        return switch (state) {
+            case COMBAT, TRACKING -> 0;
+            case ALERT, SEARCHING -> 1;
+            case IDLE -> 2;
+        };
+    }
+
+    // ==================== 处理 ====================
+
+    /**
+     * 在时间预算内处理请求（世界tick结束时调用）
+     */
+    public void tick() {
+        if (pending.isEmpty()) {
+            // 只剩已取消的请求
+            for (ArrayDeque<Request> queue : queues) {
+                queue.clear();
+            }
+            return;
+        }
+
+        long deadline = System.nanoTime() + (long) (LogicaConfig.PATH_BUDGET_MS.get() * 1_000_000L);
+        do {
+            Request request = poll();
+            if (request == null) {
+                return;
+            }
+            process(request);
+        } while (System.nanoTime() < deadline);
+    }
+
+    /**
+     * 取出优先级最高的有效请求
+     */
+    private Request poll() {
+        for (ArrayDeque<Request> queue : queues) {
+            Request request;
+            while ((request = queue.pollFirst()) != null) {
+                if (!request.canceled) {
+                    return request;
+                }
+            }
+        }
+        return null;
+    }
+
+    private void process(Request request) {
+        pending.remove(request.mob.getId());
+        if (request.mob.isRemoved() || !request.mob.isAlive()) {
+            return;
+        }
+        processedCount++;
+        if (!LogicaJfr.isEnabled()) {
+            request.callback.accept(request.planner.get());
+            return;
+        }
+
+        PathfindEvent event = new PathfindEvent();
+        event.begin();
+        Path path = request.planner.get();
+        event.end();
+        if (event.shouldCommit()) {
+            event.record(request.mob, path, pending.size());
+        }
+        request.callback.accept(path);
+    }
+
+    // ==================== 统计 ====================
+
+    /**
+     * 累计提交的寻路请求数（包括之后被替换或取消的）
+     */
+    public long getSubmittedCount() {
+        return submittedCount;
+    }
+
+    /**
+     * 累计实际执行的寻路次数
+     */
+    public long getProcessedCount() {
+        return processedCount;
+    }
+}
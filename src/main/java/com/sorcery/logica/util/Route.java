@@ -0,0 +1,202 @@
+package com.sorcery.logica.util;
+
+import net.minecraft.core.BlockPos;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * 路线 - 不可变的路径点序列，由持有相同路线键的怪物共享
+ *
+ * <h2>特性</h2>
+ * <ul>
+ *   <li>路径点打包为 long[] 存储，不为每个怪物复制列表</li>
+ *   <li>对外提供只读的 {@code List<BlockPos>} 视图</li>
+ *   <li>巡逻顺序由 {@link RouteCompiler} 在后台线程编译为近似最短的闭合环路，每条路线只编译一次，之后共享；
+ *       编译完成前临时按距离标记方块从近到远巡逻</li>
+ *   <li>记录生成时的路径点索引版本号，版本变化后由 {@link RouteRegistry} 重新生成</li>
+ * </ul>
+ */
+public final class Route {
+
+    /** 没有路线键的旧存档路线使用的版本号（总是视为过期） */
+    public static final int DETACHED_VERSION = -1;
+
+    private final RouteKey key;
+    private final long[] positions;
+    private final int version;
+    private final List<BlockPos> waypoints;
+
+    // 按距离标记方块排序的巡逻顺序（懒加载，环路编译完成前使用）
+    private List<BlockPos> patrolOrder;
+
+    // 编译好的巡逻环路（后台线程发布）
+    private volatile List<BlockPos> tour;
+    private boolean tourRequested;
+
+    // 哨兵路线的连线（懒加载，用于路线可视化）
+    private int[] sentriesLinks;
+
+    public Route(RouteKey key, long[] positions, int version) {
+        this.key = key;
+        this.positions = positions;
+        this.version = version;
+        this.waypoints = new PackedPosList(positions);
+    }
+
+    /**
+     * 从位置列表创建路线
+     */
+    public static Route of(RouteKey key, List<BlockPos> waypoints, int version) {
+        long[] positions = new long[waypoints.size()];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = waypoints.get(i).asLong();
+        }
+        return new Route(key, positions, version);
+    }
+
+    /**
+     * 获取路线键（旧存档读取的路线没有路线键）
+     */
+    public RouteKey getKey() {
+        return key;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public int size() {
+        return positions.length;
+    }
+
+    public boolean isEmpty() {
+        return positions.length == 0;
+    }
+
+    /**
+     * 获取打包的路径点副本
+     */
+    public long[] toLongArray() {
+        return positions.clone();
+    }
+
+    /**
+     * 获取路径点（按Y→X→Z排序，只读）
+     */
+    public List<BlockPos> getWaypoints() {
+        return waypoints;
+    }
+
+    /**
+     * 获取巡逻顺序（只读）
+     *
+     * 首次调用时提交环路编译；编译完成前返回按距离标记方块从近到远的顺序，
+     * 调用者应比较返回的列表实例来发现顺序的切换
+     */
+    public List<BlockPos> getPatrolOrder() {
+        List<BlockPos> compiled = tour;
+        if (compiled != null) {
+            return compiled;
+        }
+
+        if (!tourRequested && key != null && positions.length >= 3) {
+            tourRequested = true;
+            RouteCompiler.compileAsync(this, positions, key.markerPos());
+        }
+
+        if (patrolOrder == null) {
+            if (key == null || positions.length < 2) {
+                patrolOrder = waypoints;
+            } else {
+                BlockPos markerPos = key.markerPos();
+                // 稳定排序：距离相同时保持Y→X→Z顺序
+                Long[] boxed = new Long[positions.length];
+                for (int i = 0; i < positions.length; i++) {
+                    boxed[i] = positions[i];
+                }
+                Arrays.sort(boxed, (pos1, pos2) -> Double.compare(
+                        markerPos.distSqr(BlockPos.of(pos1)),
+                        markerPos.distSqr(BlockPos.of(pos2))));
+
+                long[] sorted = new long[boxed.length];
+                for (int i = 0; i < sorted.length; i++) {
+                    sorted[i] = boxed[i];
+                }
+                patrolOrder = new PackedPosList(sorted);
+            }
+        }
+        return patrolOrder;
+    }
+
+    /**
+     * 获取哨兵路线的连线（只读，下标对应 {@link #getWaypoints()}，-1表示连向标记方块）
+     *
+     * 路径点按到标记方块的距离依次连向最近的已连接点（标记方块或更近的路径点），
+     * 近似 {@link WaypointFinder} 由标记方块向外逐级搜索得到的链。
+     * 首次调用时计算并缓存，同一路线的所有观察者共享
+     *
+     * @param markerPos 标记方块位置（没有路线键的旧存档路线使用怪物记录的位置）
+     */
+    public int[] getSentriesLinks(BlockPos markerPos) {
+        if (sentriesLinks != null) {
+            return sentriesLinks;
+        }
+
+        int count = positions.length;
+        Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(
+                markerPos.distSqr(waypoints.get(a)), markerPos.distSqr(waypoints.get(b))));
+
+        int[] links = new int[count];
+        for (int i = 0; i < count; i++) {
+            BlockPos pos = waypoints.get(order[i]);
+            int best = -1;
+            double bestDist = markerPos.distSqr(pos);
+            for (int j = 0; j < i; j++) {
+                double dist = waypoints.get(order[j]).distSqr(pos);
+                if (dist < bestDist) {
+                    best = order[j];
+                    bestDist = dist;
+                }
+            }
+            links[order[i]] = best;
+        }
+        sentriesLinks = links;
+        return links;
+    }
+
+    /**
+     * 发布编译好的巡逻环路（由 {@link RouteCompiler} 在后台线程调用）
+     */
+    void publishTour(long[] compiled) {
+        this.tour = new PackedPosList(compiled);
+    }
+
+    /**
+     * long[] 上的只读BlockPos列表视图
+     */
+    private static final class PackedPosList extends AbstractList<BlockPos> implements RandomAccess {
+
+        private final long[] positions;
+
+        PackedPosList(long[] positions) {
+            this.positions = positions;
+        }
+
+        @Override
+        public BlockPos get(int index) {
+            return BlockPos.of(positions[index]);
+        }
+
+        @Override
+        public int size() {
+            return positions.length;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.sorcery.logica.util;
+
+import com.sorcery.logica.Logica;
+import com.sorcery.logica.config.LogicaConfig;
+import net.minecraft.Util;
+import net.minecraft.core.BlockPos;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 路线编译器 - 为巡逻路线计算近似最优的闭合访问顺序
+ *
+ * <h2>算法</h2>
+ * <ul>
+ *   <li>从距离标记方块最近的路径点出发，最近邻构造初始环路</li>
+ *   <li>2-opt 反转区间直到没有改进（或达到轮数上限）</li>
+ *   <li>代价为路径点间的直线距离，垂直方向加权（爬升比平地行走慢）；
+ *       编译在后台线程进行，不能访问世界做真实寻路</li>
+ * </ul>
+ *
+ * <p>每条路线只编译一次，结果由 {@link Route} 缓存并在所有共享该路线的怪物间复用
+ */
+public final class RouteCompiler {
+
+    /** 垂直距离的代价倍率 */
+    private static final double VERTICAL_COST = 2.0;
+
+    /** 超过此数量的路径点只做最近邻（2-opt 的距离矩阵为 n²） */
+    private static final int MAX_TWO_OPT_SIZE = 512;
+
+    /** 2-opt 最大轮数 */
+    private static final int MAX_TWO_OPT_PASSES = 64;
+
+    private RouteCompiler() {
+    }
+
+    /**
+     * 在后台线程编译路线的巡逻顺序，完成后发布到路线上
+     */
+    static void compileAsync(Route route, long[] positions, BlockPos start) {
+        CompletableFuture.supplyAsync(() -> compileTour(positions, start), Util.backgroundExecutor())
+                .whenComplete((tour, error) -> {
+                    if (error != null) {
+                        Logica.LOGGER.error("Failed to compile patrol route with {} waypoints", positions.length, error);
+                        return;
+                    }
+                    route.publishTour(tour);
+
+                    if (LogicaConfig.shouldLogWaypointSearch()) {
+                        Logica.LOGGER.info("Compiled patrol tour for {} waypoints from {}",
+                                positions.length, start);
+                    }
+                });
+    }
+
+    /**
+     * 计算闭合访问顺序
+     *
+     * @param positions 打包的路径点（不会被修改）
+     * @param start 起点参考位置（通常是标记方块），环路从离它最近的路径点开始
+     * @return 按访问顺序排列的打包路径点
+     */
+    public static long[] compileTour(long[] positions, BlockPos start) {
+        int n = positions.length;
+        if (n < 3) {
+            return positions.clone();
+        }
+
+        int[] xs = new int[n];
+        int[] ys = new int[n];
+        int[] zs = new int[n];
+        for (int i = 0; i < n; i++) {
+            xs[i] = BlockPos.getX(positions[i]);
+            ys[i] = BlockPos.getY(positions[i]);
+            zs[i] = BlockPos.getZ(positions[i]);
+        }
+
+        // 起点：离参考位置最近的路径点
+        int first = 0;
+        double bestStart = Double.MAX_VALUE;
+        for (int i = 0; i < n; i++) {
+            double d = cost(xs[i], ys[i], zs[i], start.getX(), start.getY(), start.getZ());
+            if (d < bestStart) {
+                bestStart = d;
+                first = i;
+            }
+        }
+
+        double[] matrix = n <= MAX_TWO_OPT_SIZE ? buildMatrix(xs, ys, zs) : null;
+
+        // 最近邻构造初始环路
+        int[] tour = new int[n];
+        boolean[] visited = new boolean[n];
+        tour[0] = first;
+        visited[first] = true;
+        for (int step = 1; step < n; step++) {
+            int current = tour[step - 1];
+            int next = -1;
+            double bestDistance = Double.MAX_VALUE;
+            for (int j = 0; j < n; j++) {
+                if (visited[j]) {
+                    continue;
+                }
+                double d = matrix != null ? matrix[current * n + j]
+                        : cost(xs[current], ys[current], zs[current], xs[j], ys[j], zs[j]);
+                if (d < bestDistance) {
+                    bestDistance = d;
+                    next = j;
+                }
+            }
+            tour[step] = next;
+            visited[next] = true;
+        }
+
+        if (matrix != null) {
+            twoOpt(tour, matrix, n);
+        }
+
+        long[] result = new long[n];
+        for (int i = 0; i < n; i++) {
+            result[i] = positions[tour[i]];
+        }
+        return result;
+    }
+
+    /**
+     * 2-opt 改进（起点固定在 tour[0]）
+     */
+    private static void twoOpt(int[] tour, double[] matrix, int n) {
+        for (int pass = 0; pass < MAX_TWO_OPT_PASSES; pass++) {
+            boolean improved = false;
+            for (int i = 1; i < n - 1; i++) {
+                int a = tour[i - 1];
+                int b = tour[i];
+                for (int k = i + 1; k < n; k++) {
+                    int c = tour[k];
+                    int e = tour[(k + 1) % n];
+                    double delta = matrix[a * n + c] + matrix[b * n + e]
+                            - matrix[a * n + b] - matrix[c * n + e];
+                    if (delta < -1.0E-9) {
+                        reverse(tour, i, k);
+                        b = tour[i];
+                        improved = true;
+                    }
+                }
+            }
+            if (!improved) {
+                return;
+            }
+        }
+    }
+
+    private static void reverse(int[] tour, int from, int to) {
+        while (from < to) {
+            int tmp = tour[from];
+            tour[from++] = tour[to];
+            tour[to--] = tmp;
+        }
+    }
+
+    private static double[] buildMatrix(int[] xs, int[] ys, int[] zs) {
+        int n = xs.length;
+        double[] matrix = new double[n * n];
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                double d = cost(xs[i], ys[i], zs[i], xs[j], ys[j], zs[j]);
+                matrix[i * n + j] = d;
+                matrix[j * n + i] = d;
+            }
+        }
+        return matrix;
+    }
+
+    private static double cost(int x1, int y1, int z1, int x2, int y2, int z2) {
+        double dx = x1 - x2;
+        double dy = (y1 - y2) * VERTICAL_COST;
+        double dz = z1 - z2;
+        return Math.sqrt(dx * dx + dy * dy + dz * dz);
+    }
+}
@@ -0,0 +1,17 @@
+package com.sorcery.logica.util;
+
+import com.sorcery.logica.ai.AIStrategy;
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.world.level.Level;
+
+/**
+ * 路线键 - 同一维度、同一标记方块、同一策略和编号的怪物共享一条路线
+ *
+ * @param dimension 标记方块所在维度
+ * @param markerPos 策略标记方块位置
+ * @param strategy AI策略类型
+ * @param team 区域编号（0-15）
+ */
+public record RouteKey(ResourceKey<Level> dimension, BlockPos markerPos, AIStrategy strategy, int team) {
+}
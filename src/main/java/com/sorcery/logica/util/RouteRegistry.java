@@ -0,0 +1,202 @@
+package com.sorcery.logica.util;
+
+import com.google.common.collect.MapMaker;
+import com.sorcery.logica.Logica;
+import com.sorcery.logica.ai.AIStrategy;
+import com.sorcery.logica.capability.IAICapability;
+import com.sorcery.logica.config.LogicaConfig;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import net.minecraft.Util;
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 路线注册表 - 按路线键驻留共享的路线对象
+ *
+ * <h2>工作原理</h2>
+ * <ul>
+ *   <li>弱引用值：没有怪物持有的路线会被自动回收</li>
+ *   <li>路径点索引版本号变化时重新生成路线，之后请求同一路线键的怪物直接复用</li>
+ *   <li>怪物的Capability只保存路线键和当前索引，路线在首次使用时解析</li>
+ *   <li>路径点搜索默认在后台线程对索引快照进行，结果回到服务器线程后才登记；
+ *       解析期间怪物沿用旧路线（新怪物没有路线，由Goal在标记方块处待命）</li>
+ * </ul>
+ */
+public class RouteRegistry {
+
+    private static final ConcurrentMap<RouteKey, Route> ROUTES = new MapMaker().weakValues().makeMap();
+
+    // 正在后台解析的路线（只在服务器线程访问）
+    private static final Map<RouteKey, CompletableFuture<Route>> PENDING = new HashMap<>();
+
+    /**
+     * 获取路线键对应的最新路线
+     *
+     * @param level 路线键所在维度的世界
+     */
+    public static Route resolve(ServerLevel level, RouteKey key) {
+        byte waypointEntry = WaypointFinder.getWaypointEntry(key.strategy(), key.team());
+        if (waypointEntry == WaypointIndex.NO_ENTRY) {
+            return null;
+        }
+
+        WaypointIndex index = WaypointIndex.get(level);
+        Route route = ROUTES.get(key);
+        if (route != null && route.getVersion() == index.getVersion(waypointEntry)) {
+            return route;
+        }
+
+        List<BlockPos> waypoints = WaypointFinder.findWaypoints(level, key.markerPos(), key.strategy(), key.team());
+        // 搜索可能加载新区块并改变版本号，因此在搜索之后读取
+        route = Route.of(key, waypoints, index.getVersion(waypointEntry));
+        ROUTES.put(key, route);
+
+        if (LogicaConfig.shouldLogWaypointSearch()) {
+            Logica.LOGGER.info("Resolved route {} team {} from {} with {} waypoints",
+                    key.strategy(), key.team(), key.markerPos(), route.size());
+        }
+        return route;
+    }
+
+    /**
+     * 异步解析路线键对应的最新路线
+     *
+     * <p>缓存有效时返回已完成的Future；否则在服务器线程复制索引快照，后台线程搜索，
+     * 再回到服务器线程补扫未索引区块、高度调整并登记。同一路线键同时只有一个解析任务
+     *
+     * @param level 路线键所在维度的世界
+     * @return 在服务器线程完成的Future（没有路径点编号时结果为null）
+     */
+    public static CompletableFuture<Route> resolveAsync(ServerLevel level, RouteKey key) {
+        byte waypointEntry = WaypointFinder.getWaypointEntry(key.strategy(), key.team());
+        if (waypointEntry == WaypointIndex.NO_ENTRY) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        Route route = ROUTES.get(key);
+        if (route != null && route.getVersion() == WaypointIndex.get(level).getVersion(waypointEntry)) {
+            return CompletableFuture.completedFuture(route);
+        }
+
+        CompletableFuture<Route> pending = PENDING.get(key);
+        if (pending != null) {
+            return pending;
+        }
+
+        WaypointFinder.PendingSearch search = WaypointFinder.prepareSearch(level, key.markerPos(), key.strategy(), key.team());
+        MinecraftServer server = level.getServer();
+        // 先登记再提交：后台搜索可能在链构建完成前结束
+        CompletableFuture<Route> future = new CompletableFuture<>();
+        PENDING.put(key, future);
+        CompletableFuture
+                .supplyAsync(search::search, Util.backgroundExecutor())
+                .whenCompleteAsync((found, error) -> {
+                    // 服务器已停止时执行器会在当前（后台）线程直接运行：丢弃结果
+                    if (!server.isRunning() || !server.isSameThread()) {
+                        future.complete(null);
+                        return;
+                    }
+                    if (PENDING.get(key) == future) {
+                        PENDING.remove(key);
+                    }
+                    Route route = null;
+                    try {
+                        if (error == null) {
+                            route = finishAsync(level, key, search, found);
+                        }
+                    } catch (RuntimeException e) {
+                        error = e;
+                    }
+                    if (error != null) {
+                        Logica.LOGGER.error("Failed to resolve route {} team {} from {}",
+                                key.strategy(), key.team(), key.markerPos(), error);
+                    }
+                    future.complete(route);
+                }, server);
+        return future;
+    }
+
+    /**
+     * 后台搜索完成后在服务器线程登记路线
+     */
+    private static Route finishAsync(ServerLevel level, RouteKey key, WaypointFinder.PendingSearch search, LongArrayList found) {
+        List<BlockPos> waypoints = search.finish(level, found);
+        if (waypoints == null) {
+            // 搜索期间路径点被增删或经过了未索引的区块：快照已过期，同步重新搜索
+            return resolve(level, key);
+        }
+
+        Route route = Route.of(key, waypoints, search.getVersion());
+        ROUTES.put(key, route);
+
+        if (LogicaConfig.shouldLogWaypointSearch()) {
+            Logica.LOGGER.info("Resolved route {} team {} from {} with {} waypoints (async)",
+                    key.strategy(), key.team(), key.markerPos(), route.size());
+        }
+        return route;
+    }
+
+    /**
+     * 路线键是否正在后台解析
+     */
+    public static boolean isResolving(RouteKey key) {
+        return key != null && PENDING.containsKey(key);
+    }
+
+    /**
+     * 丢弃正在解析的任务（服务器关闭时）
+     */
+    public static void clearPending() {
+        PENDING.clear();
+    }
+
+    /**
+     * 路线过期（同编号路径点被增删）或尚未解析时，为怪物解析路线
+     *
+     * <p>异步解析时本次调用只提交任务并返回false，之后的调用取到解析好的路线再更换
+     *
+     * @param level 怪物所在的世界
+     * @return 是否更换了路线
+     */
+    public static boolean refreshIfChanged(ServerLevel level, IAICapability aiCap) {
+        RouteKey key = aiCap.getRouteKey();
+        if (key == null) {
+            // 旧存档没有路线键：由策略信息推导（标记方块与怪物在同一维度）
+            AIStrategy strategy = aiCap.getStrategy();
+            BlockPos markerPos = aiCap.getStrategyMarkerPos();
+            if (markerPos == null || (strategy != AIStrategy.PATROL && strategy != AIStrategy.SENTRIES)) {
+                return false;
+            }
+            key = new RouteKey(level.dimension(), markerPos, strategy, aiCap.getAreaTeam());
+            aiCap.setRouteKey(key);
+        }
+
+        ServerLevel routeLevel = level.getServer().getLevel(key.dimension());
+        if (routeLevel == null) {
+            return false;
+        }
+
+        Route current = aiCap.getRoute();
+        if (current != null && key.equals(current.getKey())
+                && current.getVersion() == WaypointIndex.get(routeLevel)
+                        .getVersion(WaypointFinder.getWaypointEntry(key.strategy(), key.team()))) {
+            return false;
+        }
+
+        Route route = LogicaConfig.ASYNC_ROUTE_RESOLUTION.get()
+                ? resolveAsync(routeLevel, key).getNow(null)
+                : resolve(routeLevel, key);
+        if (route == null || route == current) {
+            return false;
+        }
+        aiCap.setRoute(route);
+        return true;
+    }
+}
@@ -0,0 +1,104 @@
+package com.sorcery.logica.util;
+
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.Entity;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tick调度器 - 哈希时间轮
+ *
+ * <h2>工作原理</h2>
+ * <ul>
+ *   <li>按到期tick散列到固定数量的槽位，每tick只处理当前槽位</li>
+ *   <li>任务直接保存所在世界和实体ID，到期时 O(1) 取回实体，不再遍历所有世界按UUID查找</li>
+ *   <li>到期时实体已不存在（死亡、卸载）则跳过任务</li>
+ * </ul>
+ *
+ * <p>用于钟声警报等延迟AI动作；延迟超过槽位数的任务会在槽位中多停留几轮
+ */
+public class TickScheduler {
+
+    /**
+     * 延迟任务
+     */
+    @FunctionalInterface
+    public interface EntityTask {
+        void run(ServerLevel level, Entity entity);
+    }
+
+    private record Timer(long dueTick, ServerLevel level, int entityId, EntityTask task) {
+    }
+
+    private static final int WHEEL_SIZE = 256;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+
+    @SuppressWarnings("unchecked")
+    private static final List<Timer>[] wheel = new List[WHEEL_SIZE];
+
+    // 已完成的tick数
+    private static long currentTick = 0;
+
+    // 正在执行到期任务（此时新任务至少延迟1 tick）
+    private static boolean running = false;
+
+    static {
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            wheel[i] = new ArrayList<>();
+        }
+    }
+
+    /**
+     * 安排延迟任务
+     *
+     * @param delayTicks 延迟tick数；0表示在本tick结束时执行（在任务内调用时为下一tick）
+     */
+    public static void schedule(ServerLevel level, Entity entity, int delayTicks, EntityTask task) {
+        int delay = Math.max(delayTicks, running ? 1 : 0);
+        long dueTick = currentTick + delay;
+        wheel[(int) (dueTick & WHEEL_MASK)].add(new Timer(dueTick, level, entity.getId(), task));
+    }
+
+    /**
+     * 执行本tick到期的任务（服务端tick结束时调用）
+     */
+    public static void tick() {
+        int slot = (int) (currentTick & WHEEL_MASK);
+        List<Timer> timers = wheel[slot];
+
+        if (!timers.isEmpty()) {
+            // 取出当前槽位，执行期间新安排的任务进入新列表
+            wheel[slot] = new ArrayList<>();
+            running = true;
+            try {
+                for (Timer timer : timers) {
+                    if (timer.dueTick() > currentTick) {
+                        // 还没到期（延迟超过一轮）
+                        wheel[slot].add(timer);
+                        continue;
+                    }
+
+                    Entity entity = timer.level().getEntity(timer.entityId());
+                    if (entity != null && !entity.isRemoved()) {
+                        timer.task().run(timer.level(), entity);
+                    }
+                }
+            } finally {
+                running = false;
+            }
+        }
+
+        currentTick++;
+    }
+
+    /**
+     * 清除所有任务（服务器关闭时）
+     */
+    public static void clear() {
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            wheel[i].clear();
+        }
+        currentTick = 0;
+    }
+}
@@ -2,15 +2,20 @@ package com.sorcery.logica.util;
 
 import com.sorcery.logica.Logica;
 import com.sorcery.logica.ai.AIStrategy;
-import com.sorcery.logica.blocks.*;
 import com.sorcery.logica.config.LogicaConfig;
+import com.sorcery.logica.jfr.LogicaJfr;
+import com.sorcery.logica.jfr.WaypointSearchEvent;
+import it.unimi.dsi.fastutil.longs.LongArrayFIFOQueue;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
 import net.minecraft.core.BlockPos;
-import net.minecraft.core.Direction;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.level.Level;
-import net.minecraft.world.level.block.Block;
-import net.minecraft.world.level.block.state.BlockState;
 
-import java.util.*;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.LongConsumer;
 
 /**
  * 路径点查找器 - BFS链式连接算法
@@ -29,10 +34,12 @@ import java.util.*;
  *
  * <h2>特性</h2>
  * <ul>
+ *   <li>邻居查询走{@link WaypointIndex}，不再做 (2r+1)^3 的逐格方块扫描</li>
  *   <li>无视Y轴高度差异，支持立体路线</li>
- *   <li>自动调整路径点到地面（findGroundBelow）</li>
+ *   <li>自动调整路径点到地面（findGroundBelow，由{@link GroundSnapper}加速）</li>
  *   <li>按坐标排序（Y → X → Z）</li>
  *   <li>避免回路（只从标记方块开始，不重复搜索标记）</li>
+ *   <li>可在后台线程对索引快照搜索（{@link #prepareSearch}），高度调整仍在服务器线程完成</li>
  * </ul>
  *
  * @see com.sorcery.logica.config.LogicaConfig#PATROL_WAYPOINT_SEARCH_RADIUS
@@ -49,13 +56,16 @@ public class WaypointFinder {
      * @param teamId 区域编号（0-15）
      * @return 排序后的路径点列表
      */
-    public static List<BlockPos> findWaypoints(Level level, BlockPos strategyPos, AIStrategy strategy, int teamId) {
+    public static List<BlockPos> findWaypoints(ServerLevel level, BlockPos strategyPos, AIStrategy strategy, int teamId) {
         if (LogicaConfig.shouldLogWaypointSearch()) {
             Logica.LOGGER.info("Finding waypoints for {} strategy with team ID {}", strategy, teamId);
         }
 
         // 所有策略都使用BFS搜索相连的路径点
-        return findConnectedWaypoints(level, strategyPos, strategy, teamId);
+        long start = LogicaProfiler.begin();
+        List<BlockPos> waypoints = findConnectedWaypoints(level, strategyPos, strategy, teamId);
+        LogicaProfiler.end(start, LogicaProfiler.Section.WAYPOINT_SEARCH, WaypointFinder.class, strategy, level.dimension());
+        return waypoints;
     }
 
     /**
@@ -88,89 +98,131 @@ public class WaypointFinder {
      * @param teamId 区域编号（0-15）
      * @return 排序后的路径点列表（按Y→X→Z排序）
      */
-    private static List<BlockPos> findConnectedWaypoints(Level level, BlockPos strategyPos, AIStrategy strategy, int teamId) {
-        Block waypointBlock = getWaypointBlock(strategy);
-        if (waypointBlock == null) {
+    private static List<BlockPos> findConnectedWaypoints(ServerLevel level, BlockPos strategyPos, AIStrategy strategy, int teamId) {
+        byte waypointEntry = getWaypointEntry(strategy, teamId);
+        if (waypointEntry == WaypointIndex.NO_ENTRY) {
             return List.of();
         }
+        byte markerEntry = getMarkerEntry(strategy, teamId);
+        int waypointSearchRadius = getSearchRadius(strategy);
 
-        List<BlockPos> waypoints = new ArrayList<>();
-        Set<BlockPos> visited = new HashSet<>();
-        Queue<BlockPos> queue = new LinkedList<>();
-
-        // 根据策略获取路径点搜索半径
-        int waypointSearchRadius;
-        if (strategy == AIStrategy.PATROL) {
-            waypointSearchRadius = LogicaConfig.PATROL_WAYPOINT_SEARCH_RADIUS.get().intValue();
-        } else if (strategy == AIStrategy.SENTRIES) {
-            waypointSearchRadius = LogicaConfig.SENTRIES_WAYPOINT_SEARCH_RADIUS.get().intValue();
-        } else {
-            waypointSearchRadius = 1; // 默认只检查直接相邻
+        WaypointSearchEvent event = LogicaJfr.isEnabled() ? new WaypointSearchEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
+        LongArrayList found = searchIndex(level, strategyPos, strategy, waypointEntry, markerEntry, waypointSearchRadius);
+        if (event != null) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.record(strategyPos, strategy, false, found.size(), waypointSearchRadius);
+            }
         }
+        return adjustAndSort(level, found);
+    }
 
-        queue.add(strategyPos);
-        visited.add(strategyPos);
+    /**
+     * 在路径点索引上执行BFS（邻居来自路径点索引，不再逐格读取方块）
+     *
+     * @return 找到的路径点（未调整高度）
+     */
+    private static LongArrayList searchIndex(ServerLevel level, BlockPos strategyPos, AIStrategy strategy,
+                                             byte waypointEntry, byte markerEntry, int waypointSearchRadius) {
+        WaypointIndex index = WaypointIndex.get(level);
+        WaypointGraph graph = new WaypointGraph() {
+            @Override
+            public byte entryAt(long pos) {
+                return index.getEntry(level, BlockPos.of(pos));
+            }
 
-        if (LogicaConfig.shouldLogWaypointSearch()) {
+            @Override
+            public void forEachLinked(long pos, LongConsumer consumer) {
+                index.forEachLinked(level, pos, consumer);
+            }
+
+            @Override
+            public void forEachNeighbor(long pos, int radius, LongConsumer consumer) {
+                index.forEachNeighbor(level, waypointEntry, pos, radius, consumer);
+            }
+        };
+        return searchConnected(graph, strategyPos, strategy, waypointEntry, markerEntry, waypointSearchRadius);
+    }
+
+    /**
+     * BFS遍历路径点图
+     *
+     * @return 找到的路径点（未调整高度）
+     */
+    private static LongArrayList searchConnected(WaypointGraph graph, BlockPos strategyPos, AIStrategy strategy,
+                                                 byte waypointEntry, byte markerEntry, int waypointSearchRadius) {
+        LongArrayList found = new LongArrayList();
+        LongOpenHashSet visited = new LongOpenHashSet();
+        LongArrayFIFOQueue queue = new LongArrayFIFOQueue();
+
+        long start = strategyPos.asLong();
+        queue.enqueue(start);
+        visited.add(start);
+
+        boolean logSearch = LogicaConfig.shouldLogWaypointSearch();
+        if (logSearch) {
             Logica.LOGGER.info("Starting BFS waypoint search for {} from {} with search radius {}",
                     strategy, strategyPos, waypointSearchRadius);
         }
 
-        // BFS搜索相连的路径点
         while (!queue.isEmpty()) {
-            BlockPos current = queue.poll();
+            long current = queue.dequeueLong();
+            byte currentEntry = graph.entryAt(current);
 
             // 检查当前位置是否为路径点
-            BlockState currentState = level.getBlockState(current);
-            Block currentBlock = currentState.getBlock();
-
-            boolean isWaypoint = isMatchingWaypoint(currentBlock, waypointBlock, teamId);
-            if (isWaypoint) {
-                // 高度调整：将路径点调整到地面
-                BlockPos groundPos = findGroundBelow(level, current);
-                waypoints.add(groundPos);
-
-                if (LogicaConfig.shouldLogWaypointSearch()) {
-                    Logica.LOGGER.debug("Found waypoint at {} (adjusted from {})",
-                            groundPos, current);
-                }
+            if (currentEntry == waypointEntry) {
+                found.add(current);
             }
 
-            // 搜索策略：
-            // - 如果是策略标记方块：只检查直接相邻（1格）的路径点
-            // - 如果是路径点方块：检查周围半径内的下一个路径点
-            boolean isMarker = isMatchingStrategyMarker(currentBlock, strategy, teamId);
-            int searchRadius = isMarker ? 1 : waypointSearchRadius;
-
-            // 在指定半径内搜索相连的方块
-            for (int dx = -searchRadius; dx <= searchRadius; dx++) {
-                for (int dy = -searchRadius; dy <= searchRadius; dy++) {
-                    for (int dz = -searchRadius; dz <= searchRadius; dz++) {
-                        // 跳过中心点
-                        if (dx == 0 && dy == 0 && dz == 0) {
-                            continue;
-                        }
-
-                        BlockPos neighbor = current.offset(dx, dy, dz);
-
-                        if (!visited.contains(neighbor)) {
-                            BlockState neighborState = level.getBlockState(neighbor);
-                            Block neighborBlock = neighborState.getBlock();
-
-                            // 只搜索路径点（不再搜索标记方块，避免回路）
-                            if (isMatchingWaypoint(neighborBlock, waypointBlock, teamId)) {
-                                queue.add(neighbor);
-                                visited.add(neighbor);
-
-                                if (LogicaConfig.shouldLogWaypointSearch()) {
-                                    double distance = Math.sqrt(dx * dx + dy * dy + dz * dz);
-                                    Logica.LOGGER.debug("Connected waypoint {} to {} (distance: {:.1f})",
-                                            current, neighbor, distance);
-                                }
-                            }
-                        }
+            LongConsumer visit = neighbor -> {
+                if (visited.add(neighbor)) {
+                    queue.enqueue(neighbor);
+
+                    if (logSearch) {
+                        Logica.LOGGER.debug("Connected waypoint {} to {}",
+                                BlockPos.of(current), BlockPos.of(neighbor));
                     }
                 }
+            };
+
+            // 搜索策略：
+            // - 如果是路径点方块：沿邻接表走到半径内的下一个路径点
+            // - 如果是策略标记方块：只检查直接相邻（1格）的路径点
+            // 只搜索路径点（不再搜索标记方块，避免回路）
+            if (currentEntry == waypointEntry) {
+                graph.forEachLinked(current, visit);
+            } else {
+                int searchRadius = currentEntry == markerEntry ? 1 : waypointSearchRadius;
+                graph.forEachNeighbor(current, searchRadius, visit);
+            }
+        }
+
+        if (logSearch) {
+            Logica.LOGGER.info("BFS completed: found {} waypoints", found.size());
+        }
+        return found;
+    }
+
+    /**
+     * 高度调整并排序（服务器线程，读取方块）
+     *
+     * @return 排序后的路径点列表（按Y→X→Z排序）
+     */
+    private static List<BlockPos> adjustAndSort(Level level, LongArrayList found) {
+        boolean logSearch = LogicaConfig.shouldLogWaypointSearch();
+        List<BlockPos> waypoints = new ArrayList<>(found.size());
+        for (int i = 0; i < found.size(); i++) {
+            // 高度调整：将路径点调整到地面
+            BlockPos currentPos = BlockPos.of(found.getLong(i));
+            BlockPos groundPos = findGroundBelow(level, currentPos);
+            waypoints.add(groundPos);
+
+            if (logSearch) {
+                Logica.LOGGER.debug("Found waypoint at {} (adjusted from {})",
+                        groundPos, currentPos);
             }
         }
 
@@ -178,62 +230,177 @@ public class WaypointFinder {
         waypoints.sort(Comparator.<BlockPos>comparingInt(BlockPos::getY)
                 .thenComparingInt(BlockPos::getX)
                 .thenComparingInt(BlockPos::getZ));
+        return waypoints;
+    }
 
-        if (LogicaConfig.shouldLogWaypointSearch()) {
-            Logica.LOGGER.info("BFS completed: found {} waypoints", waypoints.size());
+    /**
+     * 获取策略对应的路径点搜索半径
+     */
+    private static int getSearchRadius(AIStrategy strategy) {
+        if (strategy == AIStrategy.PATROL) {
+            return LogicaConfig.PATROL_WAYPOINT_SEARCH_RADIUS.get().intValue();
+        } else if (strategy == AIStrategy.SENTRIES) {
+            return LogicaConfig.SENTRIES_WAYPOINT_SEARCH_RADIUS.get().intValue();
         }
-
-        return waypoints;
+        return 1; // 默认只检查直接相邻
     }
 
+    // ==================== 异步搜索 ====================
+
     /**
-     * 获取策略对应的路径点方块
+     * 在服务器线程准备异步搜索：复制路径点索引中该编号的快照
+     *
+     * @return 准备好的搜索，策略没有路径点时返回null
      */
-    private static Block getWaypointBlock(AIStrategy strategy) {
-        return switch (strategy) {
-            case PATROL -> ModBlocks.PATROL_WAYPOINT.get();
-            case SENTRIES -> ModBlocks.SENTRIES_WAYPOINT.get();
-            default -> null;
-        };
+    public static PendingSearch prepareSearch(ServerLevel level, BlockPos strategyPos, AIStrategy strategy, int teamId) {
+        byte waypointEntry = getWaypointEntry(strategy, teamId);
+        if (waypointEntry == WaypointIndex.NO_ENTRY) {
+            return null;
+        }
+        WaypointIndex index = WaypointIndex.get(level);
+        // 起点条目在这里读取（标记方块所在区块通常已加载）
+        byte startEntry = index.getEntry(level, strategyPos);
+        return new PendingSearch(index.snapshot(waypointEntry), strategyPos, strategy, startEntry,
+                waypointEntry, getMarkerEntry(strategy, teamId), getSearchRadius(strategy),
+                WaypointIndex.linkRadiusOf(WaypointIndex.kindOf(waypointEntry)));
     }
 
     /**
-     * 检查是否为匹配的路径点（编号相同）
+     * 异步路径点搜索
+     *
+     * <ol>
+     *   <li>{@link #search()}：任意线程，只查询快照</li>
+     *   <li>{@link #finish}：服务器线程，补扫搜索经过的未索引区块，高度调整并排序</li>
+     * </ol>
      */
-    private static boolean isMatchingWaypoint(Block block, Block expectedType, int teamId) {
-        // 检查方块类型是否匹配
-        if (block.getClass() != expectedType.getClass()) {
-            return false;
+    public static final class PendingSearch {
+
+        private final WaypointIndex.Snapshot snapshot;
+        private final BlockPos strategyPos;
+        private final AIStrategy strategy;
+        private final byte startEntry;
+        private final byte waypointEntry;
+        private final byte markerEntry;
+        private final int searchRadius;
+        private final int linkRadius;
+
+        // 后台线程上的搜索耗时（仅在性能分析器启用时记录，由finish提交）
+        private long searchNanos;
+
+        private PendingSearch(WaypointIndex.Snapshot snapshot, BlockPos strategyPos, AIStrategy strategy, byte startEntry,
+                              byte waypointEntry, byte markerEntry, int searchRadius, int linkRadius) {
+            this.snapshot = snapshot;
+            this.strategyPos = strategyPos;
+            this.strategy = strategy;
+            this.startEntry = startEntry;
+            this.waypointEntry = waypointEntry;
+            this.markerEntry = markerEntry;
+            this.searchRadius = searchRadius;
+            this.linkRadius = linkRadius;
         }
 
-        // 检查区域编号是否匹配
-        if (block instanceof SentriesWaypointBlock sentries) {
-            return sentries.getTeamId() == teamId;
-        } else if (block instanceof PatrolWaypointBlock patrol) {
-            return patrol.getTeamId() == teamId;
+        /**
+         * 快照时路径点编号的版本号（生成的路线使用此版本）
+         */
+        public int getVersion() {
+            return snapshot.getVersion();
         }
 
-        return false;
-    }
+        /**
+         * 在快照上执行BFS（不访问世界，可在后台线程调用）
+         */
+        public LongArrayList search() {
+            long start = strategyPos.asLong();
+            WaypointGraph graph = new WaypointGraph() {
+                @Override
+                public byte entryAt(long pos) {
+                    if (pos == start) {
+                        return startEntry;
+                    }
+                    return snapshot.contains(pos) ? waypointEntry : WaypointIndex.NO_ENTRY;
+                }
 
-    /**
-     * 检查是否为匹配的策略标记方块（编号相同）
-     */
-    private static boolean isMatchingStrategyMarker(Block block, AIStrategy strategy, int teamId) {
-        return switch (strategy) {
-            case SENTRIES -> {
-                if (block instanceof SentriesMarkerBlock sentries) {
-                    yield sentries.getTeamId() == teamId;
+                @Override
+                public void forEachLinked(long pos, LongConsumer consumer) {
+                    if (linkRadius > 0) {
+                        snapshot.forEachNeighbor(pos, linkRadius, consumer);
+                    }
+                }
+
+                @Override
+                public void forEachNeighbor(long pos, int radius, LongConsumer consumer) {
+                    snapshot.forEachNeighbor(pos, radius, consumer);
                 }
-                yield false;
+            };
+            long begin = LogicaProfiler.begin();
+            WaypointSearchEvent event = LogicaJfr.isEnabled() ? new WaypointSearchEvent() : null;
+            if (event != null) {
+                event.begin();
             }
-            case PATROL -> {
-                if (block instanceof PatrolMarkerBlock patrol) {
-                    yield patrol.getTeamId() == teamId;
+            LongArrayList found = searchConnected(graph, strategyPos, strategy, waypointEntry, markerEntry, searchRadius);
+            if (event != null) {
+                event.end();
+                if (event.shouldCommit()) {
+                    event.record(strategyPos, strategy, true, found.size(), searchRadius);
                 }
-                yield false;
             }
-            default -> false;
+            if (begin != 0L) {
+                searchNanos = System.nanoTime() - begin;
+            }
+            return found;
+        }
+
+        /**
+         * 在服务器线程完成搜索
+         *
+         * @param found {@link #search()} 的结果
+         * @return 排序后的路径点列表；搜索期间路径点发生变化（或经过了未索引的区块）时返回null，调用者应重新同步搜索
+         */
+        public List<BlockPos> finish(ServerLevel level, LongArrayList found) {
+            if (searchNanos != 0L) {
+                LogicaProfiler.record(LogicaProfiler.Section.WAYPOINT_SEARCH_ASYNC, WaypointFinder.class,
+                        strategy, level.dimension(), searchNanos);
+            }
+
+            long start = LogicaProfiler.begin();
+            List<BlockPos> waypoints = WaypointIndex.get(level).indexTouchedChunks(level, snapshot, waypointEntry)
+                    ? adjustAndSort(level, found)
+                    : null;
+            LogicaProfiler.end(start, LogicaProfiler.Section.WAYPOINT_FINISH, WaypointFinder.class, strategy, level.dimension());
+            return waypoints;
+        }
+    }
+
+    /**
+     * 路径点图（同步搜索查询索引本身，异步搜索查询快照）
+     */
+    private interface WaypointGraph {
+        byte entryAt(long pos);
+
+        void forEachLinked(long pos, LongConsumer consumer);
+
+        void forEachNeighbor(long pos, int radius, LongConsumer consumer);
+    }
+
+    /**
+     * 获取策略对应的路径点条目（编号相同）
+     */
+    static byte getWaypointEntry(AIStrategy strategy, int teamId) {
+        return switch (strategy) {
+            case PATROL -> WaypointIndex.entry(WaypointIndex.Kind.PATROL_WAYPOINT, teamId);
+            case SENTRIES -> WaypointIndex.entry(WaypointIndex.Kind.SENTRIES_WAYPOINT, teamId);
+            default -> WaypointIndex.NO_ENTRY;
+        };
+    }
+
+    /**
+     * 获取策略对应的标记方块条目（编号相同）
+     */
+    private static byte getMarkerEntry(AIStrategy strategy, int teamId) {
+        return switch (strategy) {
+            case PATROL -> WaypointIndex.entry(WaypointIndex.Kind.PATROL_MARKER, teamId);
+            case SENTRIES -> WaypointIndex.entry(WaypointIndex.Kind.SENTRIES_MARKER, teamId);
+            default -> WaypointIndex.NO_ENTRY;
         };
     }
 
@@ -245,26 +412,18 @@ public class WaypointFinder {
      * @return 地面位置（固体方块上方1格）
      */
     private static BlockPos findGroundBelow(Level level, BlockPos pos) {
-        // 从当前位置向下搜索，找到第一个固体方块
-        for (int y = pos.getY(); y >= level.getMinBuildHeight(); y--) {
-            BlockPos checkPos = new BlockPos(pos.getX(), y, pos.getZ());
-            BlockState state = level.getBlockState(checkPos);
-
-            // 检查是否为完整的固体方块（可站立）
-            if (!state.isAir() && state.isCollisionShapeFullBlock(level, checkPos)) {
-                BlockPos groundPos = checkPos.above(); // 返回固体方块上方
-
-                if (!groundPos.equals(pos)) {
-                    Logica.LOGGER.debug("Adjusted waypoint from Y={} to Y={}",
-                        pos.getY(), groundPos.getY());
-                }
-
-                return groundPos;
-            }
+        // 向下找到第一个完整的固体方块（可站立），返回它的上方
+        BlockPos groundPos = GroundSnapper.snapToFullBlock(level, pos);
+        if (groundPos == null) {
+            // 找不到地面（可能在虚空），返回原位置
+            Logica.LOGGER.warn("Could not find ground below waypoint at {}, using original position", pos);
+            return pos;
         }
 
-        // 找不到地面（可能在虚空），返回原位置
-        Logica.LOGGER.warn("Could not find ground below waypoint at {}, using original position", pos);
-        return pos;
+        if (!groundPos.equals(pos)) {
+            Logica.LOGGER.debug("Adjusted waypoint from Y={} to Y={}",
+                pos.getY(), groundPos.getY());
+        }
+        return groundPos;
     }
 }
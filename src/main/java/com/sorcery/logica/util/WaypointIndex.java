@@ -0,0 +1,666 @@
+package com.sorcery.logica.util;
+
+import com.sorcery.logica.Logica;
+import com.sorcery.logica.blocks.*;
+import com.sorcery.logica.config.LogicaConfig;
+import it.unimi.dsi.fastutil.longs.Long2ByteOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import it.unimi.dsi.fastutil.longs.LongSets;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.Tag;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.ChunkAccess;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.saveddata.SavedData;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.LongConsumer;
+
+/**
+ * 路径点索引 - 每个维度一份的持久化标记方块索引
+ *
+ * <h2>数据结构</h2>
+ * <ul>
+ *   <li>位置 → 条目（种类 + 区域编号，打包为1字节）</li>
+ *   <li>条目 → 区块 → 位置集合（按编号、按区块分桶，用于邻居查询）</li>
+ *   <li>已索引区块集合（不持久化：读档时由含有标记方块的区块重建，没有标记方块的区块卸载时移除）</li>
+ *   <li>路径点邻接表（同编号、连接半径内的路径点互为邻居；不持久化，按需建立）</li>
+ *   <li>条目版本号（路径点增删或区块扫描改变了该编号的记录时递增，持有路线的怪物据此判断是否需要刷新）</li>
+ * </ul>
+ *
+ * <h2>维护方式</h2>
+ * <ul>
+ *   <li>标记方块的onPlace/onRemove实时增删</li>
+ *   <li>区块加载时扫描未索引的区块（调色板过滤，无标记方块的区段直接跳过）</li>
+ *   <li>查询范围内存在未索引区块时，先加载并扫描（与原BFS逐格读取的加载行为一致）</li>
+ *   <li>增删单个路径点只更新它自己和已建立邻接表的邻居，复杂度 O(邻居数)</li>
+ * </ul>
+ *
+ * <p>索引本身只能在服务器线程访问；后台线程通过 {@link #snapshot(byte)} 取得单个条目的只读副本
+ *
+ * @see WaypointFinder
+ */
+public class WaypointIndex extends SavedData {
+
+    private static final String DATA_NAME = Logica.MOD_ID + "_waypoints";
+
+    /**
+     * 标记方块种类
+     */
+    public enum Kind {
+        GUARD_MARKER,
+        SENTRIES_MARKER,
+        SENTRIES_WAYPOINT,
+        PATROL_MARKER,
+        PATROL_WAYPOINT
+    }
+
+    private static final Kind[] KINDS = Kind.values();
+
+    /** 不存在的条目 */
+    public static final byte NO_ENTRY = -1;
+
+    // 位置 -> 条目
+    private final Long2ByteOpenHashMap entries = new Long2ByteOpenHashMap();
+
+    // 条目 -> 区块 -> 位置
+    private final Long2ObjectOpenHashMap<LongOpenHashSet>[] buckets;
+
+    // 已扫描过的区块
+    private final LongOpenHashSet indexedChunks = new LongOpenHashSet();
+
+    // 种类 -> 位置 -> 相邻路径点（只有被查询过的节点才有记录）
+    private final Long2ObjectOpenHashMap<LongOpenHashSet>[] adjacency;
+
+    // 种类 -> 建立邻接表时使用的连接半径（-1表示尚未建立）
+    private final int[] linkRadius;
+
+    // 条目 -> 版本号
+    private final int[] versions;
+
+    @SuppressWarnings("unchecked")
+    public WaypointIndex() {
+        this.entries.defaultReturnValue(NO_ENTRY);
+        this.buckets = new Long2ObjectOpenHashMap[KINDS.length * 16];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new Long2ObjectOpenHashMap<>();
+        }
+        this.adjacency = new Long2ObjectOpenHashMap[KINDS.length];
+        for (int i = 0; i < adjacency.length; i++) {
+            adjacency[i] = new Long2ObjectOpenHashMap<>();
+        }
+        this.linkRadius = new int[KINDS.length];
+        Arrays.fill(linkRadius, -1);
+        this.versions = new int[KINDS.length * 16];
+    }
+
+    /**
+     * 获取维度对应的索引（不存在时创建）
+     */
+    public static WaypointIndex get(ServerLevel level) {
+        return level.getDataStorage().computeIfAbsent(WaypointIndex::load, WaypointIndex::new, DATA_NAME);
+    }
+
+    // ==================== 条目编码 ====================
+
+    /**
+     * 打包条目：种类 × 16 + 区域编号
+     */
+    public static byte entry(Kind kind, int teamId) {
+        return (byte) (kind.ordinal() * 16 + (teamId & 15));
+    }
+
+    public static Kind kindOf(byte entry) {
+        return KINDS[entry >> 4];
+    }
+
+    public static int teamOf(byte entry) {
+        return entry & 15;
+    }
+
+    /**
+     * 计算方块对应的条目
+     *
+     * @return 条目，非标记方块返回 {@link #NO_ENTRY}
+     */
+    public static byte entryOf(Block block) {
+        if (block instanceof PatrolWaypointBlock patrol) {
+            return entry(Kind.PATROL_WAYPOINT, patrol.getTeamId());
+        } else if (block instanceof SentriesWaypointBlock sentries) {
+            return entry(Kind.SENTRIES_WAYPOINT, sentries.getTeamId());
+        } else if (block instanceof PatrolMarkerBlock patrol) {
+            return entry(Kind.PATROL_MARKER, patrol.getTeamId());
+        } else if (block instanceof SentriesMarkerBlock sentries) {
+            return entry(Kind.SENTRIES_MARKER, sentries.getTeamId());
+        } else if (block instanceof GuardMarkerBlock) {
+            return entry(Kind.GUARD_MARKER, 0);
+        }
+        return NO_ENTRY;
+    }
+
+    private static boolean isIndexed(BlockState state) {
+        return state.getBlock() instanceof BaseMarkerBlock;
+    }
+
+    /**
+     * 获取种类对应的路径点连接半径
+     *
+     * @return 连接半径，非路径点种类返回0
+     */
+    public static int linkRadiusOf(Kind kind) {
+        return switch (kind) {
+            case PATROL_WAYPOINT -> LogicaConfig.PATROL_WAYPOINT_SEARCH_RADIUS.get().intValue();
+            case SENTRIES_WAYPOINT -> LogicaConfig.SENTRIES_WAYPOINT_SEARCH_RADIUS.get().intValue();
+            default -> 0;
+        };
+    }
+
+    // ==================== 增删 ====================
+
+    /**
+     * 记录方块（已存在相同条目时不做任何事）
+     */
+    public void add(BlockPos pos, BlockState state) {
+        add(pos.asLong(), entryOf(state.getBlock()));
+    }
+
+    /**
+     * 按条目记录位置（已存在相同条目时不做任何事）
+     */
+    void add(long packed, byte entry) {
+        if (entry == NO_ENTRY) {
+            return;
+        }
+        byte previous = entries.get(packed);
+        if (previous == entry) {
+            return;
+        }
+        if (previous != NO_ENTRY) {
+            removeFromBucket(previous, packed);
+            unlinkNode(previous, packed);
+        }
+        entries.put(packed, entry);
+        buckets[entry].computeIfAbsent(chunkKey(packed), k -> new LongOpenHashSet()).add(packed);
+        linkNode(entry, packed);
+        setDirty();
+    }
+
+    /**
+     * 移除方块记录
+     */
+    public void remove(BlockPos pos) {
+        long packed = pos.asLong();
+        byte previous = entries.remove(packed);
+        if (previous == NO_ENTRY) {
+            return;
+        }
+        removeFromBucket(previous, packed);
+        unlinkNode(previous, packed);
+        setDirty();
+    }
+
+    private void removeFromBucket(byte entry, long packed) {
+        long chunk = chunkKey(packed);
+        LongOpenHashSet bucket = buckets[entry].get(chunk);
+        if (bucket != null && bucket.remove(packed) && bucket.isEmpty()) {
+            buckets[entry].remove(chunk);
+        }
+    }
+
+    // ==================== 邻接表 ====================
+
+    /**
+     * 获取条目的版本号（该编号的路径点每次增删都会递增）
+     */
+    public int getVersion(byte entry) {
+        return versions[entry];
+    }
+
+    /**
+     * 获取当前有效的连接半径（配置改变时丢弃该种类的邻接表）
+     */
+    private int currentLinkRadius(Kind kind) {
+        int radius = linkRadiusOf(kind);
+        int k = kind.ordinal();
+        if (linkRadius[k] != radius) {
+            if (linkRadius[k] >= 0) {
+                adjacency[k].clear();
+                for (int team = 0; team < 16; team++) {
+                    versions[entry(kind, team)]++;
+                }
+                LogHelper.debug("Waypoint link radius for {} changed to {}, dropping adjacency", kind, radius);
+            }
+            linkRadius[k] = radius;
+        }
+        return radius;
+    }
+
+    /**
+     * 新节点加入：通知已建立邻接表的邻居
+     *
+     * <p>新节点自身的邻接表在首次查询时建立
+     */
+    private void linkNode(byte entry, long packed) {
+        Kind kind = kindOf(entry);
+        int radius = currentLinkRadius(kind);
+        if (radius <= 0) {
+            return;
+        }
+
+        Long2ObjectOpenHashMap<LongOpenHashSet> links = adjacency[kind.ordinal()];
+        forEachNeighbor(null, entry, packed, radius, neighbor -> {
+            LongOpenHashSet neighborLinks = links.get(neighbor);
+            if (neighborLinks != null) {
+                neighborLinks.add(packed);
+            }
+        });
+        versions[entry]++;
+    }
+
+    /**
+     * 节点移除：从邻居的邻接表中删除
+     */
+    private void unlinkNode(byte entry, long packed) {
+        Kind kind = kindOf(entry);
+        int radius = currentLinkRadius(kind);
+        if (radius <= 0) {
+            return;
+        }
+
+        Long2ObjectOpenHashMap<LongOpenHashSet> links = adjacency[kind.ordinal()];
+        LongConsumer detach = neighbor -> {
+            LongOpenHashSet neighborLinks = links.get(neighbor);
+            if (neighborLinks != null) {
+                neighborLinks.remove(packed);
+            }
+        };
+
+        LongOpenHashSet ownLinks = links.remove(packed);
+        if (ownLinks != null) {
+            // 邻接关系是对称的，自身的邻接表就是全部邻居
+            LongIterator it = ownLinks.iterator();
+            while (it.hasNext()) {
+                detach.accept(it.nextLong());
+            }
+        } else {
+            forEachNeighbor(null, entry, packed, radius, detach);
+        }
+        versions[entry]++;
+    }
+
+    /**
+     * 遍历路径点在图中的相邻路径点（首次查询时建立该节点的邻接表）
+     *
+     * @param pos 路径点位置（调用者需保证所在区块已索引）
+     */
+    public void forEachLinked(ServerLevel level, long pos, LongConsumer consumer) {
+        byte entry = entries.get(pos);
+        if (entry == NO_ENTRY) {
+            return;
+        }
+        Kind kind = kindOf(entry);
+        int radius = currentLinkRadius(kind);
+        if (radius <= 0) {
+            return;
+        }
+
+        Long2ObjectOpenHashMap<LongOpenHashSet> links = adjacency[kind.ordinal()];
+        LongOpenHashSet nodeLinks = links.get(pos);
+        if (nodeLinks == null) {
+            LongOpenHashSet computed = new LongOpenHashSet();
+            forEachNeighbor(level, entry, pos, radius, computed::add);
+            links.put(pos, computed);
+            nodeLinks = computed;
+        }
+
+        LongIterator it = nodeLinks.iterator();
+        while (it.hasNext()) {
+            consumer.accept(it.nextLong());
+        }
+    }
+
+    // ==================== 区块扫描 ====================
+
+    public boolean isChunkIndexed(int chunkX, int chunkZ) {
+        return indexedChunks.contains(ChunkPos.asLong(chunkX, chunkZ));
+    }
+
+    /**
+     * 区块卸载：没有标记方块的区块不再视为已索引（下次加载时重新扫描，调色板过滤下代价很小）
+     *
+     * <p>含有标记方块的区块保留：它们的记录随索引持久化，卸载期间也可以直接查询
+     */
+    public void unloadChunk(int chunkX, int chunkZ) {
+        long chunkKey = ChunkPos.asLong(chunkX, chunkZ);
+        for (Long2ObjectOpenHashMap<LongOpenHashSet> bucketMap : buckets) {
+            if (bucketMap.containsKey(chunkKey)) {
+                return;
+            }
+        }
+        indexedChunks.remove(chunkKey);
+    }
+
+    /**
+     * 扫描区块中的所有标记方块（替换该区块的旧记录）
+     *
+     * <p>利用调色板（maybeHas）过滤：不含标记方块的区段不逐格读取
+     */
+    public void indexChunk(ChunkAccess chunk) {
+        ChunkPos chunkPos = chunk.getPos();
+        long chunkKey = chunkPos.toLong();
+
+        // 清除该区块的旧记录（保留下来，扫描结束后比较哪些条目有变化）
+        LongOpenHashSet[] previous = new LongOpenHashSet[buckets.length];
+        for (int entry = 0; entry < buckets.length; entry++) {
+            LongOpenHashSet bucket = buckets[entry].remove(chunkKey);
+            if (bucket != null) {
+                previous[entry] = bucket;
+                LongIterator it = bucket.iterator();
+                while (it.hasNext()) {
+                    long packed = it.nextLong();
+                    entries.remove(packed);
+                    unlinkNode((byte) entry, packed);
+                }
+            }
+        }
+
+        LevelChunkSection[] sections = chunk.getSections();
+        int baseX = chunkPos.getMinBlockX();
+        int baseZ = chunkPos.getMinBlockZ();
+        int found = 0;
+
+        for (int i = 0; i < sections.length; i++) {
+            LevelChunkSection section = sections[i];
+            if (section == null || section.hasOnlyAir() || !section.maybeHas(WaypointIndex::isIndexed)) {
+                continue;
+            }
+
+            int baseY = SectionPos.sectionToBlockCoord(chunk.getSectionYFromSectionIndex(i));
+            for (int y = 0; y < 16; y++) {
+                for (int z = 0; z < 16; z++) {
+                    for (int x = 0; x < 16; x++) {
+                        byte entry = entryOf(section.getBlockState(x, y, z).getBlock());
+                        if (entry == NO_ENTRY) {
+                            continue;
+                        }
+                        long packed = BlockPos.asLong(baseX + x, baseY + y, baseZ + z);
+                        entries.put(packed, entry);
+                        buckets[entry].computeIfAbsent(chunkKey, k -> new LongOpenHashSet()).add(packed);
+                        linkNode(entry, packed);
+                        found++;
+                    }
+                }
+            }
+        }
+
+        // 内容有变化的条目递增版本号，让扫描前开始的异步搜索作废；只有标记方块集合变化时才需要保存
+        boolean changed = false;
+        for (int entry = 0; entry < buckets.length; entry++) {
+            if (!Objects.equals(previous[entry], buckets[entry].get(chunkKey))) {
+                versions[entry]++;
+                changed = true;
+            }
+        }
+        if (changed) {
+            setDirty();
+        }
+
+        indexedChunks.add(chunkKey);
+
+        if (found > 0) {
+            LogHelper.debug("Indexed {} marker blocks in chunk {}", found, chunkPos);
+        }
+    }
+
+    /**
+     * 确保区块已被扫描（未扫描时同步加载区块）
+     */
+    private void ensureIndexed(ServerLevel level, int chunkX, int chunkZ) {
+        if (!isChunkIndexed(chunkX, chunkZ)) {
+            // 加载区块会触发ChunkEvent.Load完成扫描；这里再兜底一次
+            ChunkAccess chunk = level.getChunk(chunkX, chunkZ);
+            if (!isChunkIndexed(chunkX, chunkZ)) {
+                indexChunk(chunk);
+            }
+        }
+    }
+
+    // ==================== 查询 ====================
+
+    /**
+     * 获取位置上的条目
+     *
+     * @return 条目，没有记录时返回 {@link #NO_ENTRY}
+     */
+    public byte getEntry(ServerLevel level, BlockPos pos) {
+        ensureIndexed(level, SectionPos.blockToSectionCoord(pos.getX()), SectionPos.blockToSectionCoord(pos.getZ()));
+        return entries.get(pos.asLong());
+    }
+
+    /**
+     * 获取区块内指定条目的所有位置（不会触发区块加载）
+     */
+    public LongSet getPositionsInChunk(byte entry, int chunkX, int chunkZ) {
+        LongOpenHashSet bucket = buckets[entry].get(ChunkPos.asLong(chunkX, chunkZ));
+        return bucket != null ? bucket : LongSets.EMPTY_SET;
+    }
+
+    /**
+     * 区块内是否有策略标记方块（不会触发区块加载）
+     */
+    public boolean hasMarkersInChunk(int chunkX, int chunkZ) {
+        long chunkKey = ChunkPos.asLong(chunkX, chunkZ);
+        for (int entry = 0; entry < buckets.length; entry++) {
+            if (isMarker((byte) entry) && buckets[entry].containsKey(chunkKey)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 条目是否为策略标记方块（而不是路径点）
+     */
+    public static boolean isMarker(byte entry) {
+        if (entry == NO_ENTRY) {
+            return false;
+        }
+        Kind kind = kindOf(entry);
+        return kind == Kind.GUARD_MARKER || kind == Kind.SENTRIES_MARKER || kind == Kind.PATROL_MARKER;
+    }
+
+    /**
+     * 遍历立方体邻域（切比雪夫距离 ≤ radius，不含中心）内指定条目的所有位置
+     *
+     * <p>等价于原BFS的 (2r+1)^3 逐格扫描，但只访问覆盖范围内区块的分桶
+     *
+     * @param level 世界；为null时只查询已索引的区块，不触发区块加载
+     */
+    public void forEachNeighbor(ServerLevel level, byte entry, long center, int radius, LongConsumer consumer) {
+        int cx = BlockPos.getX(center);
+        int cz = BlockPos.getZ(center);
+
+        int minChunkX = SectionPos.blockToSectionCoord(cx - radius);
+        int maxChunkX = SectionPos.blockToSectionCoord(cx + radius);
+        int minChunkZ = SectionPos.blockToSectionCoord(cz - radius);
+        int maxChunkZ = SectionPos.blockToSectionCoord(cz + radius);
+
+        Long2ObjectOpenHashMap<LongOpenHashSet> bucketMap = buckets[entry];
+
+        for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+            for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+                if (level != null) {
+                    ensureIndexed(level, chunkX, chunkZ);
+                }
+
+                LongOpenHashSet bucket = bucketMap.get(ChunkPos.asLong(chunkX, chunkZ));
+                if (bucket != null) {
+                    forEachInCube(bucket, center, radius, consumer);
+                }
+            }
+        }
+    }
+
+    /**
+     * 遍历分桶中位于立方体邻域内的位置（不含中心）
+     */
+    private static void forEachInCube(LongOpenHashSet bucket, long center, int radius, LongConsumer consumer) {
+        int cx = BlockPos.getX(center);
+        int cy = BlockPos.getY(center);
+        int cz = BlockPos.getZ(center);
+
+        LongIterator it = bucket.iterator();
+        while (it.hasNext()) {
+            long candidate = it.nextLong();
+            if (candidate == center) {
+                continue;
+            }
+            if (Math.abs(BlockPos.getX(candidate) - cx) <= radius
+                    && Math.abs(BlockPos.getY(candidate) - cy) <= radius
+                    && Math.abs(BlockPos.getZ(candidate) - cz) <= radius) {
+                consumer.accept(candidate);
+            }
+        }
+    }
+
+    // ==================== 快照 ====================
+
+    /**
+     * 复制条目的所有位置（只包含已索引区块）
+     */
+    public Snapshot snapshot(byte entry) {
+        Long2ObjectOpenHashMap<LongOpenHashSet> copy = new Long2ObjectOpenHashMap<>(buckets[entry].size());
+        ObjectIterator<Long2ObjectOpenHashMap.Entry<LongOpenHashSet>> it = buckets[entry].long2ObjectEntrySet().fastIterator();
+        while (it.hasNext()) {
+            Long2ObjectOpenHashMap.Entry<LongOpenHashSet> bucket = it.next();
+            copy.put(bucket.getLongKey(), new LongOpenHashSet(bucket.getValue()));
+        }
+        return new Snapshot(copy, versions[entry]);
+    }
+
+    /**
+     * 单个条目的只读快照，可在任意线程查询
+     *
+     * <p>快照不会加载区块：查询过的区块被记录下来，回到服务器线程后由
+     * {@link #indexTouchedChunks} 补扫其中未索引的区块
+     */
+    public static final class Snapshot {
+
+        private final Long2ObjectOpenHashMap<LongOpenHashSet> buckets;
+        private final int version;
+        private final LongOpenHashSet touchedChunks = new LongOpenHashSet();
+
+        private Snapshot(Long2ObjectOpenHashMap<LongOpenHashSet> buckets, int version) {
+            this.buckets = buckets;
+            this.version = version;
+        }
+
+        /**
+         * 快照时条目的版本号
+         */
+        public int getVersion() {
+            return version;
+        }
+
+        public boolean contains(long pos) {
+            LongOpenHashSet bucket = buckets.get(chunkKey(pos));
+            return bucket != null && bucket.contains(pos);
+        }
+
+        /**
+         * 同 {@link WaypointIndex#forEachNeighbor}，但只查询快照
+         */
+        public void forEachNeighbor(long center, int radius, LongConsumer consumer) {
+            int cx = BlockPos.getX(center);
+            int cz = BlockPos.getZ(center);
+
+            int minChunkX = SectionPos.blockToSectionCoord(cx - radius);
+            int maxChunkX = SectionPos.blockToSectionCoord(cx + radius);
+            int minChunkZ = SectionPos.blockToSectionCoord(cz - radius);
+            int maxChunkZ = SectionPos.blockToSectionCoord(cz + radius);
+
+            for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+                for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+                    long chunk = ChunkPos.asLong(chunkX, chunkZ);
+                    touchedChunks.add(chunk);
+
+                    LongOpenHashSet bucket = buckets.get(chunk);
+                    if (bucket != null) {
+                        forEachInCube(bucket, center, radius, consumer);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 补扫快照查询过但尚未索引的区块（服务器线程，可能同步加载区块）
+     *
+     * @return 补扫后条目版本号是否仍与快照一致（不一致说明快照的搜索结果已过期）
+     */
+    public boolean indexTouchedChunks(ServerLevel level, Snapshot snapshot, byte entry) {
+        LongIterator it = snapshot.touchedChunks.iterator();
+        while (it.hasNext()) {
+            long chunk = it.nextLong();
+            ensureIndexed(level, ChunkPos.getX(chunk), ChunkPos.getZ(chunk));
+        }
+        return versions[entry] == snapshot.version;
+    }
+
+    private static long chunkKey(long packedPos) {
+        return ChunkPos.asLong(
+                SectionPos.blockToSectionCoord(BlockPos.getX(packedPos)),
+                SectionPos.blockToSectionCoord(BlockPos.getZ(packedPos)));
+    }
+
+    // ==================== 持久化 ====================
+
+    @Override
+    public CompoundTag save(CompoundTag tag) {
+        long[] positions = new long[entries.size()];
+        byte[] types = new byte[entries.size()];
+        int i = 0;
+        for (Long2ByteOpenHashMap.Entry e : entries.long2ByteEntrySet()) {
+            positions[i] = e.getLongKey();
+            types[i] = e.getByteValue();
+            i++;
+        }
+
+        tag.putLongArray("positions", positions);
+        tag.putByteArray("types", types);
+        return tag;
+    }
+
+    public static WaypointIndex load(CompoundTag tag) {
+        WaypointIndex index = new WaypointIndex();
+
+        if (tag.contains("positions", Tag.TAG_LONG_ARRAY) && tag.contains("types", Tag.TAG_BYTE_ARRAY)) {
+            long[] positions = tag.getLongArray("positions");
+            byte[] types = tag.getByteArray("types");
+            int count = Math.min(positions.length, types.length);
+            for (int i = 0; i < count; i++) {
+                byte entry = types[i];
+                if (entry < 0 || entry >= index.buckets.length) {
+                    continue;
+                }
+                long chunk = chunkKey(positions[i]);
+                index.entries.put(positions[i], entry);
+                index.buckets[entry].computeIfAbsent(chunk, k -> new LongOpenHashSet()).add(positions[i]);
+                // 含有标记方块的区块视为已索引；其余区块在加载或查询时重新扫描
+                index.indexedChunks.add(chunk);
+            }
+        }
+
+        return index;
+    }
+}